@@ -0,0 +1,125 @@
+/*******************************************************************************
+ *  Copyright (c) 2016 ModelSolv, Inc. and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.editor
+
+import com.fasterxml.jackson.core.JsonPointer
+import com.reprezen.swagedit.model.ParseResult
+import org.eclipse.jface.text.DocumentEvent
+import org.eclipse.jface.text.IDocumentListener
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class ParseJobTest {
+
+	val document = new SwaggerDocument
+
+	@Test
+	def void testPublishRejectsStaleResult() {
+		document.set('''
+			swagger: '2.0'
+		''')
+		val stale = ParseResult.parse(document.schema, document.get, document.modificationStamp, null)
+
+		document.set('''
+			swagger: '2.0'
+			host: localhost
+		''')
+
+		assertFalse(document.publish(stale))
+		assertTrue(document.publish(
+			ParseResult.parse(document.schema, document.get, document.modificationStamp, null)))
+		assertNotNull(document.model.find(JsonPointer.compile("/host")))
+	}
+
+	@Test
+	def void testPublishRejectsResultDuringModification() {
+		document.set("swagger: '2.0'\n")
+		val parsed = ParseResult.parse(document.schema, document.get, document.modificationStamp, null)
+		val published = newArrayList
+		document.addDocumentListener(new IDocumentListener {
+			override documentAboutToBeChanged(DocumentEvent event) {
+				// the stamp of the document has not changed yet
+				published += document.publish(parsed)
+			}
+
+			override documentChanged(DocumentEvent event) {
+			}
+		})
+
+		document.replace(0, 0, "# comment\n")
+
+		assertEquals(#[false], published)
+		assertNull(document.publishedResult)
+		assertTrue(document.publish(
+			ParseResult.parse(document.schema, document.get, document.modificationStamp, null)))
+	}
+
+	@Test
+	def void testJobPublishesResultForCurrentContent() {
+		document.set('''
+			swagger: '2.0'
+		''')
+		document.onChange
+
+		document.set('''
+			swagger: '2.0'
+			info:
+			  title: API
+		''')
+
+		val job = new ParseJob(document)
+		job.update
+		job.join
+
+		assertTrue(job.result.OK)
+		assertEquals(document.modificationStamp, document.parseResult.stamp)
+		assertEquals("API", document.asJson.at("/info/title").asText)
+	}
+
+	@Test
+	def void testJobIsCanceledByNewerContent() {
+		document.set('''
+			swagger: '2.0'
+		''')
+		document.onChange
+		val initial = document.parseResult
+
+		val job = new ParseJob(document)
+		job.update
+		job.cancel
+		job.join
+
+		assertSame(initial, document.parseResult)
+	}
+
+	@Test
+	def void testJobParsesOnlyModifiedEntry() {
+		document.set('''
+			swagger: '2.0'
+			info:
+			  title: API
+		''')
+		document.onChange
+		val initial = document.parseResult
+
+		val job = new ParseJob(document)
+		document.addDocumentListener(job)
+		document.replace(document.get.indexOf("API"), 3, "Store")
+		document.replace(document.get.indexOf("Store") + 5, 0, " API")
+		job.join
+
+		assertTrue(job.result.OK)
+		assertEquals("Store API", document.asJson.at("/info/title").asText)
+		assertTrue(initial.model.find(JsonPointer.compile("/swagger")).sharesContentWith(
+			document.model.find(JsonPointer.compile("/swagger"))))
+	}
+}
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ *  Copyright (c) 2016 ModelSolv, Inc. and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.editor
+
+import com.reprezen.swagedit.validation.SwaggerError
+import com.reprezen.swagedit.validation.Validator
+import java.util.List
+import java.util.Set
+import org.eclipse.core.runtime.IProgressMonitor
+import org.eclipse.core.runtime.NullProgressMonitor
+import org.eclipse.core.runtime.OperationCanceledException
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class ValidationJobTest {
+
+	val document = new SwaggerDocument
+	val List<Set<SwaggerError>> reported = newArrayList
+
+	@Test
+	def void testJobReportsErrorsOfCurrentContent() {
+		document.set('''
+			swagger: '2.0'
+		''')
+		document.onChange
+
+		val status = job[new Validator().validate(document, null, it)].run(new NullProgressMonitor)
+
+		assertTrue(status.OK)
+		assertEquals(1, reported.size)
+		assertFalse(reported.head.empty)
+	}
+
+	@Test
+	def void testJobDoesNotReportErrorsOfStaleContent() {
+		document.set('''
+			swagger: '2.0'
+		''')
+		document.onChange
+
+		val status = job [
+			val errors = new Validator().validate(document, null, it)
+			// the document is modified during the validation
+			document.set("swagger: '2.0'\n")
+			errors
+		].run(new NullProgressMonitor)
+
+		assertFalse(status.OK)
+		assertTrue(reported.empty)
+	}
+
+	@Test
+	def void testJobDoesNotValidateContentBeingParsed() {
+		document.set('''
+			swagger: '2.0'
+		''')
+		document.onChange
+		document.set('''
+			swagger: '2.0'
+			info: {}
+		''')
+
+		val status = job[fail("should not validate") null].run(new NullProgressMonitor)
+
+		assertFalse(status.OK)
+		assertTrue(reported.empty)
+	}
+
+	@Test
+	def void testJobDoesNotParseContent() {
+		document.set('''
+			swagger: '2.0'
+		''')
+
+		val status = job[fail("should not validate") null].run(new NullProgressMonitor)
+
+		assertFalse(status.OK)
+		assertTrue(reported.empty)
+		assertNull(document.publishedResult)
+	}
+
+	@Test(expected=OperationCanceledException)
+	def void testValidationStopsWhenMonitorIsCanceled() {
+		document.set('''
+			swagger: '2.0'
+		''')
+		val monitor = new NullProgressMonitor
+		monitor.canceled = true
+
+		new Validator().validate(document, null, monitor)
+	}
+
+	def job((IProgressMonitor)=>Set<SwaggerError> validation) {
+		new ValidationJob(document) {
+			override protected validate(IProgressMonitor monitor) {
+				validation.apply(monitor)
+			}
+
+			override protected report(Set<SwaggerError> errors) {
+				reported.add(errors)
+			}
+		}
+	}
+}
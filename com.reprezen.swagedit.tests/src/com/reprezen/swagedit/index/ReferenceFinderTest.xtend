@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.index
+
+import com.fasterxml.jackson.core.JsonPointer
+import com.reprezen.swagedit.model.Model
+import com.reprezen.swagedit.schema.SwaggerSchema
+import java.io.File
+import org.apache.commons.lang3.tuple.Pair
+import org.eclipse.core.runtime.Path
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+import static org.junit.Assert.*
+
+class ReferenceFinderTest {
+
+	@Rule
+	public val folder = new TemporaryFolder
+
+	val api = new Path("/p/api.yaml")
+	val other = new Path("/p/other.yaml")
+
+	val content = '''
+		swagger: '2.0'
+		paths:
+		  /pets:
+		    get:
+		      responses:
+		        '200':
+		          schema:
+		            $ref: '#/definitions/Pet'
+		        '201':
+		          schema:
+		            $ref: '#/definitions/Pet/properties/id'
+		        '404':
+		          schema:
+		            $ref: '#/definitions/Error'
+		definitions:
+		  Pet:
+		    properties:
+		      id:
+		        type: string
+		  Error:
+		    type: object
+	'''
+
+	def model() {
+		Model.parseYaml(new SwaggerSchema, content)
+	}
+
+	def baseURI() {
+		new File(folder.root, "api.yaml").toURI
+	}
+
+	@Test
+	def void testDeclaration() {
+		assertEquals("/definitions/Pet", ReferenceFinder.getDeclaration("/definitions/Pet/properties/id"))
+		assertEquals("/parameters/limit", ReferenceFinder.getDeclaration("/parameters/limit"))
+		assertEquals("/responses/NotFound", ReferenceFinder.getDeclaration("/responses/NotFound/schema"))
+		assertNull(ReferenceFinder.getDeclaration("/definitions"))
+		assertNull(ReferenceFinder.getDeclaration("/paths/~1pets"))
+		assertNull(ReferenceFinder.getDeclaration(""))
+	}
+
+	@Test
+	def void testTargetOfDeclaration() {
+		val finder = new ReferenceFinder(null)
+		val target = finder.getTarget(api, baseURI, model, JsonPointer.compile("/definitions/Pet/properties/id/type"),
+			content.indexOf("type: string"))
+		assertEquals(Pair.of(api, "/definitions/Pet"), target)
+	}
+
+	@Test
+	def void testTargetOfReference() {
+		val finder = new ReferenceFinder(null)
+		val offset = content.indexOf("'#/definitions/Error'") + 3
+		val target = finder.getTarget(api, baseURI, model,
+			JsonPointer.compile("/paths/~1pets/get/responses/404/schema/$ref"), offset)
+		assertEquals(Pair.of(api, "/definitions/Error"), target)
+	}
+
+	@Test
+	def void testNoTarget() {
+		val finder = new ReferenceFinder(null)
+		assertNull(finder.getTarget(api, baseURI, model, JsonPointer.compile("/swagger"), 1))
+	}
+
+	@Test
+	def void testFindInFile() {
+		val finder = new ReferenceFinder(null)
+		val references = finder.find(api, baseURI, model, Pair.of(api, "/definitions/Pet"), true)
+
+		assertEquals(#[8, 11], references.map[line])
+		assertEquals(#["/paths/~1pets/get/responses/200/schema", "/paths/~1pets/get/responses/201/schema"],
+			references.map[pointer])
+	}
+
+	@Test
+	def void testFindInWorkspace() {
+		val index = new ReferenceIndex
+		index.put(other, 1, #[new ReferenceEdge(other, "/definitions/Pets/items", api, "/definitions/Pet", 4, 40, 30)],
+			#[])
+		// indexed before the file was modified
+		index.put(api, 1, #[new ReferenceEdge(api, "/definitions/Old", api, "/definitions/Pet", 2, 10, 30)], #[])
+
+		val finder = new ReferenceFinder(index)
+		assertEquals(#[api, api, other],
+			finder.find(api, baseURI, model, Pair.of(api, "/definitions/Pet"), true).map[source])
+		assertEquals(#[api, api], finder.find(api, baseURI, model, Pair.of(api, "/definitions/Pet"), false).map[source])
+	}
+
+}
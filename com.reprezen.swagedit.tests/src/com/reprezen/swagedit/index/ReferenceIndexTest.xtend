@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.index
+
+import com.reprezen.swagedit.json.references.JsonReferenceFactory
+import com.reprezen.swagedit.model.Model
+import com.reprezen.swagedit.schema.SwaggerSchema
+import java.io.File
+import org.eclipse.core.resources.IResource
+import org.eclipse.core.runtime.Path
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+import static org.junit.Assert.*
+
+class ReferenceIndexTest {
+
+	@Rule
+	public val folder = new TemporaryFolder
+
+	val api = new Path("/p/api.yaml")
+	val other = new Path("/p/other.yaml")
+	val definitions = new Path("/p/definitions.yaml")
+
+	def edge(org.eclipse.core.runtime.IPath source, String target, int offset) {
+		new ReferenceEdge(source, "/paths/~1pets/get", definitions, target, 1, offset, 10)
+	}
+
+	@Test
+	def void testReferrersOfNode() {
+		val index = new ReferenceIndex
+		index.put(api, 1, #[edge(api, "/definitions/Pet", 20), edge(api, "/definitions/Tag", 10)], #[])
+		index.put(other, 1, #[edge(other, "/definitions/Pet/properties/id", 5), edge(other, "/definitions/Pets", 8)],
+			#[])
+
+		assertEquals(#[edge(api, "/definitions/Pet", 20), edge(other, "/definitions/Pet/properties/id", 5)],
+			index.getReferrers(definitions, "/definitions/Pet"))
+		assertEquals(#[10, 20, 5, 8], index.getReferrers(definitions).map[offset])
+		assertTrue(index.getReferrers(api).empty)
+	}
+
+	@Test
+	def void testPutReplacesReferences() {
+		val index = new ReferenceIndex
+		index.put(api, 1, #[edge(api, "/definitions/Pet", 20)], #[])
+		index.put(api, 2, #[edge(api, "/definitions/Tag", 10)], #[])
+
+		assertEquals(2, index.getStamp(api))
+		assertTrue(index.getReferrers(definitions, "/definitions/Pet").empty)
+		assertEquals(1, index.getReferrers(definitions, "/definitions/Tag").length)
+
+		index.remove(api)
+		assertEquals(IResource.NULL_STAMP, index.getStamp(api))
+		assertTrue(index.getReferrers(definitions).empty)
+	}
+
+	@Test
+	def void testContains() {
+		val index = new ReferenceIndex
+		index.put(definitions, 3, #[], #["", "/definitions", "/definitions/Pet", "/definitions/Pet/type"])
+
+		assertTrue(index.contains(definitions, 3, ""))
+		assertTrue(index.contains(definitions, 3, "/definitions/Pet"))
+		assertFalse(index.contains(definitions, 3, "/definitions/Tag"))
+		// deeper than the declarations
+		assertNull(index.contains(definitions, 3, "/definitions/Pet/type"))
+		// modified since indexed
+		assertNull(index.contains(definitions, 4, "/definitions/Pet"))
+		assertNull(index.contains(api, 3, "/definitions/Pet"))
+	}
+
+	@Test
+	def void testSaveAndLoad() {
+		val index = new ReferenceIndex
+		index.put(api, 1, #[edge(api, "/definitions/Pet", 20)], #[])
+		index.put(definitions, 2, #[], #["/definitions/Pet"])
+
+		val file = new File(folder.root, "references.json")
+		index.save(file)
+		val loaded = ReferenceIndex.load(file)
+
+		assertEquals(#{api, definitions}, loaded.files)
+		assertEquals(#[edge(api, "/definitions/Pet", 20)], loaded.getReferences(api))
+		assertTrue(loaded.contains(definitions, 2, "/definitions/Pet"))
+	}
+
+	@Test
+	def void testCollectNormalizesReferences() {
+		val content = '''
+			swagger: '2.0'
+			paths:
+			  /pets:
+			    get:
+			      parameters:
+			        - $ref: '#/parameters/limit'
+			      responses:
+			        '200':
+			          schema:
+			            $ref: '#/definitions/My%20Pet'
+			        '404':
+			          schema:
+			            $ref: Error
+			parameters:
+			  limit:
+			    name: limit
+			definitions:
+			  My Pet:
+			    type: object
+			  Error:
+			    type: object
+		'''
+		val model = Model.parseYaml(new SwaggerSchema, content)
+		val baseURI = new File(folder.root, "api.yaml").toURI
+		val references = ReferenceIndexer.collect(api, baseURI, model, new JsonReferenceFactory)
+
+		assertEquals(#{"/parameters/limit", "/definitions/My Pet", "/definitions/Error"},
+			references.map[targetPointer].toSet)
+		assertTrue(references.forall[target == api && source == api])
+
+		val parameter = references.findFirst[targetPointer == "/parameters/limit"]
+		assertEquals("/paths/~1pets/get/parameters/0", parameter.pointer)
+		assertEquals(6, parameter.line)
+		assertEquals("$ref: '#/parameters/limit'", content.substring(parameter.offset, parameter.offset + parameter.length))
+
+		val declarations = ReferenceIndexer.declarations(model)
+		assertTrue(declarations.containsAll(#["", "/definitions/My Pet", "/parameters/limit", "/paths/~1pets"]))
+		assertFalse(declarations.contains("/definitions/Error/type"))
+	}
+
+}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.json.references
+
+import com.google.common.base.Charsets
+import com.google.common.io.Files
+import java.io.File
+import java.net.URL
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+import static org.junit.Assert.*
+
+class JsonDocumentManagerTest {
+
+	@Rule
+	public val folder = new TemporaryFolder
+
+	def URL write(String name, String content) {
+		val file = new File(folder.root, name)
+		Files.write(content, file, Charsets.UTF_8)
+		file.toURI.toURL
+	}
+
+	@Test
+	def void testDocumentIsReadOnce() {
+		val manager = new JsonDocumentManager
+		val url = write("a.yaml", "a: 1")
+
+		val document = manager.getDocument(url)
+		assertEquals(1, document.get("a").asInt)
+		assertSame(document, manager.getDocument(url))
+		assertSame(document, manager.getDocument(new URL(url, "#/a")))
+
+		assertEquals(1, manager.stats.loadCount)
+		assertEquals(2, manager.stats.hitCount)
+	}
+
+	@Test
+	def void testModifiedFileIsReadAgain() {
+		val manager = new JsonDocumentManager
+		val url = write("a.yaml", "a: 1")
+		assertEquals(1, manager.getDocument(url).get("a").asInt)
+
+		write("a.yaml", "a: 12")
+		assertEquals(12, manager.getDocument(url).get("a").asInt)
+		assertEquals(2, manager.stats.loadCount)
+	}
+
+	@Test
+	def void testInvalidatedDocumentIsReadAgain() {
+		val manager = new JsonDocumentManager
+		val url = write("a.json", '{ "a": 1 }')
+		manager.getDocument(url)
+
+		manager.invalidate(url.toURI)
+		manager.getDocument(url)
+		assertEquals(2, manager.stats.loadCount)
+	}
+
+	@Test
+	def void testInvalidDocumentIsNotCached() {
+		val manager = new JsonDocumentManager
+		val url = write("a.json", '{ "a": ')
+		assertNull(manager.getDocument(url))
+
+		write("a.json", '{ "a": 1 }')
+		assertEquals(1, manager.getDocument(url).get("a").asInt)
+	}
+
+	@Test
+	def void testDocumentsAreEvictedBySize() {
+		val manager = new JsonDocumentManager(1)
+		val url = write("a.yaml", "a: 1")
+
+		manager.getDocument(url)
+		manager.getDocument(url)
+		assertEquals(2, manager.stats.loadCount)
+		assertTrue(manager.stats.evictionCount > 0)
+	}
+
+	@Test
+	def void testConcurrentRequestsReadDocumentOnce() {
+		val manager = new JsonDocumentManager
+		val url = write("a.yaml", "a: 1")
+		val start = new CountDownLatch(1)
+		val executor = Executors.newFixedThreadPool(8)
+		try {
+			val tasks = (1 .. 8).map [
+				executor.submit(new Callable<Object> {
+					override call() {
+						start.await
+						manager.getDocument(url)
+					}
+				})
+			].toList
+			start.countDown
+			val documents = tasks.map[get].toSet
+			assertEquals(1, documents.size)
+			assertEquals(1, manager.stats.loadCount)
+		} finally {
+			executor.shutdown()
+		}
+	}
+
+	@Test
+	def void testWeightGrowsWithDocument() {
+		val manager = new JsonDocumentManager
+		val small = manager.getDocument(write("a.yaml", "a: 1"))
+		val large = manager.getDocument(write("b.yaml", "a: 1\nb:\n  c: [1, 2, 3]\n  d: text"))
+		assertTrue(JsonDocumentManager.weigh(small) < JsonDocumentManager.weigh(large))
+	}
+
+}
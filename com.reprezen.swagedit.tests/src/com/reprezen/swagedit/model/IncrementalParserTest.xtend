@@ -0,0 +1,212 @@
+/*******************************************************************************
+ *  Copyright (c) 2016 ModelSolv, Inc. and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.model
+
+import com.reprezen.swagedit.editor.SwaggerDocument
+import com.reprezen.swagedit.schema.SwaggerSchema
+import com.reprezen.swagedit.tests.utils.PointerHelpers
+import com.reprezen.swagedit.validation.Validator
+import org.eclipse.core.runtime.NullProgressMonitor
+import org.junit.Test
+import org.yaml.snakeyaml.nodes.MappingNode
+import org.yaml.snakeyaml.nodes.Node
+import org.yaml.snakeyaml.nodes.ScalarNode
+import org.yaml.snakeyaml.nodes.SequenceNode
+
+import static org.junit.Assert.*
+
+class IncrementalParserTest {
+
+	extension PointerHelpers = new PointerHelpers
+
+	val schema = new SwaggerSchema
+
+	val text = '''
+		swagger: '2.0'
+		info:
+		  version: 1.0.0
+		  title: Petstore
+		paths:
+		  /pets:
+		    get:
+		      tags:
+		        - pets
+		      responses:
+		        200:
+		          description: OK
+		definitions:
+		  Pet:
+		    type: object
+	'''
+
+	@Test
+	def void testUpdateValue() {
+		val result = update(text, text.replace("title: Petstore", "title: Pet Store"))
+
+		assertEquals("Pet Store", result.model.find("/info/title".ptr).asValue.value)
+		assertEquals(schema.getType(result.model.find("/info/title".ptr)), result.model.find("/info/title".ptr).type)
+	}
+
+	@Test
+	def void testUpdateShiftsFollowingNodes() {
+		val result = update(text, text.replace("        - pets", "        - pets\n        - store"))
+
+		assertEquals("store", result.model.find("/paths/~1pets/get/tags/1".ptr).asValue.value)
+		assertEquals("Location [line=15, column=4]", result.model.find("/definitions/Pet/type".ptr).start.toString)
+	}
+
+	@Test
+	def void testUpdateShiftsOffsets() {
+		val after = text.replace("        - pets", "        - pets\n        - store")
+		val result = update(text, after)
+
+		assertEquals(after.indexOf("- store") + 2, result.model.find("/paths/~1pets/get/tags/1".ptr).start.offset)
+		assertEquals(after.lastIndexOf("type"), result.model.find("/definitions/Pet/type".ptr).start.offset)
+		assertEquals(after.length, result.model.find("/definitions".ptr).end.offset)
+	}
+
+	@Test
+	def void testUpdateReusesNodesBeforeChange() {
+		val previous = ParseResult.parse(schema, text)
+		val after = text.replace("type: object", "type: array")
+		val result = ParseResult.update(previous, after, 0, text.indexOf("object"), 6, 5, null)
+
+		assertNotNull(result)
+		assertTrue(result.model.find("/swagger".ptr).sharesContentWith(previous.model.find("/swagger".ptr)))
+		assertEquals("array", result.model.find("/definitions/Pet/type".ptr).asValue.value)
+	}
+
+	@Test
+	def void testUpdateSharesNodesOutsideOfChange() {
+		val previous = ParseResult.parse(schema, text)
+		val after = text.replace("        - pets", "        - pets\n        - store")
+		val result = ParseResult.update(previous, after, 0, text.indexOf("- pets") + 6, 0, 16, null)
+
+		assertNotNull(result)
+		assertTrue(result.model.find("/definitions".ptr).sharesContentWith(previous.model.find("/definitions".ptr)))
+		assertTrue(result.model.find("/info".ptr).sharesContentWith(previous.model.find("/info".ptr)))
+		assertTrue(result.model.find("/paths/~1pets/get/responses".ptr).sharesContentWith(
+			previous.model.find("/paths/~1pets/get/responses".ptr)))
+		assertFalse(result.model.find("/paths/~1pets/get".ptr).sharesContentWith(
+			previous.model.find("/paths/~1pets/get".ptr)))
+		assertEquals(after.lastIndexOf("type"), result.model.find("/definitions/Pet/type".ptr).start.offset)
+	}
+
+	@Test
+	def void testUpdateAddsEntry() {
+		val result = update(text, text.indexOf("Petstore") + 8, 0, "\n  description: Store")
+
+		assertEquals("Store", result.model.find("/info/description".ptr).asValue.value)
+		assertEquals(5, result.model.find("/paths".ptr).start.line)
+	}
+
+	@Test
+	def void testUpdateAddsItem() {
+		val result = update(text, text.indexOf("- pets") + 6, 0, "\n        - store")
+
+		assertEquals("store", result.model.find("/paths/~1pets/get/tags/1".ptr).asValue.value)
+	}
+
+	@Test
+	def void testUpdateFailsOnInvalidEntry() {
+		val previous = ParseResult.parse(schema, text)
+		val after = text.replace("title: Petstore", "title: [Petstore")
+
+		assertNull(ParseResult.update(previous, after, 0, text.indexOf("Petstore"), 0, 1, null))
+	}
+
+	@Test
+	def void testUpdateFailsWithAnchors() {
+		val content = '''
+			a: &anchor
+			  b: 1
+			c: *anchor
+		'''
+		val previous = ParseResult.parse(schema, content)
+
+		assertNull(ParseResult.update(previous, content.replace("b: 1", "b: 2"), 0, content.indexOf("1"), 1, 1, null))
+	}
+
+	/*
+	 * Updates the result of the content before with the region that differs in the content after.
+	 */
+	def update(String before, String after) {
+		var start = 0
+		while (start < before.length && start < after.length && before.charAt(start) == after.charAt(start)) {
+			start++
+		}
+		var end = 0
+		while (end < before.length - start && end < after.length - start &&
+			before.charAt(before.length - end - 1) == after.charAt(after.length - end - 1)) {
+			end++
+		}
+
+		update(before, start, before.length - start - end, after.substring(start, after.length - end))
+	}
+
+	@Test
+	def void testTypingInLargeDocumentDoesNotComposeWholeContent() {
+		val builder = new StringBuilder(text)
+		for (i : 0 ..< 500) {
+			builder.append("  Pet" + i + ":\n    type: object\n    description: Pet " + i + "\n")
+		}
+		val document = new SwaggerDocument(schema)
+		document.set(builder.toString)
+		document.onChange
+		val composed = ParseResult.composeCount
+
+		// each keystroke is parsed, published and checked by the syntax tier
+		var offset = document.get.indexOf("Petstore") + 8
+		for (c : " API".toCharArray) {
+			val previous = document.parseResult
+			document.replace(offset, 0, String.valueOf(c))
+			assertTrue(document.publish(ParseResult.reparse(schema, previous, document.get,
+				document.modificationStamp, offset++, 0, 1, null)))
+			assertTrue(new Validator().validate(null, document, Validator.Tier.SYNTAX, new NullProgressMonitor).empty)
+			assertNotNull(document.model.find("/definitions/Pet499/type".ptr))
+		}
+
+		assertEquals(composed, ParseResult.composeCount)
+		assertEquals("Petstore API", document.model.find("/info/title".ptr).asValue.value)
+		assertEquals("Petstore API", document.asJson.at("/info/title").asText)
+	}
+
+	/*
+	 * Updates the result of the content before with the replacement of a region, and checks that the YAML tree and the
+	 * model are the same as the ones obtained by parsing the whole new content.
+	 */
+	def update(String before, int offset, int length, String text) {
+		val after = before.substring(0, offset) + text + before.substring(offset + length)
+		val result = ParseResult.update(ParseResult.parse(schema, before), after, 0, offset, length, text.length, null)
+		val expected = ParseResult.parse(schema, after)
+
+		assertNotNull(result)
+		assertEquals(expected.yaml.print, result.yaml.print)
+		assertEquals(expected.model.root.print, result.model.root.print)
+		assertEquals(expected.json, result.json)
+
+		result
+	}
+
+	def String print(Node node) {
+		val marks = node.startMark.index + ":" + node.startMark.line + ":" + node.startMark.column + "-" +
+			node.endMark.index + ":" + node.endMark.line + ":" + node.endMark.column
+		switch node {
+			ScalarNode: node.value + "@" + marks
+			MappingNode: "{" + node.value.map[keyNode.print + "=" + valueNode.print].join(", ") + "}@" + marks
+			SequenceNode: "[" + node.value.map[print].join(", ") + "]@" + marks
+		}
+	}
+
+	def String print(AbstractNode node) {
+		node.pointerString + "@" + node.start + "-" + node.end + "(" + node.elements.map[print].join(", ") + ")"
+	}
+}
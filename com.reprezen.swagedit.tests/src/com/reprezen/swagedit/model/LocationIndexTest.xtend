@@ -0,0 +1,80 @@
+/*******************************************************************************
+ *  Copyright (c) 2016 ModelSolv, Inc. and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.model
+
+import com.reprezen.swagedit.schema.SwaggerSchema
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class LocationIndexTest {
+
+	val schema = new SwaggerSchema
+
+	val text = '''
+		swagger: '2.0'
+		info:
+		  title: API
+		paths:
+		  /pets:
+		    get: &get
+		      tags:
+		        - pets
+		  /users:
+		    get: *get
+	'''
+
+	def locations() {
+		ParseResult.parse(schema, text).locations
+	}
+
+	@Test
+	def void testLinesOfPointers() {
+		val index = locations
+
+		assertEquals(1, index.getLine(""))
+		assertEquals(1, index.getLine("/swagger"))
+		assertEquals(3, index.getLine("/info"))
+		assertEquals(3, index.getLine("/info/title"))
+		assertEquals(7, index.getLine("/paths/~1pets/get/tags"))
+	}
+
+	@Test
+	def void testPointersAreLocatedOnLastNodeReached() {
+		val index = locations
+
+		// items of sequences are located on their key
+		assertEquals(7, index.getLine("/paths/~1pets/get/tags/0"))
+		// missing keys are located on their parent
+		assertEquals(3, index.getLine("/info/version"))
+	}
+
+	@Test
+	def void testPointersFollowAliases() {
+		assertEquals(7, locations.getLine("/paths/~1users/get/tags"))
+	}
+
+	@Test
+	def void testRangeOfPointers() {
+		val index = locations
+
+		assertEquals(text.indexOf("title"), index.getStart("/info/title").offset)
+		assertEquals(text.indexOf("API") + 3, index.getEnd("/info/title").offset)
+		assertEquals(2, index.getStart("/info/title").line)
+		assertEquals(2, index.getStart("/info/title").column)
+		assertNull(index.getStart(""))
+	}
+
+	@Test
+	def void testInvalidYamlHasNoIndex() {
+		assertNull(ParseResult.parse(schema, "a: [1").locations)
+	}
+}
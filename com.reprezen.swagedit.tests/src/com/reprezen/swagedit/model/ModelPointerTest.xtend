@@ -0,0 +1,44 @@
+/*******************************************************************************
+ *  Copyright (c) 2016 ModelSolv, Inc. and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.model
+
+import com.fasterxml.jackson.core.JsonPointer
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class ModelPointerTest {
+
+	@Test
+	def void testPointerIsEqualToCompiledPointer() {
+		val ptr = ModelPointer.item(ModelPointer.child(ModelPointer.child(JsonPointer.compile(""), "paths"), "/pets"), 1)
+		val compiled = JsonPointer.compile("/paths/~1pets/1")
+
+		assertEquals("/paths/~1pets/1", ptr.toString)
+		assertEquals(compiled, ptr)
+		assertEquals(ptr, compiled)
+		assertEquals(compiled.hashCode, ptr.hashCode)
+		assertEquals(compiled.tail, ptr.tail)
+		assertEquals(compiled.tail.tail, ptr.tail.tail)
+		assertTrue(ptr.tail.tail.tail.matches)
+	}
+
+	@Test
+	def void testPointerNavigatesTree() {
+		val json = new ObjectMapper().readTree('{ "paths": { "/pets": [ "a", "b" ] } }')
+		val ptr = ModelPointer.item(ModelPointer.child(ModelPointer.child(JsonPointer.compile(""), "paths"), "/pets"), 1)
+
+		assertEquals("b", json.at(ptr).asText)
+		assertNotNull(ptr.matchProperty("paths"))
+		assertNull(ptr.matchProperty("definitions"))
+	}
+}
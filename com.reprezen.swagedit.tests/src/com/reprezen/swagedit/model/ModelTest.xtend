@@ -5,6 +5,7 @@ import com.reprezen.swagedit.schema.ObjectTypeDefinition
 import com.reprezen.swagedit.schema.ReferenceTypeDefinition
 import com.reprezen.swagedit.schema.SwaggerSchema
 import com.reprezen.swagedit.tests.utils.PointerHelpers
+import org.eclipse.core.runtime.Path
 import org.junit.Test
 
 import static org.junit.Assert.*
@@ -130,4 +131,89 @@ class ModelTest {
 		assertEquals(schema.asJson.at("/definitions/parametersList/items".ptr), param1.asJson)
 	}
 
+	@Test
+	def void testTypesAreResolvedFromParentType() {
+		val text = '''
+			info:
+			  unknown:
+			    title: API
+			paths:
+			  /pets:
+			    get:
+			      responses:
+			        200:
+			          description: OK
+		'''
+
+		val model = Model.parseYaml(schema, text)
+
+		for (node : model.allNodes) {
+			assertSame(node.pointer.toString, schema.getType(node).pointer, node.type.pointer)
+		}
+		assertEquals(schema.asJson.at("/definitions/info".ptr), model.find("/info/unknown/title".ptr).type.asJson)
+	}
+
+	@Test
+	def void testParsedModelCannotBeModified() {
+		val model = Model.parseYaml(schema, "info: {}")
+
+		model.valueNode(model.find("/info".ptr), "/info/title".ptr, "API")
+		assertNull(model.find("/info/title".ptr))
+		assertEquals(0, model.find("/info".ptr).size)
+	}
+
+	@Test
+	def void testWithPathReturnsCopyOfModel() {
+		val model = Model.parseYaml(schema, "info: {}")
+		val located = model.withPath(new Path("/project/swagger.yaml"))
+
+		assertNull(model.path)
+		assertEquals(new Path("/project/swagger.yaml"), located.path)
+		assertTrue(located.root.sharesContentWith(model.root))
+	}
+
+	@Test
+	def void testModelsHaveIncreasingVersions() {
+		val first = ParseResult.parse(schema, "a: 1").model
+		val second = ParseResult.parse(schema, "a: 2").model
+
+		assertTrue(second.version > first.version)
+		assertEquals(first.version, ParseResult.parse(schema, "a: 1").model.version)
+	}
+
+	@Test
+	def void testGetNodeByLineAndColumn() {
+		val text = '''
+			info:
+			  title: API
+			tags:
+			  - name: foo
+			  - name: bar
+		'''
+
+		val model = Model.parseYaml(schema, text)
+
+		assertEquals("".ptr, model.getNode(0, 0).pointer)
+		assertEquals("/info".ptr, model.getNode(0, 3).pointer)
+		assertEquals("/info/title".ptr, model.getNode(1, 10).pointer)
+		assertEquals("/tags/0".ptr, model.getNode(3, 4).pointer)
+		assertEquals("/tags/1/name".ptr, model.getNode(4, 12).pointer)
+		assertEquals("/tags".ptr, model.getNode(5, 1).pointer)
+	}
+
+	@Test
+	def void testGetNodeWithDuplicateKeys() {
+		val text = '''
+			info:
+			  title: API
+			info:
+			  version: 1
+		'''
+
+		val model = Model.parseYaml(schema, text)
+
+		assertEquals("/info/title".ptr, model.getNode(1, 5).pointer)
+		assertEquals("/info/version".ptr, model.getNode(3, 5).pointer)
+	}
+
 }
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ *  Copyright (c) 2016 ModelSolv, Inc. and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.model
+
+import com.reprezen.swagedit.editor.SwaggerDocument
+import com.reprezen.swagedit.schema.SwaggerSchema
+import com.reprezen.swagedit.tests.utils.PointerHelpers
+import org.junit.Before
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class ParseCacheTest {
+
+	extension PointerHelpers = new PointerHelpers
+
+	val schema = new SwaggerSchema
+
+	@Before
+	def void setUp() {
+		ParseCache.instance.clear
+	}
+
+	@Test
+	def void testCacheCountsHitsAndMisses() {
+		val result = ParseResult.parse(schema, "a: 1")
+		val cache = new ParseCache(2 * ParseCache.weigh(result))
+
+		assertNull(cache.get(schema, "a: 1"))
+		cache.put(schema, result)
+
+		assertSame(result, cache.get(schema, "a: 1"))
+		assertNull(cache.get(new SwaggerSchema, "a: 1"))
+		assertEquals(1, cache.hitCount)
+		assertEquals(2, cache.missCount)
+	}
+
+	@Test
+	def void testCacheDiscardsLeastRecentlyUsed() {
+		val cache = new ParseCache(2 * ParseCache.weigh(ParseResult.parse(schema, "a: 1")))
+		cache.put(schema, ParseResult.parse(schema, "a: 1"))
+		cache.put(schema, ParseResult.parse(schema, "b: 1"))
+		cache.get(schema, "a: 1")
+		cache.put(schema, ParseResult.parse(schema, "c: 1"))
+
+		assertEquals(2, cache.size)
+		assertNotNull(cache.get(schema, "a: 1"))
+		assertNull(cache.get(schema, "b: 1"))
+		assertNotNull(cache.get(schema, "c: 1"))
+	}
+
+	@Test
+	def void testCacheIsBoundedByWeight() {
+		val small = ParseResult.parse(schema, "a: 1")
+		val large = ParseResult.parse(schema, "a: 1\nb: 2\nc: 3\n")
+		val cache = new ParseCache(ParseCache.weigh(large))
+
+		cache.put(schema, small)
+		cache.put(schema, large)
+		assertEquals(1, cache.size)
+		assertEquals(ParseCache.weigh(large), cache.weight)
+
+		// a result larger than the cache is not kept
+		cache.put(schema, ParseResult.parse(schema, "a: 1\nb: 2\nc: 3\nd: 4\n"))
+		assertSame(large, cache.get(schema, "a: 1\nb: 2\nc: 3\n"))
+	}
+
+	@Test
+	def void testReparseDoesNotCacheUpdatedResults() {
+		val text = "swagger: '2.0'\ninfo:\n  title: API\n"
+		val previous = ParseResult.parse(schema, text)
+		val after = text.replace("API", "Store API")
+		val updated = ParseResult.reparse(schema, previous, after, 0, text.indexOf("API"), 0, 6, null)
+
+		assertEquals("Store API", updated.model.find("/info/title".ptr).asValue.value)
+		assertEquals(1, ParseCache.instance.size)
+		assertNull(ParseCache.instance.get(schema, after))
+	}
+
+	@Test
+	def void testParseReusesCachedResult() {
+		val text = '''
+			swagger: '2.0'
+			info:
+			  title: API
+		'''
+		val first = ParseResult.parse(schema, text, 1, null)
+		val second = ParseResult.parse(schema, text, 2, null)
+
+		assertEquals(2, second.stamp)
+		assertSame(first.model, second.model)
+		assertSame(first.yaml, second.yaml)
+		assertSame(first.json, second.json)
+		assertEquals(1, ParseCache.instance.hitCount)
+	}
+
+	@Test
+	def void testUndoReusesParsedContent() {
+		val document = new SwaggerDocument
+		document.set("a: 1\n")
+		val initial = document.model
+
+		document.replace(3, 1, "2")
+		document.onChange
+		document.replace(3, 1, "1")
+		document.onChange
+
+		assertSame(initial, document.model)
+	}
+}
@@ -0,0 +1,173 @@
+package com.reprezen.swagedit.model
+
+import com.reprezen.swagedit.schema.SwaggerSchema
+import com.reprezen.swagedit.tests.utils.PointerHelpers
+import org.eclipse.jface.text.Position
+import org.junit.Test
+import org.yaml.snakeyaml.nodes.MappingNode
+
+import static org.junit.Assert.*
+
+class ParseResultTest {
+
+	extension PointerHelpers = new PointerHelpers
+
+	val schema = new SwaggerSchema
+
+	@Test
+	def void testYamlModelAndJsonFromSameContent() {
+		val text = '''
+			swagger: '2.0'
+			info:
+			  version: 1
+			  title: Simple API
+			schemes:
+			  - http
+		'''
+
+		val result = ParseResult.parse(schema, text)
+
+		assertNull(result.yamlError)
+		assertTrue(result.yaml instanceof MappingNode)
+		assertEquals(3, (result.yaml as MappingNode).value.size)
+
+		val model = result.model
+		assertEquals("2.0", model.find("/swagger".ptr).asValue.value)
+		assertEquals(1, model.find("/info/version".ptr).asValue.value)
+		assertEquals("http", model.find("/schemes/0".ptr).asValue.value)
+
+		assertEquals("2.0", result.json.at("/swagger").asText)
+		assertEquals(1, result.json.at("/info/version").asInt)
+		assertEquals("http", result.json.at("/schemes/0").asText)
+	}
+
+	@Test
+	def void testModelLocations() {
+		val text = '''
+			info:
+			  title: Simple API
+			tags:
+			  - foo
+		'''
+
+		val model = ParseResult.parse(schema, text).model
+
+		assertEquals("Location [line=0, column=0]", model.find("/info".ptr).start.toString)
+		assertEquals("Location [line=1, column=2]", model.find("/info/title".ptr).start.toString)
+		assertEquals("Location [line=1, column=19]", model.find("/info/title".ptr).end.toString)
+		assertEquals("Location [line=3, column=4]", model.find("/tags/0".ptr).start.toString)
+	}
+
+	@Test
+	def void testModelPositions() {
+		val text = '''
+			info:
+			  title: Simple API
+			tags:
+			  - foo
+		'''
+
+		val model = ParseResult.parse(schema, text).model
+
+		assertEquals(text.indexOf("title"), model.find("/info/title".ptr).start.offset)
+		assertEquals(new Position(text.indexOf("  title"), 19), model.find("/info/title".ptr).position)
+		assertEquals(new Position(text.indexOf("  - foo"), 7), model.find("/tags/0".ptr).position)
+	}
+
+	@Test
+	def void testAliasesAreNotExpandedInModel() {
+		val text = '''
+			a: &anchor
+			  b: 1
+			c: *anchor
+		'''
+
+		val result = ParseResult.parse(schema, text)
+
+		assertEquals("anchor", result.model.find("/c".ptr).asValue.value)
+		assertEquals(1, result.json.at("/c/b").asInt)
+	}
+
+	@Test
+	def void testInvalidYaml() {
+		val text = '''
+			a: [1
+			b: 2
+		'''
+
+		val result = ParseResult.parse(schema, text)
+
+		assertNotNull(result.yamlError)
+		assertNull(result.yaml)
+		assertNull(result.json)
+	}
+
+	@Test
+	def void testInvalidYamlKeepsNodesReadBeforeError() {
+		val text = '''
+			info:
+			  title: API
+			paths:
+			  /pets: [
+			tags:
+			  - foo
+		'''
+
+		val model = ParseResult.parse(schema, text).model
+
+		assertTrue(model.partial)
+		assertEquals("API", model.find("/info/title".ptr).asValue.value)
+		assertNotNull(model.find("/paths/~1pets".ptr))
+		assertSame(model.find("/paths".ptr), model.find("/paths/~1pets".ptr).parent)
+		assertEquals(6, model.brokenEnd.line)
+	}
+
+	@Test
+	def void testInvalidEntryKeepsNodesOfPreviousModel() {
+		val text = '''
+			info:
+			  title: API
+			paths:
+			  /pets:
+			    get:
+			      summary: List
+			tags:
+			  - foo
+		'''
+		val previous = ParseResult.parse(schema, text)
+		val offset = text.indexOf("List")
+		val after = text.substring(0, offset) + "[" + text.substring(offset)
+
+		val model = ParseResult.reparse(schema, previous, after, 0, offset, 0, 1, null).model
+
+		assertTrue(model.partial)
+		assertEquals(5, model.brokenStart.line)
+		assertEquals(6, model.brokenEnd.line)
+		assertEquals("API", model.find("/info/title".ptr).asValue.value)
+		assertNotNull(model.find("/paths/~1pets/get".ptr))
+		assertEquals("foo", model.find("/tags/0".ptr).asValue.value)
+	}
+
+	@Test
+	def void testDuplicateKeysAreFoundWhileParsing() {
+		val text = '''
+			info:
+			  title: API
+			  title: Other
+			paths:
+			  /pets:
+			    get: {}
+			    get: {}
+			    get: {}
+			  /users:
+			    get: {}
+			? { title: a, title: b }
+			: c
+		'''
+
+		val keys = ParseResult.parse(schema, text).duplicateKeys
+
+		assertEquals(#["title", "title", "get", "get", "get"], keys.map[key])
+		assertEquals(#[1, 2, 5, 6, 7], keys.map[value.startMark.line])
+	}
+}
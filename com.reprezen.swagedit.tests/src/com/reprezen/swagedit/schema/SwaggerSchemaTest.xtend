@@ -205,4 +205,12 @@ class SwaggerSchemaTest {
 		val second = complexType.complexTypes.get(1)
 		assertTrue(second instanceof ReferenceTypeDefinition)
 	}
+
+	@Test
+	def void testValidatorIsCompiledOnce() {
+		val validator = schema.validator
+
+		assertSame(validator, schema.validator)
+		assertFalse(validator.validate(schema.mapper.readTree('{ "swagger": "2.0" }'), true).success)
+	}
 }
@@ -17,21 +17,38 @@ import org.junit.runners.Suite.SuiteClasses;
 import com.reprezen.swagedit.assist.JsonReferenceProposalProviderTest;
 import com.reprezen.swagedit.assist.SwaggerContentAssistProcessorTest;
 import com.reprezen.swagedit.assist.SwaggerProposalProviderTest;
+import com.reprezen.swagedit.editor.ParseJobTest;
 import com.reprezen.swagedit.editor.SwaggerDocumentTest;
+import com.reprezen.swagedit.editor.ValidationJobTest;
 import com.reprezen.swagedit.editor.hyperlinks.DefinitionHyperlinkDetectorTest;
 import com.reprezen.swagedit.editor.hyperlinks.JsonReferenceHyperlinkDetectorTest;
 import com.reprezen.swagedit.editor.hyperlinks.PathParamHyperlinkDetectorTest;
 import com.reprezen.swagedit.editor.outline.AbstractNodeTest;
 import com.reprezen.swagedit.editor.outline.OutlineStyledLabelProviderTest;
+import com.reprezen.swagedit.index.ReferenceFinderTest;
+import com.reprezen.swagedit.index.ReferenceIndexTest;
+import com.reprezen.swagedit.json.references.JsonDocumentManagerTest;
 import com.reprezen.swagedit.json.references.JsonReferenceFactoryTest;
+import com.reprezen.swagedit.model.IncrementalParserTest;
+import com.reprezen.swagedit.model.LocationIndexTest;
+import com.reprezen.swagedit.model.ModelPointerTest;
 import com.reprezen.swagedit.model.ModelTest;
+import com.reprezen.swagedit.model.ParseCacheTest;
+import com.reprezen.swagedit.model.ParseResultTest;
 import com.reprezen.swagedit.schema.SwaggerSchemaTest;
 import com.reprezen.swagedit.templates.CodeTemplateContextTest;
 import com.reprezen.swagedit.validation.ErrorProcessorTest;
+import com.reprezen.swagedit.validation.IncrementalSchemaValidatorTest;
+import com.reprezen.swagedit.validation.MarkerUpdaterTest;
 import com.reprezen.swagedit.validation.MultipleSwaggerErrorMessageTest;
 import com.reprezen.swagedit.validation.ReferenceValidatorTest;
+import com.reprezen.swagedit.validation.ValidationCacheTest;
 import com.reprezen.swagedit.validation.ValidationMessageTest;
+import com.reprezen.swagedit.validation.ValidationPoolTest;
 import com.reprezen.swagedit.validation.ValidatorTest;
+import com.reprezen.swagedit.validation.batch.BatchValidatorTest;
+import com.reprezen.swagedit.validation.rules.RuleEngineTest;
+import com.reprezen.swagedit.validation.rules.SwaggerRulesTest;
 
 @RunWith(Suite.class)
 @SuiteClasses({ //
@@ -39,20 +56,37 @@ import com.reprezen.swagedit.validation.ValidatorTest;
         SwaggerContentAssistProcessorTest.class, //
         SwaggerProposalProviderTest.class, //
         SwaggerDocumentTest.class, //
+        ParseJobTest.class, //
+        ValidationJobTest.class, //
         DefinitionHyperlinkDetectorTest.class, //
         JsonReferenceHyperlinkDetectorTest.class, //
         PathParamHyperlinkDetectorTest.class, //
         AbstractNodeTest.class, //
         OutlineStyledLabelProviderTest.class, //
+        ReferenceFinderTest.class, //
+        ReferenceIndexTest.class, //
+        JsonDocumentManagerTest.class, //
         JsonReferenceFactoryTest.class, //
         ModelTest.class, //
+        ParseResultTest.class, //
+        IncrementalParserTest.class, //
+        ParseCacheTest.class, //
+        ModelPointerTest.class, //
+        LocationIndexTest.class, //
         SwaggerSchemaTest.class, //
         CodeTemplateContextTest.class, //
         ErrorProcessorTest.class, //
+        IncrementalSchemaValidatorTest.class, //
+        MarkerUpdaterTest.class, //
         MultipleSwaggerErrorMessageTest.class, //
         ReferenceValidatorTest.class, //
+        ValidationCacheTest.class, //
         ValidationMessageTest.class, //
-        ValidatorTest.class //
+        ValidationPoolTest.class, //
+        ValidatorTest.class, //
+        BatchValidatorTest.class, //
+        RuleEngineTest.class, //
+        SwaggerRulesTest.class //
 })
 public class TestSuite {
 }
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ *  Copyright (c) 2016 ModelSolv, Inc. and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation
+
+import com.reprezen.swagedit.editor.SwaggerDocument
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class IncrementalSchemaValidatorTest {
+
+	val document = new SwaggerDocument
+
+	val content = '''
+		swagger: '2.0'
+		info:
+		  version: 0.0.0
+		  title: Simple API
+		  foo: bar
+		paths:
+		  /pets:
+		    get:
+		      description: List
+		      parameters:
+		        - name: limit
+		          in: nowhere
+		      responses:
+		        '200':
+		          description: OK
+		  /users:
+		    get:
+		      responses:
+		        '200': {}
+		  x-ext: 1
+		  users: {}
+		definitions:
+		  Pet:
+		    type: object
+		    required: 1
+		parameters:
+		  limit:
+		    name: limit
+		responses:
+		  Error:
+		    schema: 1
+	'''
+
+	@Test
+	def void testSameErrorsAsValidationOfWholeDocument() {
+		document.set(content)
+
+		val full = new Validator
+		full.incremental = false
+
+		val errors = new Validator().validate(document, null)
+
+		assertFalse(errors.empty)
+		assertEquals(full.validate(document, null), errors)
+	}
+
+	@Test
+	def void testOnlyChangedUnitsAreValidatedAgain() {
+		val validator = new IncrementalSchemaValidator(100)
+		document.set(content)
+		validator.validate(document.schema, document.asJson)
+
+		// root, 2 paths, 1 definition, 1 parameter and 1 response
+		assertEquals(6, validator.missCount)
+		assertEquals(0, validator.hitCount)
+
+		document.set(content.replace("description: List", "description: All pets"))
+		document.onChange
+		val messages = validator.validate(document.schema, document.asJson)
+
+		assertEquals(7, validator.missCount)
+		assertEquals(5, validator.hitCount)
+		assertTrue(messages.exists[get("instance").get("pointer").asText.startsWith("/paths/~1pets/get/parameters/0")])
+	}
+
+	@Test
+	def void testUnitValidatorsAreSharedBySchema() {
+		val schema = document.schema
+		new IncrementalSchemaValidator(100).prepare(schema)
+
+		assertSame(schema.getValidator("/definitions/pathItem"), schema.getValidator("/definitions/pathItem"))
+		// the definitions of the units accept any value in the validator of the root
+		val root = schema.getValidator("", #["/definitions/definitions/additionalProperties"])
+		assertTrue(root.validate(document.schema.mapper.readTree('''
+			{"swagger": "2.0", "info": {"version": "1", "title": "t"}, "paths": {},
+			 "definitions": {"Pet": {"required": 1}}}
+		'''), true).success)
+		assertFalse(schema.validator.validate(document.schema.mapper.readTree('''
+			{"swagger": "2.0", "info": {"version": "1", "title": "t"}, "paths": {},
+			 "definitions": {"Pet": {"required": 1}}}
+		'''), true).success)
+	}
+}
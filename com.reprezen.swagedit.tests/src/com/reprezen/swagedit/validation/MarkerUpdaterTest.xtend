@@ -0,0 +1,118 @@
+/*******************************************************************************
+ *  Copyright (c) 2016 ModelSolv, Inc. and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation
+
+import java.util.Map
+import org.eclipse.core.resources.IFile
+import org.eclipse.core.resources.IMarker
+import org.eclipse.core.resources.IResource
+import org.eclipse.core.resources.IWorkspace
+import org.junit.Test
+
+import static org.junit.Assert.*
+import static org.mockito.Matchers.*
+import static org.mockito.Mockito.*
+
+class MarkerUpdaterTest {
+
+	val workspace = mock(IWorkspace)
+	val file = mock(IFile)
+
+	def marker(String type, int level, int line, String message) {
+		marker(type, level, line, message, null, null)
+	}
+
+	def marker(String type, int level, int line, String message, Integer start, Integer end) {
+		val marker = mock(IMarker)
+		when(marker.exists).thenReturn(true)
+		when(marker.type).thenReturn(type)
+		when(marker.getAttributes(any(typeof(String[])))).thenReturn(#[level, message, line, start, end])
+		marker
+	}
+
+	def void markers(IMarker... markers) {
+		when(file.workspace).thenReturn(workspace)
+		when(file.findMarkers(MarkerUpdater.PROBLEM_MARKER, true, IResource.DEPTH_ZERO)).thenReturn(markers)
+	}
+
+	@Test
+	def void testOnlyChangedErrorsUpdateMarkers() {
+		val kept = marker(MarkerUpdater.PROBLEM_MARKER, IMarker.SEVERITY_ERROR, 2, "kept")
+		val removed = marker(MarkerUpdater.PROBLEM_MARKER, IMarker.SEVERITY_ERROR, 3, "removed")
+		val created = mock(IMarker)
+		markers(kept, removed)
+		when(file.createMarker(MarkerUpdater.PROBLEM_MARKER)).thenReturn(created)
+
+		MarkerUpdater.apply(file, #[
+			new SwaggerError(2, IMarker.SEVERITY_ERROR, "kept"),
+			new SwaggerError(4, IMarker.SEVERITY_WARNING, "created")
+		])
+
+		verify(workspace).deleteMarkers(#[removed])
+		verify(file, times(1)).createMarker(MarkerUpdater.PROBLEM_MARKER)
+		verify(created).setAttributes(#{
+			IMarker.SEVERITY -> IMarker.SEVERITY_WARNING,
+			IMarker.MESSAGE -> "created",
+			IMarker.LINE_NUMBER -> 4
+		} as Map<String, Object>)
+		verify(kept, never).delete
+	}
+
+	@Test
+	def void testUnchangedErrorsDoNotUpdateMarkers() {
+		markers(marker(MarkerUpdater.PROBLEM_MARKER, IMarker.SEVERITY_ERROR, 2, "error"))
+
+		MarkerUpdater.apply(file, #[new SwaggerError(2, IMarker.SEVERITY_ERROR, "error")])
+
+		verify(workspace, never).deleteMarkers(any)
+		verify(file, never).createMarker(anyString)
+	}
+
+	@Test
+	def void testOnlySwagEditMarkersAreUpdated() {
+		val subtype = marker(MarkerUpdater.PROBLEM_MARKER + ".sub", IMarker.SEVERITY_ERROR, 2, "error")
+		markers(subtype)
+
+		MarkerUpdater.apply(file, #[new SwaggerError(2, IMarker.SEVERITY_ERROR, "error")])
+
+		verify(file, never).findMarkers(eq(IMarker.PROBLEM), anyBoolean, anyInt)
+		verify(workspace, never).deleteMarkers(any)
+		verify(file, never).createMarker(anyString)
+	}
+
+	@Test
+	def void testFilesAreEditedUntilAllEditorsAreClosed() {
+		MarkerUpdater.acquire(file)
+		MarkerUpdater.acquire(file)
+		MarkerUpdater.release(file)
+		assertTrue(MarkerUpdater.isEdited(file))
+
+		MarkerUpdater.release(file)
+		assertFalse(MarkerUpdater.isEdited(file))
+	}
+
+	@Test
+	def void testMovedErrorsUpdateRegionOfMarkers() {
+		val moved = marker(MarkerUpdater.PROBLEM_MARKER, IMarker.SEVERITY_ERROR, 2, "moved", 10, 15)
+		val kept = marker(MarkerUpdater.PROBLEM_MARKER, IMarker.SEVERITY_ERROR, 3, "kept", 20, 25)
+		markers(moved, kept)
+
+		MarkerUpdater.apply(file, #[
+			new SwaggerError(2, IMarker.SEVERITY_ERROR, "moved").setRange(11, 16),
+			new SwaggerError(3, IMarker.SEVERITY_ERROR, "kept").setRange(20, 25)
+		])
+
+		verify(workspace, never).deleteMarkers(any)
+		verify(file, never).createMarker(anyString)
+		verify(moved).setAttributes(#[IMarker.CHAR_START, IMarker.CHAR_END], #[11, 16])
+		verify(kept, never).setAttributes(any(typeof(String[])), any(typeof(Object[])))
+	}
+}
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ *  Copyright (c) 2016 ModelSolv, Inc. and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation
+
+import com.google.common.base.Charsets
+import com.google.common.io.Files
+import com.reprezen.swagedit.schema.SwaggerSchema
+import java.io.File
+import java.net.URI
+import org.eclipse.core.resources.IMarker
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+import static org.junit.Assert.*
+
+class ValidationCacheTest {
+
+	@Rule
+	public val folder = new TemporaryFolder
+
+	val schema = new SwaggerSchema
+
+	def cache() {
+		new ValidationCache(new File(folder.root, "cache"), "1.0", ValidationCache.DEFAULT_MAX_SIZE)
+	}
+
+	def errors() {
+		#{
+			new SwaggerError(2, IMarker.SEVERITY_ERROR, "error").setRange(10, 20),
+			new SwaggerError(5, IMarker.SEVERITY_WARNING, "warning")
+		}
+	}
+
+	@Test
+	def void testKeyDependsOnContentSchemaAndVersion() {
+		val cache = cache
+		val other = new ValidationCache(folder.root, "2.0", ValidationCache.DEFAULT_MAX_SIZE)
+
+		assertEquals(cache.getKey(schema, "a: 1"), cache.getKey(schema, "a: 1"))
+		assertNotEquals(cache.getKey(schema, "a: 1"), cache.getKey(schema, "a: 2"))
+		assertNotEquals(cache.getKey(schema, "a: 1"), other.getKey(schema, "a: 1"))
+	}
+
+	@Test
+	def void testKeyDependsOnLocationOfDocument() {
+		val cache = cache
+		val v1 = URI.create("file:/api/v1/swagger.yaml")
+		val v2 = URI.create("file:/api/v2/swagger.yaml")
+
+		assertEquals(cache.getKey(schema, "a: 1", v1), cache.getKey(schema, "a: 1", v1))
+		assertNotEquals(cache.getKey(schema, "a: 1", v1), cache.getKey(schema, "a: 1", v2))
+		assertNotEquals(cache.getKey(schema, "a: 1"), cache.getKey(schema, "a: 1", v1))
+	}
+
+	@Test
+	def void testGetReturnsStoredErrors() {
+		val cache = cache
+		val key = cache.getKey(schema, "a: 1")
+		assertNull(cache.get(key))
+
+		cache.put(key, errors, #[])
+		val result = cache.get(key)
+
+		assertEquals(errors, result)
+		val error = result.findFirst[level == IMarker.SEVERITY_ERROR]
+		assertEquals(2, error.line)
+		assertEquals(10, error.charStart)
+		assertEquals(20, error.charEnd)
+		assertEquals(-1, result.findFirst[level == IMarker.SEVERITY_WARNING].charStart)
+		assertEquals(1, cache.hitCount)
+		assertEquals(1, cache.missCount)
+	}
+
+	@Test
+	def void testResultsAreKeptAcrossSessions() {
+		val key = cache.getKey(schema, "a: 1")
+		cache.put(key, errors, #[])
+
+		val cache = cache
+		assertEquals(1, cache.size)
+		assertEquals(errors, cache.get(key))
+	}
+
+	@Test
+	def void testResultIsDiscardedWhenDependencyChanges() {
+		val dependency = folder.newFile("definitions.yaml")
+		Files.write("Pet: {}", dependency, Charsets.UTF_8)
+
+		val cache = cache
+		val key = cache.getKey(schema, "a: 1")
+		cache.put(key, errors, #[dependency.toURI])
+		assertEquals(errors, cache.get(key))
+
+		Files.write("Pet:\n  type: object", dependency, Charsets.UTF_8)
+		assertNull(cache.get(key))
+		assertEquals(0, cache.size)
+	}
+
+	@Test
+	def void testResultWithRemoteDependencyIsNotStored() {
+		val cache = cache
+		val key = cache.getKey(schema, "a: 1")
+		cache.put(key, errors, #[java.net.URI.create("http://example.com/definitions.yaml")])
+
+		assertNull(cache.get(key))
+	}
+
+	@Test
+	def void testLeastRecentlyUsedResultsAreEvicted() {
+		val first = cache
+		val key1 = first.getKey(schema, "a: 1")
+		first.put(key1, errors, #[])
+		val entrySize = first.totalSize
+
+		// room for two results
+		val maxSize = entrySize * 2 + entrySize / 2
+		val cache = new ValidationCache(new File(folder.root, "cache"), "1.0", maxSize)
+		val key2 = cache.getKey(schema, "a: 2")
+		val key3 = cache.getKey(schema, "a: 3")
+		cache.put(key2, errors, #[])
+		assertNotNull(cache.get(key1))
+		cache.put(key3, errors, #[])
+
+		assertEquals(2, cache.size)
+		assertTrue(cache.totalSize <= maxSize)
+		assertNotNull(cache.get(key1))
+		assertNull(cache.get(key2))
+		assertNotNull(cache.get(key3))
+	}
+
+	@Test
+	def void testCorruptedResultIsDiscarded() {
+		val cache = cache
+		val key = cache.getKey(schema, "a: 1")
+		cache.put(key, errors, #[])
+
+		Files.write("not a result", new File(new File(folder.root, "cache"), key + ".bin"), Charsets.UTF_8)
+		assertNull(cache.get(key))
+	}
+
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ *  Copyright (c) 2016 ModelSolv, Inc. and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation
+
+import java.util.List
+import java.util.concurrent.Callable
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class ValidationPoolTest {
+
+	@Test
+	def void testResultsAreInOrderOfTasks() {
+		val List<Callable<Integer>> tasks = (0 ..< 20).map [ i |
+			[|
+				Thread.sleep((20 - i) % 3)
+				i
+			] as Callable<Integer>
+		].toList
+
+		assertEquals((0 ..< 20).toList, ValidationPool.invokeAll(tasks))
+	}
+
+	@Test
+	def void testTasksCanBeSplitInSmallerTasks() {
+		val List<Callable<List<String>>> tasks = #["a", "b", "c"].map [ name |
+			[|
+				ValidationPool.invokeAll(#[[|name + 1] as Callable<String>, [|name + 2] as Callable<String>])
+			] as Callable<List<String>>
+		].toList
+
+		assertEquals(#[#["a1", "a2"], #["b1", "b2"], #["c1", "c2"]], ValidationPool.invokeAll(tasks))
+	}
+
+	@Test
+	def void testParallelismIsConfigurable() {
+		val previous = ValidationPool.parallelism
+		try {
+			ValidationPool.parallelism = 2
+			assertEquals(2, ValidationPool.parallelism)
+
+			ValidationPool.parallelism = 0
+			assertEquals(1, ValidationPool.parallelism)
+		} finally {
+			ValidationPool.parallelism = previous
+		}
+	}
+
+	@Test
+	def void testPoolIsCreatedAgainAfterShutdown() {
+		val previous = ValidationPool.parallelism
+		try {
+			ValidationPool.shutdown
+
+			assertEquals(#["a", "b"], ValidationPool.invokeAll(#[["a"], ["b"]]))
+		} finally {
+			ValidationPool.parallelism = previous
+		}
+	}
+}
@@ -13,6 +13,7 @@ package com.reprezen.swagedit.validation
 import com.reprezen.swagedit.Messages
 import com.reprezen.swagedit.editor.SwaggerDocument
 import java.io.IOException
+import org.eclipse.core.runtime.NullProgressMonitor
 import org.eclipse.core.resources.IMarker
 import org.junit.Test
 
@@ -176,7 +177,7 @@ class ValidatorTest {
 			  version: 0.0.0
 			  title: Simple API
 			paths:
-			  /foo/{bar}:
+			  /foo:
 			    get:
 			      responses:
 			        '200':
@@ -204,7 +205,7 @@ class ValidatorTest {
 			  version: 0.0.0
 			  title: Simple API
 			paths:
-			  /foo/{bar}:
+			  /foo:
 			    get:
 			      responses:
 			        '200':
@@ -230,7 +231,7 @@ class ValidatorTest {
 			  version: 0.0.0
 			  title: Simple API
 			paths:
-			  /foo/{bar}:
+			  /foo:
 			    get:
 			      responses:
 			        '200':
@@ -256,7 +257,7 @@ class ValidatorTest {
 			  version: 1.0.0
 			  title: Simple API
 			paths:
-			  /foo/{bar}:
+			  /foo:
 			    get:
 			      responses:
 			        '200':
@@ -314,7 +315,7 @@ class ValidatorTest {
 			  version: 0.0.0
 			  title: Simple API
 			paths:
-			  /foo/{bar}:
+			  /foo:
 			    get:
 			      responses:
 			        '200':
@@ -476,7 +477,7 @@ class ValidatorTest {
 		  version: 0.0.0
 		  title: Simple API
 		paths:
-		  /foo/{bar}:
+		  /foo:
 		    get:
 		      responses:
 		        '200':
@@ -502,7 +503,7 @@ class ValidatorTest {
 		  version: 0.0.0
 		  title: Simple API
 		paths:
-		  /foo/{bar}:
+		  /foo:
 		    get:
 		      responses:
 		        '200':
@@ -650,7 +651,7 @@ class ValidatorTest {
 		  version: 0.0.0
 		  title: Simple API
 		paths:
-		  /foo/{bar}:
+		  /foo:
 		    get:
 		      responses:
 		        '200':
@@ -671,4 +672,61 @@ class ValidatorTest {
 		assertThat(errors.map[line], hasItems(14))
 	}
 
+	@Test
+	def void testSyntaxTierReportsOnlyDuplicateKeys() {
+		val content = '''
+		swagger: '2.0'
+		info:
+		  version: 0.0.0
+		  title: Simple API
+		  title: Duplicate
+		'''
+
+		document.set(content)
+		document.onChange()
+
+		val syntax = validator.validate(null, document, Validator.Tier.SYNTAX, new NullProgressMonitor)
+		assertEquals(2, syntax.size())
+		assertTrue(syntax.forall[level == IMarker.SEVERITY_WARNING])
+		assertThat(syntax.map[line], hasItems(4, 5))
+
+		// missing paths
+		val schema = validator.validate(null, document, Validator.Tier.SCHEMA, new NullProgressMonitor)
+		assertEquals(1, schema.size())
+		assertEquals(IMarker.SEVERITY_ERROR, schema.get(0).level)
+	}
+
+	@Test
+	def void testTiersReportAllErrors() {
+		val content = '''
+		swagger: '2.0'
+		info:
+		  version: 0.0.0
+		  title: Simple API
+		  title: Duplicate
+		paths:
+		  /foo:
+		    get:
+		      responses:
+		        '200':
+		          description: OK
+		          schema:
+		            $ref: '#/definitions/Missing'
+		'''
+
+		document.set(content)
+		document.onChange()
+
+		val all = validator.validate(null, document, new NullProgressMonitor)
+		val tiers = newHashSet
+		for (tier : Validator.Tier.values) {
+			tiers.addAll(validator.validate(null, document, tier, new NullProgressMonitor))
+		}
+		assertEquals(all, tiers)
+		assertThat(validator.validate(null, document, Validator.Tier.SCHEMA, new NullProgressMonitor).map[line],
+			hasItems(13))
+		// references to the document itself are not external
+		assertTrue(validator.validate(null, document, Validator.Tier.REFERENCES, new NullProgressMonitor).empty)
+	}
+
 }
@@ -0,0 +1,202 @@
+/*******************************************************************************
+ *  Copyright (c) 2016 ModelSolv, Inc. and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation.batch
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.google.common.base.Charsets
+import com.google.common.io.Files
+import java.io.ByteArrayOutputStream
+import java.io.File
+import java.io.PrintStream
+import java.io.StringWriter
+import org.eclipse.core.resources.IMarker
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+import static org.junit.Assert.*
+
+class BatchValidatorTest {
+
+	@Rule
+	public val folder = new TemporaryFolder
+
+	val validator = new BatchValidator
+
+	val valid = '''
+		swagger: '2.0'
+		info:
+		  version: 0.0.0
+		  title: Simple API
+		paths:
+		  /foo:
+		    get:
+		      responses:
+		        '200':
+		          description: OK
+	'''
+
+	def file(String path, String content) {
+		val file = new File(folder.root, path)
+		file.parentFile.mkdirs
+		Files.write(content, file, Charsets.UTF_8)
+		file
+	}
+
+	@Test
+	def void testCollectFindsFilesInDirectoriesRecursively() {
+		val a = file("a.yaml", valid)
+		val b = file("sub/b.json", "{}")
+		file("sub/c.txt", "")
+
+		assertEquals(#[a, b], BatchValidator.collect(#[folder.root], BatchValidator.DEFAULT_EXTENSIONS))
+		assertEquals(#[b], BatchValidator.collect(#[folder.root], #["json"]))
+	}
+
+	@Test
+	def void testValidFile() {
+		val result = validator.validate(file("valid.yaml", valid))
+
+		assertTrue(result.valid)
+		assertTrue(result.errors.empty)
+		assertNull(result.failure)
+	}
+
+	@Test
+	def void testFileWithErrors() {
+		val result = validator.validate(file("invalid.yaml", '''
+			swagger: '2.0'
+			info:
+			  version: 0.0.0
+			  title: Simple API
+			paths:
+			  /foo:
+			    get:
+			      responses:
+			        '200':
+			          description: OK
+			unknown: 1
+		'''))
+
+		assertFalse(result.valid)
+		assertEquals(1, result.count(IMarker.SEVERITY_ERROR))
+		assertTrue(result.errors.get(0).message.contains("unknown"))
+	}
+
+	@Test
+	def void testFileWithSyntaxError() {
+		val result = validator.validate(file("syntax.yaml", '''
+			a: [1
+			b: 2
+		'''))
+
+		assertFalse(result.valid)
+		assertEquals(1, result.count(IMarker.SEVERITY_ERROR))
+	}
+
+	@Test
+	def void testMissingFileIsAFailure() {
+		val result = validator.validate(new File(folder.root, "missing.yaml"))
+
+		assertFalse(result.valid)
+		assertNotNull(result.failure)
+	}
+
+	@Test
+	def void testReferencesToOtherFilesAreResolved() {
+		file("definitions.yaml", '''
+			Pet:
+			  type: object
+		''')
+		val result = validator.validate(file("api.yaml", '''
+			swagger: '2.0'
+			info:
+			  version: 0.0.0
+			  title: Simple API
+			paths:
+			  /foo:
+			    get:
+			      responses:
+			        '200':
+			          description: OK
+			          schema:
+			            $ref: definitions.yaml#/Pet
+			        '404':
+			          description: Not found
+			          schema:
+			            $ref: definitions.yaml#/Missing
+		'''))
+
+		assertEquals(1, result.errors.size)
+		assertEquals(16, result.errors.get(0).line)
+	}
+
+	@Test
+	def void testBatchResult() {
+		val files = #[file("a.yaml", valid), file("b.yaml", "a: [1"), file("c.yaml", valid)]
+		val result = validator.validate(files)
+
+		assertEquals(files, result.files.map[file])
+		assertEquals(1, result.invalidCount)
+		assertEquals(0, result.failureCount)
+		assertTrue(result.throughput > 0)
+		assertTrue(result.getTimePercentile(0) <= result.getTimePercentile(50))
+		assertTrue(result.getTimePercentile(50) <= result.getTimePercentile(100))
+		assertEquals(result.getTimePercentile(100), result.getSlowest(1).get(0).time)
+	}
+
+	@Test
+	def void testJsonReport() {
+		val result = validator.validate(#[file("a.yaml", valid), file("b.yaml", "a: [1")])
+		val writer = new StringWriter
+		new JsonReport().write(result, writer)
+
+		val json = new ObjectMapper().readTree(writer.toString)
+		assertEquals(2, json.at("/summary/files").asInt)
+		assertEquals(1, json.at("/summary/invalid").asInt)
+		assertEquals(1, json.at("/summary/errors").asInt)
+		assertTrue(json.at("/files/0/valid").asBoolean)
+		assertFalse(json.at("/files/1/valid").asBoolean)
+		assertEquals("error", json.at("/files/1/errors/0/severity").asText)
+		assertTrue(json.at("/timing/max").isNumber)
+	}
+
+	@Test
+	def void testJUnitReport() {
+		val result = validator.validate(#[file("a.yaml", valid), file("b.yaml", "a: [1")])
+		val writer = new StringWriter
+		new JUnitReport("swagger").write(result, writer)
+
+		val xml = writer.toString
+		assertTrue(xml.contains('''<testsuite name="swagger" tests="2" failures="1" errors="0"'''))
+		assertTrue(xml.contains('''name="a.yaml"'''))
+		assertEquals(1, xml.split("<failure ").length - 1)
+	}
+
+	@Test
+	def void testApplicationExitCodes() {
+		val out = new ByteArrayOutputStream
+		val print = new PrintStream(out, true)
+		val valid = file("valid/a.yaml", valid)
+		file("invalid/b.yaml", "a: [1")
+		val json = new File(folder.root, "report.json")
+
+		assertEquals(BatchValidatorApplication.EXIT_USAGE, BatchValidatorApplication.run(#[], print))
+		assertEquals(BatchValidatorApplication.EXIT_USAGE, BatchValidatorApplication.run(#["--json"], print))
+		assertEquals(BatchValidatorApplication.EXIT_VALID,
+			BatchValidatorApplication.run(#["--json", json.path, valid.parent], print))
+		assertTrue(json.exists)
+		assertEquals(BatchValidatorApplication.EXIT_INVALID,
+			BatchValidatorApplication.run(#[folder.root.path], print))
+		assertTrue(out.toString, out.toString.contains("b.yaml:1: error:"))
+	}
+
+}
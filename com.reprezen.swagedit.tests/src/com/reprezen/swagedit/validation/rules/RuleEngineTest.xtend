@@ -0,0 +1,111 @@
+/*******************************************************************************
+ *  Copyright (c) 2016 ModelSolv, Inc. and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation.rules
+
+import com.reprezen.swagedit.model.AbstractNode
+import com.reprezen.swagedit.model.Model
+import com.reprezen.swagedit.schema.SwaggerSchema
+import com.reprezen.swagedit.validation.SwaggerError
+import java.util.List
+import java.util.Set
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class RuleEngineTest {
+
+	val schema = new SwaggerSchema
+
+	val model = Model.parseYaml(schema, '''
+		swagger: '2.0'
+		paths:
+		  /a:
+		    get:
+		      responses:
+		        '200':
+		          schema:
+		            type: string
+		definitions:
+		  Pet:
+		    properties:
+		      tag:
+		        schema: {}
+	''')
+
+	static class CollectRule extends Rule {
+		val List<String> pointers = newArrayList
+
+		new(String... patterns) {
+			super(patterns)
+		}
+
+		override check(List<AbstractNode> nodes, Set<SwaggerError> errors) {
+			pointers += nodes.map[pointerString]
+		}
+	}
+
+	def collect(String... patterns) {
+		val rule = new CollectRule(patterns)
+		new RuleEngine(#[rule]).validate(model)
+		rule.pointers
+	}
+
+	@Test
+	def void testLiteralPatterns() {
+		assertEquals(#[""], collect(""))
+		assertEquals(#["/swagger"], collect("/swagger"))
+		assertEquals(#["/paths/~1a/get"], collect("/paths/~1a/get"))
+		assertEquals(#[], collect("/paths/a"))
+	}
+
+	@Test
+	def void testSingleSegmentPatterns() {
+		assertEquals(#["/paths/~1a/get", "/definitions/Pet/properties"], collect("/*/*/*"))
+	}
+
+	@Test
+	def void testAnySegmentsPatterns() {
+		assertEquals(#["/paths/~1a/get/responses/200/schema", "/definitions/Pet/properties/tag/schema"],
+			collect("/**/schema"))
+		assertEquals(#["/definitions", "/definitions/Pet", "/definitions/Pet/properties",
+			"/definitions/Pet/properties/tag", "/definitions/Pet/properties/tag/schema"], collect("/definitions/**"))
+	}
+
+	@Test
+	def void testNodesMatchingSeveralPatternsAreCheckedOnce() {
+		assertEquals(#["/definitions", "/definitions/Pet"], collect("/definitions", "/definitions/*", "/*/Pet"))
+	}
+
+	@Test
+	def void testRulesReceiveTheirOwnNodes() {
+		val first = new CollectRule("/swagger")
+		val second = new CollectRule("/definitions/*")
+		new RuleEngine(#[first, second]).validate(model)
+
+		assertEquals(#["/swagger"], first.pointers)
+		assertEquals(#["/definitions/Pet"], second.pointers)
+	}
+
+	@Test
+	def void testRulesAreNotCheckedWithoutMatchingNodes() {
+		val rule = new CollectRule("/produces") {
+			override check(List<AbstractNode> nodes, Set<SwaggerError> errors) {
+				fail()
+			}
+		}
+		assertTrue(new RuleEngine(#[rule]).validate(model).empty)
+	}
+
+	@Test(expected=IllegalArgumentException)
+	def void testInvalidPattern() {
+		new RuleEngine(#[new CollectRule("definitions")])
+	}
+}
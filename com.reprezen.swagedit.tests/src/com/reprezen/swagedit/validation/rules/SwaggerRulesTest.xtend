@@ -0,0 +1,194 @@
+/*******************************************************************************
+ *  Copyright (c) 2016 ModelSolv, Inc. and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *     ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation.rules
+
+import com.reprezen.swagedit.Messages
+import com.reprezen.swagedit.model.Model
+import com.reprezen.swagedit.schema.SwaggerSchema
+import com.reprezen.swagedit.validation.SwaggerError
+import org.eclipse.core.resources.IMarker
+import org.junit.Test
+
+import static org.hamcrest.core.IsCollectionContaining.*
+import static org.junit.Assert.*
+
+class SwaggerRulesTest {
+
+	val schema = new SwaggerSchema
+
+	def validate(String content) {
+		RuleEngine.^default.validate(Model.parseYaml(schema, content))
+	}
+
+	@Test
+	def void testDuplicateOperationIds() {
+		val errors = validate('''
+			swagger: '2.0'
+			paths:
+			  /a:
+			    get:
+			      operationId: find
+			    post:
+			      operationId: create
+			  /b:
+			    get:
+			      operationId: find
+		''')
+
+		assertEquals(2, errors.size)
+		assertThat(errors, hasItems(
+			new SwaggerError(5, IMarker.SEVERITY_ERROR, String.format(Messages.error_duplicate_operation_id, "find")),
+			new SwaggerError(10, IMarker.SEVERITY_ERROR, String.format(Messages.error_duplicate_operation_id, "find"))
+		))
+	}
+
+	@Test
+	def void testPathParametersDeclaredByOperationOrPathItem() {
+		val errors = validate('''
+			swagger: '2.0'
+			paths:
+			  /pets/{id}/tags/{tag}:
+			    parameters:
+			      - $ref: '#/parameters/id'
+			    get:
+			      parameters:
+			        - name: tag
+			          in: path
+			parameters:
+			  id:
+			    name: id
+			    in: path
+		''')
+
+		assertTrue(errors.empty)
+	}
+
+	@Test
+	def void testMissingPathParameter() {
+		val errors = validate('''
+			swagger: '2.0'
+			paths:
+			  /pets/{id}:
+			    get:
+			      parameters:
+			        - name: id
+			          in: query
+		''')
+
+		assertEquals(#{new SwaggerError(4, IMarker.SEVERITY_ERROR,
+			String.format(Messages.error_missing_path_parameter, "id"))}, errors)
+	}
+
+	@Test
+	def void testPathParameterNotInPath() {
+		val errors = validate('''
+			swagger: '2.0'
+			paths:
+			  /pets:
+			    get:
+			      parameters:
+			        - name: id
+			          in: path
+		''')
+
+		assertEquals(#{new SwaggerError(6, IMarker.SEVERITY_ERROR,
+			String.format(Messages.error_unknown_path_parameter, "id"))}, errors)
+	}
+
+	@Test
+	def void testPathParametersAreNotCheckedWithExternalReferences() {
+		val errors = validate('''
+			swagger: '2.0'
+			paths:
+			  /pets/{id}:
+			    get:
+			      parameters:
+			        - $ref: 'parameters.yaml#/id'
+		''')
+
+		assertTrue(errors.empty)
+	}
+
+	@Test
+	def void testDuplicateParameters() {
+		val errors = validate('''
+			swagger: '2.0'
+			paths:
+			  /pets:
+			    parameters:
+			      - name: limit
+			        in: query
+			    get:
+			      parameters:
+			        - name: limit
+			          in: query
+			        - name: limit
+			          in: header
+			        - $ref: '#/parameters/limit'
+			parameters:
+			  limit:
+			    name: limit
+			    in: query
+		''')
+
+		assertEquals(2, errors.size)
+		assertThat(errors, hasItems(
+			new SwaggerError(9, IMarker.SEVERITY_ERROR, String.format(Messages.error_duplicate_parameter, "limit", "query")),
+			new SwaggerError(13, IMarker.SEVERITY_ERROR, String.format(Messages.error_duplicate_parameter, "limit", "query"))
+		))
+	}
+
+	@Test
+	def void testInvalidMediaTypes() {
+		val errors = validate('''
+			swagger: '2.0'
+			produces:
+			  - application/json
+			  - json
+			paths:
+			  /pets:
+			    get:
+			      consumes:
+			        - text/plain; charset=utf-8
+			        - '*/*'
+			        - text
+		''')
+
+		assertEquals(2, errors.size)
+		assertThat(errors, hasItems(
+			new SwaggerError(4, IMarker.SEVERITY_WARNING, String.format(Messages.warning_invalid_media_type, "json")),
+			new SwaggerError(11, IMarker.SEVERITY_WARNING, String.format(Messages.warning_invalid_media_type, "text"))
+		))
+	}
+
+	@Test
+	def void testFormParametersWithoutFormMediaType() {
+		val errors = validate('''
+			swagger: '2.0'
+			consumes:
+			  - application/json
+			paths:
+			  /pets:
+			    post:
+			      parameters:
+			        - name: name
+			          in: formData
+			    put:
+			      consumes:
+			        - multipart/form-data
+			      parameters:
+			        - name: name
+			          in: formData
+		''')
+
+		assertEquals(#{new SwaggerError(6, IMarker.SEVERITY_WARNING, Messages.warning_form_data_consumes)}, errors)
+	}
+}
@@ -13,12 +13,21 @@ package com.reprezen.swagedit;
 import java.io.IOException;
 
 import org.dadacoalition.yedit.YEditLog;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.FileLocator;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.jface.text.templates.ContextTypeRegistry;
 import org.eclipse.jface.text.templates.persistence.TemplateStore;
+import org.eclipse.jface.util.IPropertyChangeListener;
+import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.PlatformUI;
@@ -28,8 +37,15 @@ import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
 
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.reprezen.swagedit.index.ReferenceIndexer;
+import com.reprezen.swagedit.json.references.JsonDocumentManager;
+import com.reprezen.swagedit.preferences.SwaggerPreferenceConstants;
 import com.reprezen.swagedit.schema.SwaggerSchema;
 import com.reprezen.swagedit.templates.SwaggerContextType;
+import com.reprezen.swagedit.validation.IncrementalSchemaValidator;
+import com.reprezen.swagedit.validation.ValidationCache;
+import com.reprezen.swagedit.validation.ValidationPool;
 
 public class Activator extends AbstractUIPlugin {
 
@@ -42,6 +58,19 @@ public class Activator extends AbstractUIPlugin {
 
     private ContributionContextTypeRegistry contextTypeRegistry;
     private SwaggerSchema schema;
+    private ValidationCache validationCache;
+    private ReferenceIndexer referenceIndexer;
+    private boolean referenceIndexerStarted = false;
+
+    private final IPropertyChangeListener preferenceListener = new IPropertyChangeListener() {
+        @Override
+        public void propertyChange(PropertyChangeEvent event) {
+            if (SwaggerPreferenceConstants.VALIDATION_THREADS.equals(event.getProperty())) {
+                ValidationPool.setParallelism(getPreferenceStore().getInt(
+                        SwaggerPreferenceConstants.VALIDATION_THREADS));
+            }
+        }
+    };
 
     /**
      * Bundle icons
@@ -75,6 +104,38 @@ public class Activator extends AbstractUIPlugin {
             addImage(bundle, Icons.outline_mapping_scalar.name(), "icons/outline_mappingscalar.gif");
             addImage(bundle, Icons.outline_sequence.name(), "icons/outline_sequence.png");
         }
+
+        // validations of all documents share a pool whose size is set in the preferences
+        final IPreferenceStore store = getPreferenceStore();
+        ValidationPool.setParallelism(store.getInt(SwaggerPreferenceConstants.VALIDATION_THREADS));
+        store.addPropertyChangeListener(preferenceListener);
+
+        // referenced documents are read again once their files change
+        ResourcesPlugin.getWorkspace().addResourceChangeListener(JsonDocumentManager.getInstance(),
+                IResourceChangeEvent.POST_CHANGE);
+
+        // references of the files of the workspace are indexed in the background, headless applications only index
+        // the workspace once they use the indexer
+        referenceIndexer = new ReferenceIndexer(getStateLocation().append("references.json").toFile());
+        JsonDocumentManager.getInstance().setIndex(referenceIndexer.getIndex());
+        if (PlatformUI.isWorkbenchRunning()) {
+            getReferenceIndexer();
+        }
+
+        // compiles the validators of the schema units before the first validation needs them
+        Job job = new Job("Load Swagger schema") {
+            @Override
+            protected IStatus run(IProgressMonitor monitor) {
+                try {
+                    IncrementalSchemaValidator.getInstance().prepare(getSchema());
+                } catch (ProcessingException e) {
+                    YEditLog.logException(e);
+                }
+                return Status.OK_STATUS;
+            }
+        };
+        job.setSystem(true);
+        job.schedule();
     }
 
     protected void addImage(Bundle bundle, String key, String path) {
@@ -105,6 +166,18 @@ public class Activator extends AbstractUIPlugin {
      * @see org.eclipse.ui.plugin.AbstractUIPlugin#stop(org.osgi.framework. BundleContext)
      */
     public void stop(BundleContext context) throws Exception {
+        getPreferenceStore().removePropertyChangeListener(preferenceListener);
+        ValidationPool.shutdown();
+        ResourcesPlugin.getWorkspace().removeResourceChangeListener(JsonDocumentManager.getInstance());
+        synchronized (this) {
+            if (referenceIndexer != null) {
+                JsonDocumentManager.getInstance().setIndex(null);
+                if (referenceIndexerStarted) {
+                    referenceIndexer.stop();
+                }
+                referenceIndexer = null;
+            }
+        }
         plugin = null;
         super.stop(context);
     }
@@ -143,11 +216,41 @@ public class Activator extends AbstractUIPlugin {
         return contextTypeRegistry;
     }
 
-    public SwaggerSchema getSchema() {
+    public synchronized SwaggerSchema getSchema() {
         if (schema == null) {
             schema = new SwaggerSchema();
         }
 
         return schema;
     }
+
+    /**
+     * Returns the cache of validation results, kept in the state location of the plugin. Results of other versions of
+     * the plugin are ignored.
+     * 
+     * @return validation cache
+     */
+    public synchronized ValidationCache getValidationCache() {
+        if (validationCache == null) {
+            validationCache = new ValidationCache(getStateLocation().append("validation").toFile(), getBundle()
+                    .getVersion().toString(), ValidationCache.DEFAULT_MAX_SIZE);
+        }
+
+        return validationCache;
+    }
+
+    /**
+     * Returns the indexer of the references between the Swagger files of the workspace, or null once the plugin has
+     * been stopped. The indexer starts indexing the workspace when the workbench starts, or else when it is first
+     * requested.
+     * 
+     * @return reference indexer
+     */
+    public synchronized ReferenceIndexer getReferenceIndexer() {
+        if (referenceIndexer != null && !referenceIndexerStarted) {
+            referenceIndexerStarted = true;
+            referenceIndexer.start();
+        }
+        return referenceIndexer;
+    }
 }
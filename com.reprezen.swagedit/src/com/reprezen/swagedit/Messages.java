@@ -25,6 +25,11 @@ public class Messages extends NLS {
     public static String outline_proposal_local;
     public static String outline_proposal_project;
     public static String outline_proposal_workspace;
+    public static String references_title;
+    public static String references_local;
+    public static String references_workspace;
+    public static String references_indexing;
+    public static String references_no_target;
 
     // errors
     public static String error_typeNoMatch;
@@ -41,7 +46,13 @@ public class Messages extends NLS {
     public static String error_type_missing;
     public static String error_wrong_type;
     public static String error_missing_properties;
+    public static String error_duplicate_operation_id;
+    public static String error_missing_path_parameter;
+    public static String error_unknown_path_parameter;
+    public static String error_duplicate_parameter;
     public static String warning_simple_reference;
+    public static String warning_invalid_media_type;
+    public static String warning_form_data_consumes;
 
 
     static {
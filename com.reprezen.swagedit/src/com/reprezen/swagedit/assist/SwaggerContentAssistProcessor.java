@@ -127,7 +127,7 @@ public class SwaggerContentAssistProcessor extends TemplateCompletionProcessor
             column -= prefix.length();
         }
 
-        Model model = document.getModel(documentOffset - prefix.length());
+        Model model = document.getModel();
         currentPath = model.getPath(line, column);
 
         isRefCompletion = currentPath != null && currentPath.toString().endsWith(JsonReference.PROPERTY);
@@ -0,0 +1,362 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.builder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import org.dadacoalition.yedit.YEditLog;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.IResourceProxy;
+import org.eclipse.core.resources.IResourceProxyVisitor;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.resources.WorkspaceJob;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.content.IContentDescription;
+import org.eclipse.core.runtime.content.IContentType;
+import org.eclipse.core.runtime.jobs.Job;
+
+import com.google.common.io.CharStreams;
+import com.reprezen.swagedit.Activator;
+import com.reprezen.swagedit.editor.SwaggerDocument;
+import com.reprezen.swagedit.index.ReferenceEdge;
+import com.reprezen.swagedit.index.ReferenceIndex;
+import com.reprezen.swagedit.index.ReferenceIndexer;
+import com.reprezen.swagedit.validation.MarkerUpdater;
+import com.reprezen.swagedit.validation.SwaggerError;
+import com.reprezen.swagedit.validation.ValidationPool;
+import com.reprezen.swagedit.validation.Validator;
+
+/**
+ * Builder that validates the Swagger files of a project, whether they are open in an editor or not.
+ *
+ * <br/>
+ *
+ * An incremental build validates only the Swagger files that have changed and the files that reference a file that
+ * has changed, as recorded by the workspace {@link ReferenceIndex}. The builder indexes the files it validates, and the
+ * index is saved by the {@link ReferenceIndexer}, so that builds remain incremental across sessions. Files are
+ * validated in parallel on the {@link ValidationPool}, in batches, and the markers of each batch are updated before the
+ * next batch starts. A canceled build is followed by a full build. The markers of the files that are open in an
+ * editor show the errors of their edited content, they are updated by the editor, see
+ * {@link MarkerUpdater#isEdited(IFile)}.
+ *
+ * <br/>
+ *
+ * Files of other projects that are referenced by the files of the project are tracked as well, a change to one of them
+ * validates again the files that reference it.
+ */
+public class SwaggerBuilder extends IncrementalProjectBuilder {
+
+    public static final String BUILDER_ID = Activator.PLUGIN_ID + ".builder";
+
+    /**
+     * Content type of the Swagger files validated by the builder.
+     */
+    public static final String CONTENT_TYPE_ID = Activator.PLUGIN_ID + ".contenttype.swagger.yaml";
+
+    private final Validator validator = new Validator();
+
+    @Override
+    protected IProject[] build(int kind, Map<String, String> args, IProgressMonitor monitor) throws CoreException {
+        final IResourceDelta delta = kind == FULL_BUILD ? null : getDelta(getProject());
+        final ReferenceIndex index = getIndex();
+
+        try {
+            if (delta == null || index == null || !isIndexed(index)) {
+                fullBuild(monitor);
+            } else {
+                incrementalBuild(delta, monitor);
+            }
+        } catch (OperationCanceledException e) {
+            // files that have not been validated are validated by the next build
+            forgetLastBuiltState();
+            throw e;
+        }
+
+        // changes to the files of these projects are given to the next build
+        return getReferencedProjects(index);
+    }
+
+    @Override
+    protected void clean(IProgressMonitor monitor) throws CoreException {
+        for (IFile file : getSwaggerFiles()) {
+            if (!MarkerUpdater.isEdited(file)) {
+                file.deleteMarkers(MarkerUpdater.PROBLEM_MARKER, true, IResource.DEPTH_ZERO);
+            }
+        }
+    }
+
+    protected void fullBuild(IProgressMonitor monitor) throws CoreException {
+        validate(getSwaggerFiles(), monitor);
+    }
+
+    protected void incrementalBuild(IResourceDelta delta, IProgressMonitor monitor) throws CoreException {
+        final ReferenceIndex index = getIndex();
+        final Set<IFile> changed = new LinkedHashSet<>();
+        final Set<IFile> removed = new LinkedHashSet<>();
+        collectChanges(delta, changed, removed);
+        for (IProject project : getReferencedProjects(index)) {
+            final IResourceDelta other = getDelta(project);
+            if (other != null) {
+                collectChanges(other, changed, removed);
+            }
+        }
+
+        final Set<IFile> files = new LinkedHashSet<>();
+        for (IFile file : changed) {
+            if (getProject().equals(file.getProject()) && isSwaggerFile(file)) {
+                files.add(file);
+            }
+        }
+
+        // files of the project that reference a file that has changed, the references of the files that have not
+        // changed are up to date in the index
+        for (IFile file : concat(changed, removed)) {
+            for (ReferenceEdge edge : index.getReferrers(file.getFullPath())) {
+                final IFile source = getProject().getWorkspace().getRoot().getFile(edge.getSource());
+                if (getProject().equals(source.getProject()) && source.exists() && isSwaggerFile(source)) {
+                    files.add(source);
+                }
+            }
+        }
+
+        validate(files, monitor);
+    }
+
+    private static void collectChanges(IResourceDelta delta, final Set<IFile> changed, final Set<IFile> removed)
+            throws CoreException {
+        delta.accept(new IResourceDeltaVisitor() {
+            @Override
+            public boolean visit(IResourceDelta delta) throws CoreException {
+                if (delta.getResource().getType() != IResource.FILE) {
+                    return true;
+                }
+                final IFile file = (IFile) delta.getResource();
+                if (delta.getKind() == IResourceDelta.REMOVED) {
+                    removed.add(file);
+                } else if (delta.getKind() == IResourceDelta.ADDED
+                        || (delta.getFlags() & (IResourceDelta.CONTENT | IResourceDelta.REPLACED
+                                | IResourceDelta.ENCODING)) != 0) {
+                    changed.add(file);
+                }
+                return false;
+            }
+        });
+    }
+
+    /*
+     * Returns the index of the references of the workspace, or null once the plugin has been stopped.
+     */
+    private static ReferenceIndex getIndex() {
+        final ReferenceIndexer indexer = Activator.getDefault() != null ? Activator.getDefault()
+                .getReferenceIndexer() : null;
+        return indexer != null ? indexer.getIndex() : null;
+    }
+
+    /*
+     * Returns true if the index contains the files of the project, it does not if it has been lost since the last
+     * build.
+     */
+    private boolean isIndexed(ReferenceIndex index) {
+        for (IPath file : index.getFiles()) {
+            if (getProject().getName().equals(file.segment(0))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Returns the other projects that contain files referenced by the files of the project.
+     */
+    private IProject[] getReferencedProjects(ReferenceIndex index) {
+        final Set<IProject> projects = new LinkedHashSet<>();
+        if (index != null) {
+            for (IPath file : index.getFiles()) {
+                if (!getProject().getName().equals(file.segment(0))) {
+                    continue;
+                }
+                for (ReferenceEdge edge : index.getReferences(file)) {
+                    if (edge.getTarget().segmentCount() > 1) {
+                        projects.add(getProject().getWorkspace().getRoot().getProject(edge.getTarget().segment(0)));
+                    }
+                }
+            }
+        }
+        projects.remove(getProject());
+        return projects.toArray(new IProject[projects.size()]);
+    }
+
+    /*
+     * Validates the files in parallel, one batch at a time, and updates their markers. References of the files are
+     * indexed as they are validated.
+     */
+    private void validate(Collection<IFile> files, IProgressMonitor monitor) throws CoreException {
+        final SubMonitor progress = SubMonitor.convert(monitor, "Validating Swagger files", files.size());
+        final List<IFile> pending = new ArrayList<>(files);
+        final int size = 4 * ValidationPool.getParallelism();
+
+        for (int i = 0; i < pending.size(); i += size) {
+            if (progress.isCanceled()) {
+                throw new OperationCanceledException();
+            }
+
+            final List<Callable<Result>> tasks = new ArrayList<>();
+            for (final IFile file : pending.subList(i, Math.min(i + size, pending.size()))) {
+                tasks.add(new Callable<Result>() {
+                    @Override
+                    public Result call() {
+                        return validate(file, progress);
+                    }
+                });
+            }
+
+            for (Result result : ValidationPool.invokeAll(tasks)) {
+                // the markers of a file open in an editor show the errors of its edited content
+                if (result != null && !MarkerUpdater.isEdited(result.file)) {
+                    MarkerUpdater.update(result.file, result.errors);
+                }
+            }
+            progress.worked(tasks.size());
+        }
+    }
+
+    /**
+     * Schedules the validation of the saved content of the file, whose markers have been updated by an editor that has
+     * been closed without saving its content.
+     *
+     * @param file
+     */
+    public static void validateSaved(final IFile file) {
+        final Job job = new WorkspaceJob("Validating " + file.getName()) {
+            @Override
+            public IStatus runInWorkspace(IProgressMonitor monitor) throws CoreException {
+                if (MarkerUpdater.isEdited(file) || !isSwaggerFile(file)) {
+                    return Status.OK_STATUS;
+                }
+                final Result result = new SwaggerBuilder().validate(file, monitor);
+                if (result != null && !MarkerUpdater.isEdited(file)) {
+                    MarkerUpdater.update(file, result.errors);
+                }
+                return Status.OK_STATUS;
+            }
+        };
+        job.setRule(file);
+        job.setSystem(true);
+        job.schedule();
+    }
+
+    /*
+     * Returns the errors of the file, or null if the file cannot be read.
+     */
+    private Result validate(IFile file, IProgressMonitor monitor) {
+        final SwaggerDocument document = new SwaggerDocument(Activator.getDefault().getSchema());
+        final long stamp = file.getModificationStamp();
+        try (InputStream contents = file.getContents(true)) {
+            document.set(CharStreams.toString(new InputStreamReader(contents, file.getCharset())));
+        } catch (CoreException | IOException e) {
+            YEditLog.logException(e);
+            return null;
+        }
+
+        final URI baseURI = file.getLocationURI();
+        final Set<SwaggerError> errors = validator.validateSyntax(document);
+        errors.addAll(validator.validate(baseURI, document, monitor));
+
+        // the index does not need to parse the file again
+        final ReferenceIndexer indexer = Activator.getDefault().getReferenceIndexer();
+        if (indexer != null && document.getParseResult().getYamlError() == null) {
+            indexer.index(file, stamp, document.getModel());
+        }
+
+        return new Result(file, errors);
+    }
+
+    /*
+     * Returns the Swagger files of the project, derived resources excepted.
+     */
+    private List<IFile> getSwaggerFiles() throws CoreException {
+        final List<IFile> files = new ArrayList<>();
+        getProject().accept(new IResourceProxyVisitor() {
+            @Override
+            public boolean visit(IResourceProxy proxy) throws CoreException {
+                if (proxy.isDerived()) {
+                    return false;
+                }
+                if (proxy.getType() == IResource.FILE) {
+                    final IFile file = (IFile) proxy.requestResource();
+                    if (isSwaggerFile(file)) {
+                        files.add(file);
+                    }
+                }
+                return true;
+            }
+        }, IResource.NONE);
+        return files;
+    }
+
+    /**
+     * Returns true if the file has the Swagger content type.
+     *
+     * @param file
+     * @return true if Swagger file
+     */
+    public static boolean isSwaggerFile(IFile file) {
+        final IContentType swagger = Platform.getContentTypeManager().getContentType(CONTENT_TYPE_ID);
+        if (swagger == null || !file.exists() || !swagger.isAssociatedWith(file.getName())) {
+            return false;
+        }
+        try {
+            final IContentDescription description = file.getContentDescription();
+            return description != null && description.getContentType() != null
+                    && description.getContentType().isKindOf(swagger);
+        } catch (CoreException e) {
+            return false;
+        }
+    }
+
+    private static Set<IFile> concat(Set<IFile> first, Set<IFile> second) {
+        final Set<IFile> result = new LinkedHashSet<>(first);
+        result.addAll(second);
+        return result;
+    }
+
+    private static class Result {
+        final IFile file;
+        final Set<SwaggerError> errors;
+
+        Result(IFile file, Set<SwaggerError> errors) {
+            this.file = file;
+            this.errors = errors;
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.builder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.resources.ICommand;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IProjectDescription;
+import org.eclipse.core.resources.IProjectNature;
+import org.eclipse.core.runtime.CoreException;
+
+import com.reprezen.swagedit.Activator;
+
+/**
+ * Nature of the projects whose Swagger files are validated by the {@link SwaggerBuilder}.
+ */
+public class SwaggerNature implements IProjectNature {
+
+    public static final String NATURE_ID = Activator.PLUGIN_ID + ".nature";
+
+    private IProject project;
+
+    @Override
+    public void configure() throws CoreException {
+        final IProjectDescription description = project.getDescription();
+        final List<ICommand> commands = new ArrayList<>(Arrays.asList(description.getBuildSpec()));
+        for (ICommand command : commands) {
+            if (SwaggerBuilder.BUILDER_ID.equals(command.getBuilderName())) {
+                return;
+            }
+        }
+
+        final ICommand command = description.newCommand();
+        command.setBuilderName(SwaggerBuilder.BUILDER_ID);
+        commands.add(command);
+        description.setBuildSpec(commands.toArray(new ICommand[commands.size()]));
+        project.setDescription(description, null);
+    }
+
+    @Override
+    public void deconfigure() throws CoreException {
+        final IProjectDescription description = project.getDescription();
+        final List<ICommand> commands = new ArrayList<>(Arrays.asList(description.getBuildSpec()));
+        for (int i = 0; i < commands.size(); i++) {
+            if (SwaggerBuilder.BUILDER_ID.equals(commands.get(i).getBuilderName())) {
+                commands.remove(i);
+                description.setBuildSpec(commands.toArray(new ICommand[commands.size()]));
+                project.setDescription(description, null);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public IProject getProject() {
+        return project;
+    }
+
+    @Override
+    public void setProject(IProject project) {
+        this.project = project;
+    }
+
+    /**
+     * Adds the nature to the project if it does not have it, removes it otherwise.
+     *
+     * @param project
+     * @throws CoreException
+     */
+    public static void toggle(IProject project) throws CoreException {
+        final IProjectDescription description = project.getDescription();
+        final List<String> natures = new ArrayList<>(Arrays.asList(description.getNatureIds()));
+        if (!natures.remove(NATURE_ID)) {
+            natures.add(NATURE_ID);
+        }
+        description.setNatureIds(natures.toArray(new String[natures.size()]));
+        project.setDescription(description, null);
+    }
+
+}
@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.editor;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocumentListener;
+
+import com.reprezen.swagedit.model.ParseResult;
+
+/**
+ * Job that parses the content of a {@link SwaggerDocument} outside of the UI thread.
+ *
+ * <br/>
+ *
+ * Successive calls to {@link #update()} are coalesced, a parse that is running when the document changes is canceled
+ * and the job runs again once the document has not been modified for a short delay. The job completes with an OK
+ * status only when it has published a result for the current content of the document.
+ *
+ * <br/>
+ *
+ * When registered as a listener of the document, the job keeps track of the region modified since the last published
+ * result so that only the part of the document that contains it is parsed again. While the content is not valid YAML,
+ * the region is tracked from the last valid result, so that its nodes can be kept in the partial model.
+ */
+public class ParseJob extends Job implements IDocumentListener {
+
+    /**
+     * Delay in milliseconds between the last modification of the document and the start of the parse.
+     */
+    public static final long DELAY = 200;
+
+    private final SwaggerDocument document;
+    private final Object lock = new Object();
+
+    // region modified since the result published at the stamp baseStamp
+    private Edit edit;
+    private long baseStamp;
+    // last published result whose content is valid YAML
+    private volatile ParseResult valid;
+
+    public ParseJob(SwaggerDocument document) {
+        super("Parse Swagger document");
+        this.document = document;
+
+        setSystem(true);
+        setPriority(Job.SHORT);
+    }
+
+    public SwaggerDocument getDocument() {
+        return document;
+    }
+
+    /**
+     * Notifies the job that the document has changed.
+     */
+    public void update() {
+        cancel();
+        schedule(DELAY);
+    }
+
+    @Override
+    public void documentAboutToBeChanged(DocumentEvent event) {
+        synchronized (lock) {
+            if (edit == null) {
+                baseStamp = document.getModificationStamp();
+            }
+        }
+    }
+
+    @Override
+    public void documentChanged(DocumentEvent event) {
+        final int newLength = event.getText() == null ? 0 : event.getText().length();
+
+        synchronized (lock) {
+            if (edit == null) {
+                edit = new Edit(event.getOffset(), event.getLength(), newLength);
+            } else {
+                edit = edit.merge(event.getOffset(), event.getLength(), newLength);
+            }
+            edit.stamp = event.getModificationStamp();
+        }
+
+        update();
+    }
+
+    @Override
+    protected IStatus run(IProgressMonitor monitor) {
+        if (monitor.isCanceled()) {
+            return Status.CANCEL_STATUS;
+        }
+
+        final long stamp = document.getModificationStamp();
+        final String content;
+        try {
+            content = document.get();
+        } catch (RuntimeException e) {
+            // the document has been modified while reading it,
+            // a new run is already scheduled.
+            return Status.CANCEL_STATUS;
+        }
+
+        final Edit pending;
+        final long pendingBase;
+        synchronized (lock) {
+            pending = edit;
+            pendingBase = baseStamp;
+        }
+
+        final ParseResult result;
+        final ParseResult previous = pending != null && pending.stamp == stamp ? getResult(pendingBase) : null;
+        try {
+            if (previous != null) {
+                result = ParseResult.reparse(document.getSchema(), previous, content, stamp, pending.offset,
+                        pending.oldLength, pending.newLength, monitor);
+            } else {
+                result = ParseResult.parse(document.getSchema(), content, stamp, monitor);
+            }
+        } catch (OperationCanceledException e) {
+            return Status.CANCEL_STATUS;
+        }
+
+        if (monitor.isCanceled() || !document.publish(result)) {
+            return Status.CANCEL_STATUS;
+        }
+
+        final boolean partial = result.getYamlError() != null;
+        if (!partial) {
+            valid = result;
+        }
+
+        synchronized (lock) {
+            // keeps the region modified since the last valid result
+            if (edit == pending && !(partial && previous != null && previous.getYamlError() == null)) {
+                edit = null;
+            }
+        }
+
+        return Status.OK_STATUS;
+    }
+
+    /*
+     * Returns the result published at the given stamp if it is still known.
+     */
+    private ParseResult getResult(long stamp) {
+        final ParseResult current = document.getPublishedResult();
+        if (current != null && current.getStamp() == stamp) {
+            return current;
+        }
+
+        final ParseResult last = valid;
+        return last != null && last.getStamp() == stamp ? last : null;
+    }
+
+    /*
+     * Region of the document replaced by a text of length newLength.
+     */
+    private static class Edit {
+        final int offset;
+        final int oldLength;
+        final int newLength;
+        long stamp;
+
+        Edit(int offset, int oldLength, int newLength) {
+            this.offset = offset;
+            this.oldLength = oldLength;
+            this.newLength = newLength;
+        }
+
+        /*
+         * Returns the region that covers this one and the region of the next modification, expressed in offsets of
+         * the document before this modification.
+         */
+        Edit merge(int nextOffset, int nextOldLength, int nextNewLength) {
+            final int start = Math.min(offset, nextOffset);
+            final int end = Math.max(offset + newLength, nextOffset + nextOldLength);
+
+            return new Edit(start, end - start - (newLength - oldLength), end - start + nextNewLength - nextOldLength);
+        }
+    }
+
+}
@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.editor;
+
+import java.util.List;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jface.bindings.TriggerSequence;
+import org.eclipse.jface.bindings.keys.KeySequence;
+import org.eclipse.jface.bindings.keys.SWTKeySupport;
+import org.eclipse.jface.dialogs.PopupDialog;
+import org.eclipse.jface.text.Region;
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.KeyAdapter;
+import org.eclipse.swt.events.KeyEvent;
+import org.eclipse.swt.events.SelectionAdapter;
+import org.eclipse.swt.events.SelectionEvent;
+import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.keys.IBindingService;
+
+import com.reprezen.swagedit.Messages;
+import com.reprezen.swagedit.index.ReferenceEdge;
+import com.reprezen.swagedit.index.ReferenceFinder;
+import com.reprezen.swagedit.utils.DocumentUtils;
+
+/**
+ * Popup that shows the references to a definition, a parameter or a response, first from the current file, then from
+ * all files of the workspace once the command that opened the popup is invoked again.
+ */
+public class QuickReferences extends PopupDialog {
+
+    public static final String COMMAND_ID = "com.reprezen.swagedit.commands.findreferences";
+
+    private final SwaggerEditor editor;
+    private final IFile file;
+    private final SwaggerDocument document;
+    private final ReferenceFinder finder;
+    private final Pair<IPath, String> target;
+    private final boolean indexing;
+
+    private final TriggerSequence triggerSequence;
+    private final String bindingKey;
+    private boolean workspace = false;
+    private TableViewer tableViewer;
+
+    /**
+     * @param parent
+     * @param editor
+     *            editor of the file
+     * @param file
+     *            file being edited
+     * @param document
+     *            document of the editor
+     * @param finder
+     * @param target
+     *            file and pointer of the node whose references are shown
+     * @param indexing
+     *            true if the index of the workspace is being updated
+     */
+    public QuickReferences(Shell parent, SwaggerEditor editor, IFile file, SwaggerDocument document,
+            ReferenceFinder finder, Pair<IPath, String> target, boolean indexing) {
+        super(parent, PopupDialog.INFOPOPUPRESIZE_SHELLSTYLE, true, true, true, true, true, String.format(
+                Messages.references_title, target.getRight(), target.getLeft().lastSegment()), null);
+
+        final IBindingService bindingService = (IBindingService) PlatformUI.getWorkbench().getAdapter(
+                IBindingService.class);
+        this.bindingKey = bindingService.getBestActiveBindingFormattedFor(COMMAND_ID);
+        this.triggerSequence = bindingService.getBestActiveBindingFor(COMMAND_ID);
+        this.editor = editor;
+        this.file = file;
+        this.document = document;
+        this.finder = finder;
+        this.target = target;
+        this.indexing = indexing;
+
+        setInfoText(statusMessage());
+        create();
+        refresh();
+    }
+
+    @Override
+    protected Control createDialogArea(Composite parent) {
+        final Table table = new Table(parent, SWT.SINGLE | SWT.FULL_SELECTION);
+        final GridData data = new GridData(GridData.FILL_BOTH);
+        data.heightHint = table.getItemHeight() * 12;
+        data.widthHint = 480;
+        table.setLayoutData(data);
+
+        tableViewer = new TableViewer(table);
+        tableViewer.setContentProvider(ArrayContentProvider.getInstance());
+        tableViewer.setLabelProvider(new LabelProvider() {
+            @Override
+            public String getText(Object element) {
+                final ReferenceEdge reference = (ReferenceEdge) element;
+                return String.format("%s:%d - %s", reference.getSource().toString(), reference.getLine(),
+                        reference.getPointer());
+            }
+        });
+
+        table.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (isInvocationEvent(e)) {
+                    e.doit = false;
+                    workspace = !workspace;
+                    setInfoText(statusMessage());
+                    refresh();
+                } else if (e.keyCode == SWT.CR) {
+                    handleSelection();
+                }
+            }
+        });
+        table.addSelectionListener(new SelectionAdapter() {
+            @Override
+            public void widgetDefaultSelected(SelectionEvent e) {
+                handleSelection();
+            }
+        });
+        return table;
+    }
+
+    @Override
+    protected Control getFocusControl() {
+        return tableViewer.getControl();
+    }
+
+    protected void refresh() {
+        final List<ReferenceEdge> references = finder.find(file.getFullPath(), file.getLocationURI(),
+                document.getModel(), target, workspace);
+        tableViewer.setInput(references);
+        if (!references.isEmpty()) {
+            tableViewer.getTable().setSelection(0);
+        }
+    }
+
+    protected String statusMessage() {
+        if (!workspace) {
+            return String.format(Messages.references_local, bindingKey);
+        }
+        final String message = String.format(Messages.references_workspace, bindingKey);
+        return indexing ? message + " " + Messages.references_indexing : message;
+    }
+
+    protected boolean isInvocationEvent(KeyEvent e) {
+        if (triggerSequence == null) {
+            return false;
+        }
+        int accelerator = SWTKeySupport.convertEventToUnmodifiedAccelerator(e);
+        KeySequence keySequence = KeySequence.getInstance(SWTKeySupport.convertAcceleratorToKeyStroke(accelerator));
+
+        return keySequence.startsWith(triggerSequence, true);
+    }
+
+    protected void handleSelection() {
+        final Object element = ((IStructuredSelection) tableViewer.getSelection()).getFirstElement();
+        if (!(element instanceof ReferenceEdge)) {
+            return;
+        }
+
+        final ReferenceEdge reference = (ReferenceEdge) element;
+        close();
+        if (reference.getSource().equals(file.getFullPath())) {
+            editor.selectAndReveal(reference.getOffset(), reference.getLength());
+        } else {
+            DocumentUtils.openAndReveal(ResourcesPlugin.getWorkspace().getRoot().getFile(reference.getSource()),
+                    new Region(reference.getOffset(), reference.getLength()));
+        }
+    }
+
+}
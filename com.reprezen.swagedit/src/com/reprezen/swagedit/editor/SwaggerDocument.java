@@ -10,24 +10,20 @@
  *******************************************************************************/
 package com.reprezen.swagedit.editor;
 
-import java.io.IOException;
-import java.io.StringReader;
-
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.Region;
-import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.nodes.Node;
-import org.yaml.snakeyaml.parser.ParserException;
 
 import com.fasterxml.jackson.core.JsonPointer;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.reprezen.swagedit.Activator;
 import com.reprezen.swagedit.model.AbstractNode;
 import com.reprezen.swagedit.model.Model;
+import com.reprezen.swagedit.model.ParseResult;
 import com.reprezen.swagedit.schema.SwaggerSchema;
 
 /**
@@ -36,19 +32,25 @@ import com.reprezen.swagedit.schema.SwaggerSchema;
  */
 public class SwaggerDocument extends Document {
 
-    private final Yaml yaml = new Yaml();
-    private final ObjectMapper mapper = io.swagger.util.Yaml.mapper();
-
-    private JsonNode jsonContent;
-    private Node yamlContent;
-
-    private Exception yamlError;
-    private Exception jsonError;
-    private Model model;
-    private SwaggerSchema schema;
+    private volatile ParseResult result;
+    private final SwaggerSchema schema;
+    // a result is published and the document modified under this lock, see publish()
+    private final Object lock = new Object();
+    // number of modifications of the document in progress
+    private int changing = 0;
 
     public SwaggerDocument() {
-        this.schema = Activator.getDefault() != null ? Activator.getDefault().getSchema() : new SwaggerSchema();
+        this(Activator.getDefault() != null ? Activator.getDefault().getSchema() : new SwaggerSchema());
+    }
+
+    /**
+     * Creates a document whose content is read with the given schema, documents created outside of the workbench
+     * should share the same schema.
+     * 
+     * @param schema
+     */
+    public SwaggerDocument(SwaggerSchema schema) {
+        this.schema = schema;
     }
 
     public SwaggerSchema getSchema() {
@@ -56,11 +58,13 @@ public class SwaggerDocument extends Document {
     }
 
     public Exception getYamlError() {
-        return yamlError;
+        final ParseResult current = result;
+        return current != null ? current.getYamlError() : null;
     }
 
     public Exception getJsonError() {
-        return jsonError;
+        final ParseResult current = result;
+        return current != null ? current.getJsonError() : null;
     }
 
     /**
@@ -69,28 +73,18 @@ public class SwaggerDocument extends Document {
      * @return Node
      */
     public Node getYaml() {
-        if (yamlContent == null) {
-            parseYaml(get());
-        }
-
-        return yamlContent;
+        return getParseResult().getYaml();
     }
 
     /**
      * Returns the JSON representation of the document.
      * 
-     * Will throw an exception if the content of the document is not valid YAML.
+     * Will return null if the content of the document is not valid YAML.
      * 
      * @return JsonNode
-     * @throws ParserException
-     * @throws IOException
      */
     public JsonNode asJson() {
-        if (jsonContent == null) {
-            parseJson(get());
-        }
-
-        return jsonContent;
+        return getParseResult().getJson();
     }
 
     /**
@@ -123,73 +117,100 @@ public class SwaggerDocument extends Document {
         }
     }
 
+    /**
+     * Parses the current content of the document and publishes the result.
+     * 
+     * Like the modifications of the document, this method should only be called by the thread that modifies the
+     * document, other threads should let a {@link ParseJob} parse the document.
+     */
     public void onChange() {
-        final String content = get();
+        // the stamp is read first, a modification during the parse makes the result stale
+        final long stamp = getModificationStamp();
+        publish(ParseResult.parse(schema, get(), stamp, null));
+    }
 
-        parseModel();
-        parseYaml(content);
+    /**
+     * Makes the result available to the readers of the document if it has been obtained from the current content of
+     * the document, stale results are discarded.
+     * 
+     * @param parsed
+     * @return true if the result has been accepted
+     */
+    public boolean publish(ParseResult parsed) {
+        synchronized (lock) {
+            // the stamp changes during a modification, after its listeners have been notified
+            if (parsed == null || changing > 0 || parsed.getStamp() != getModificationStamp()) {
+                return false;
+            }
 
-        // No need to parse json if
-        // there is already a yaml parsing error.
-        if (yamlError != null) {
-            jsonContent = null;
-        } else {
-            parseJson(content);
+            result = parsed;
+            return true;
         }
     }
 
-    private void parseYaml(String content) {
-        try {
-            yamlContent = yaml.compose(new StringReader(content));
-            yamlError = null;
-        } catch (Exception e) {
-            yamlContent = null;
-            yamlError = e;
+    @Override
+    protected void fireDocumentAboutToBeChanged(DocumentEvent event) {
+        synchronized (lock) {
+            changing++;
         }
-    }
-
-    private void parseJson(String content) {
         try {
-            Object expandedYamlObject = new com.fasterxml.jackson.dataformat.yaml.snakeyaml.Yaml().load(content);
-            jsonContent = mapper.valueToTree(expandedYamlObject);
-            jsonError = null;
-        } catch (Exception e) {
-            jsonContent = null;
-            jsonError = e;
+            super.fireDocumentAboutToBeChanged(event);
+        } catch (RuntimeException e) {
+            // the document is not modified
+            synchronized (lock) {
+                changing--;
+            }
+            throw e;
         }
     }
 
-    private void parseModel() {
-        try {
-            model = Model.parseYaml(schema, get());
-        } catch (Exception e) {
-            // e.printStackTrace();
-            model = null;
+    @Override
+    protected void fireDocumentChanged(DocumentEvent event) {
+        synchronized (lock) {
+            changing--;
         }
+        super.fireDocumentChanged(event);
     }
 
-    public Model getModel() {
-        if (model == null) {
-            parseModel();
-        }
-        return model;
+    /**
+     * Returns the last published result, or null if the document has not been parsed yet. Unlike
+     * {@link #getParseResult()}, this method never reads the content of the document and can be called from any
+     * thread.
+     * 
+     * @return parse result or null
+     */
+    public ParseResult getPublishedResult() {
+        return result;
     }
 
-    public Model getModel(int offset) {
-        // no parse errors
-        if (model != null) {
-            return model;
+    /**
+     * Returns the result of the last parse of the document content, the YAML, JSON and model representations of the
+     * document are all obtained from it.
+     * 
+     * If the document has been modified since, the result is the newest one that has been published. If no result has
+     * been published yet, the document is parsed by the calling thread, see {@link #onChange()}. Other threads than the
+     * one that modifies the document should use {@link #getPublishedResult()} and wait for a {@link ParseJob} to
+     * publish a result.
+     * 
+     * @return parse result
+     */
+    public ParseResult getParseResult() {
+        ParseResult current = result;
+        if (current == null) {
+            final long stamp = getModificationStamp();
+            current = ParseResult.parse(schema, get(), stamp, null);
+            publish(current);
         }
+        return current;
+    }
 
-        try {
-            if (0 > offset || offset > getLength()) {
-                return Model.parseYaml(schema, get());
-            } else {
-                return Model.parseYaml(schema, get(0, offset));
-            }
-        } catch (BadLocationException e) {
-            return null;
-        }
+    /**
+     * Returns the model of the document, if the content is not valid YAML the model is partial.
+     * 
+     * @return model
+     */
+    public Model getModel() {
+        return getParseResult().getModel();
     }
 
     public JsonPointer getPath(int line, int column) {
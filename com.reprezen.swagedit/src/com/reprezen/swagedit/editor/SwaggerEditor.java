@@ -10,11 +10,18 @@
  *******************************************************************************/
 package com.reprezen.swagedit.editor;
 
+import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.dadacoalition.yedit.YEditLog;
 import org.dadacoalition.yedit.editor.IDocumentIdleListener;
@@ -22,15 +29,19 @@ import org.dadacoalition.yedit.editor.YEdit;
 import org.dadacoalition.yedit.editor.YEditSourceViewerConfiguration;
 import org.dadacoalition.yedit.preferences.PreferenceConstants;
 import org.eclipse.core.resources.IFile;
-import org.eclipse.core.resources.IMarker;
-import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.WorkspaceJob;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.IJobChangeListener;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
 import org.eclipse.jface.text.IDocumentListener;
 import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.information.IInformationPresenter;
@@ -69,15 +80,23 @@ import org.eclipse.ui.part.IShowInTarget;
 import org.eclipse.ui.part.ShowInContext;
 import org.eclipse.ui.swt.IFocusService;
 import org.eclipse.ui.views.contentoutline.IContentOutlinePage;
-import org.yaml.snakeyaml.error.YAMLException;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.reprezen.swagedit.Activator;
+import com.reprezen.swagedit.builder.SwaggerBuilder;
 import com.reprezen.swagedit.editor.outline.SwaggerContentOutlinePage;
 import com.reprezen.swagedit.handlers.OpenQuickOutlineHandler;
+import com.reprezen.swagedit.json.references.JsonReferenceCollector;
+import com.reprezen.swagedit.json.references.JsonReferenceFactory;
 import com.reprezen.swagedit.model.AbstractNode;
+import com.reprezen.swagedit.model.ParseCache;
+import com.reprezen.swagedit.model.ParseResult;
+import com.reprezen.swagedit.preferences.SwaggerPreferenceConstants;
+import com.reprezen.swagedit.validation.MarkerUpdater;
 import com.reprezen.swagedit.validation.SwaggerError;
+import com.reprezen.swagedit.validation.ValidationCache;
+import com.reprezen.swagedit.validation.ValidationPool;
 import com.reprezen.swagedit.validation.Validator;
+import com.reprezen.swagedit.validation.Validator.Tier;
 
 /**
  * SwagEdit editor.
@@ -89,12 +108,76 @@ public class SwaggerEditor extends YEdit implements IShowInSource, IShowInTarget
     public static final String CONTEXT = "com.reprezen.swagedit.context";
 
     private final Validator validator = new Validator();
+    private final JsonReferenceCollector referenceCollector = new JsonReferenceCollector(new JsonReferenceFactory());
     private ProjectionSupport projectionSupport;
     private Annotation[] oldAnnotations;
     private ProjectionAnnotationModel annotationModel;
     private Composite topPanel;
     private SwaggerSourceViewerConfiguration sourceViewerConfiguration;
 
+    private volatile ParseJob parseJob;
+    // validates all tiers when the document is opened or saved
+    private ValidationJob validationJob;
+    // validate a single tier while the document is edited
+    private ValidationJob syntaxJob;
+    private ValidationJob schemaJob;
+    private ValidationJob referencesJob;
+
+    // errors of each tier and modification stamp of the content they have been found in
+    private final Map<Tier, Set<SwaggerError>> tierErrors = new EnumMap<>(Tier.class);
+    private final Map<Tier, Long> tierStamps = new EnumMap<>(Tier.class);
+    // true once the editor is idle, until the document changes
+    private volatile boolean idle = false;
+    // stamp of the content whose idle tiers have been scheduled
+    private volatile long idleStamp = IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+    // true if all tiers should be validated once the content is parsed
+    private volatile boolean validationPending = false;
+
+    /*
+     * Updates the outline and the validation markers once the parse job has published a result for the current
+     * content of the document.
+     */
+    private final IJobChangeListener parseListener = new JobChangeAdapter() {
+        @Override
+        public void done(IJobChangeEvent event) {
+            if (!event.getResult().isOK()) {
+                return;
+            }
+
+            Display.getDefault().asyncExec(new Runnable() {
+                @Override
+                public void run() {
+                    if (contentOutline != null) {
+                        contentOutline.setInput(getEditorInput());
+                    }
+                    if (validationPending && validationJob != null) {
+                        validationPending = false;
+                        validationJob.update(0);
+                    } else if (syntaxJob != null) {
+                        syntaxJob.update(0);
+                    }
+                    if (idle) {
+                        scheduleIdleTiers();
+                    }
+                }
+            });
+        }
+    };
+
+    /*
+     * Validates the document against the schema and its references once the editor is idle.
+     */
+    private final IDocumentIdleListener idleListener = new IDocumentIdleListener() {
+        @Override
+        public void editorIdle(ISourceViewer sourceViewer) {
+            idle = true;
+            scheduleIdleTiers();
+        }
+    };
+
+    /*
+     * Cancels the validations waiting for the editor to be idle as soon as the document changes.
+     */
     private final IDocumentListener changeListener = new IDocumentListener() {
         @Override
         public void documentAboutToBeChanged(DocumentEvent event) {
@@ -102,19 +185,12 @@ public class SwaggerEditor extends YEdit implements IShowInSource, IShowInTarget
 
         @Override
         public void documentChanged(DocumentEvent event) {
-            if (event.getDocument() instanceof SwaggerDocument) {
-                final SwaggerDocument document = (SwaggerDocument) event.getDocument();
-
-                Display.getCurrent().asyncExec(new Runnable() {
-                    @Override
-                    public void run() {
-                        document.onChange();
-                        if (contentOutline != null) {
-                            contentOutline.setInput(getEditorInput());
-                        }
-                        runValidate(false);
-                    }
-                });
+            idle = false;
+            if (schemaJob != null) {
+                schemaJob.cancel();
+            }
+            if (referencesJob != null) {
+                referencesJob.cancel();
             }
         }
     };
@@ -191,6 +267,8 @@ public class SwaggerEditor extends YEdit implements IShowInSource, IShowInTarget
     };
 
     private SwaggerContentOutlinePage contentOutline;
+    // file whose markers are updated by this editor
+    private IFile markedFile;
 
     public SwaggerEditor() {
         super();
@@ -223,9 +301,46 @@ public class SwaggerEditor extends YEdit implements IShowInSource, IShowInTarget
         if (input != null) {
             super.doSetInput(input);
 
+            // the markers of the file show the errors of the edited content until the editor is closed
+            final IFile file = input instanceof IFileEditorInput ? ((IFileEditorInput) input).getFile() : null;
+            if (markedFile != null && !markedFile.equals(file)) {
+                MarkerUpdater.release(markedFile);
+                SwaggerBuilder.validateSaved(markedFile);
+            }
+            if (file != null && !file.equals(markedFile)) {
+                MarkerUpdater.acquire(file);
+            }
+            markedFile = file;
+
             IDocument document = getDocumentProvider().getDocument(getEditorInput());
             if (document != null) {
-                document.addDocumentListener(changeListener);
+                if (parseJob != null) {
+                    parseJob.getDocument().removeDocumentListener(parseJob);
+                    parseJob.getDocument().removeDocumentListener(changeListener);
+                    parseJob.removeJobChangeListener(parseListener);
+                    parseJob.cancel();
+                    parseJob = null;
+                }
+                cancelValidationJobs();
+                validationJob = syntaxJob = schemaJob = referencesJob = null;
+                validationPending = false;
+                synchronized (tierErrors) {
+                    tierErrors.clear();
+                    tierStamps.clear();
+                }
+                if (document instanceof SwaggerDocument) {
+                    final SwaggerDocument swaggerDocument = (SwaggerDocument) document;
+                    parseJob = new ParseJob(swaggerDocument);
+                    parseJob.addJobChangeListener(parseListener);
+                    document.addDocumentListener(parseJob);
+                    document.addDocumentListener(changeListener);
+                    validationJob = new TierValidationJob(swaggerDocument, EnumSet.allOf(Tier.class), Job.LONG);
+                    syntaxJob = new TierValidationJob(swaggerDocument, EnumSet.of(Tier.SYNTAX), Job.SHORT);
+                    schemaJob = new TierValidationJob(swaggerDocument, EnumSet.of(Tier.SCHEMA), Job.LONG);
+                    referencesJob = new TierValidationJob(swaggerDocument, EnumSet.of(Tier.REFERENCES),
+                            Job.DECORATE);
+                }
+
                 // validate content before editor opens
                 runValidate(true);
             }
@@ -267,11 +382,29 @@ public class SwaggerEditor extends YEdit implements IShowInSource, IShowInTarget
 
         annotationModel = viewer.getProjectionAnnotationModel();
 
+        addDocumentIdleListener(idleListener);
         Activator.getDefault().getPreferenceStore().addPropertyChangeListener(preferenceChangeListener);
     }
 
     @Override
     public void dispose() {
+        if (parseJob != null) {
+            parseJob.getDocument().removeDocumentListener(parseJob);
+            parseJob.getDocument().removeDocumentListener(changeListener);
+            parseJob.removeJobChangeListener(parseListener);
+            parseJob.cancel();
+        }
+        cancelValidationJobs();
+        removeDocumentIdleListener(idleListener);
+        if (markedFile != null) {
+            // the markers show the errors of content that has not been saved
+            final boolean dirty = isDirty();
+            MarkerUpdater.release(markedFile);
+            if (dirty) {
+                SwaggerBuilder.validateSaved(markedFile);
+            }
+            markedFile = null;
+        }
         super.dispose();
 
         Activator.getDefault().getPreferenceStore().removePropertyChangeListener(preferenceChangeListener);
@@ -402,10 +535,11 @@ public class SwaggerEditor extends YEdit implements IShowInSource, IShowInTarget
                         @Override
                         public void run() {
                             SwaggerEditor.super.doSave(jobMonitor);
+                            // the validation jobs read the state of the editor in the UI thread
+                            validate();
                         }
                     });
                 }
-                validate();
                 return Status.OK_STATUS;
             }
         }.schedule();
@@ -424,33 +558,124 @@ public class SwaggerEditor extends YEdit implements IShowInSource, IShowInTarget
                         @Override
                         public void run() {
                             SwaggerEditor.super.doSaveAs();
+                            // the validation jobs read the state of the editor in the UI thread
+                            validate();
                         }
                     });
                 }
-                validate();
                 return Status.OK_STATUS;
             }
         }.schedule();
     }
 
+    /*
+     * Job that validates some tiers of the document and updates the markers of the file with their errors.
+     */
+    private class TierValidationJob extends ValidationJob {
+
+        private final Set<Tier> tiers;
+        private Map<Tier, Set<SwaggerError>> results;
+        private long stamp;
+        // whether the content is saved, read on the UI thread when the job is updated
+        private volatile boolean saved;
+
+        TierValidationJob(SwaggerDocument document, Set<Tier> tiers, int priority) {
+            super(document);
+            this.tiers = tiers;
+            setPriority(priority);
+        }
+
+        @Override
+        public void update(long delay) {
+            saved = !isDirty();
+            super.update(delay);
+        }
+
+        @Override
+        protected Set<SwaggerError> validate(IProgressMonitor monitor) {
+            stamp = getDocument().getPublishedResult().getStamp();
+            results = SwaggerEditor.this.validate(getDocument(), tiers, saved, monitor);
+
+            final Set<SwaggerError> errors = new HashSet<>();
+            for (Set<SwaggerError> tierErrors : results.values()) {
+                errors.addAll(tierErrors);
+            }
+            return errors;
+        }
+
+        @Override
+        protected void report(Set<SwaggerError> errors) throws CoreException {
+            updateMarkers(results, stamp);
+        }
+    }
+
+    private void cancelValidationJobs() {
+        for (ValidationJob job : Arrays.asList(validationJob, syntaxJob, schemaJob, referencesJob)) {
+            if (job != null) {
+                job.cancel();
+            }
+        }
+    }
+
+    /*
+     * Schedules the validation of the schema and of the references to other documents, once the content of the
+     * document has been parsed.
+     */
+    private void scheduleIdleTiers() {
+        if (schemaJob == null || referencesJob == null) {
+            return;
+        }
+
+        final SwaggerDocument document = schemaJob.getDocument();
+        final long stamp = document.getModificationStamp();
+        final ParseResult parsed = document.getPublishedResult();
+        if (stamp == idleStamp || parsed == null || parsed.getStamp() != stamp) {
+            // already validated, or validated once parsed
+            return;
+        }
+
+        idleStamp = stamp;
+        // the results of intermediate modifications are not cached, only the ones the editor stops at
+        ParseCache.getInstance().put(document.getSchema(), parsed);
+        final IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+        schemaJob.update(store.getInt(SwaggerPreferenceConstants.VALIDATION_IDLE_DELAY));
+        referencesJob.update(store.getInt(SwaggerPreferenceConstants.VALIDATION_REFERENCES_DELAY));
+    }
+
+    /**
+     * Validates all tiers of the document, for example after it has been saved.
+     */
     protected void validate() {
-        validate(false);
+        runValidate(false);
     }
 
     protected void runValidate(final boolean onOpen) {
-        new SafeWorkspaceJob("Update SwagEdit validation markers") {
+        if (validationJob == null) {
+            return;
+        }
 
-            @Override
-            public IStatus doRunInWorkspace(IProgressMonitor monitor) throws CoreException {
-                validate(onOpen);
-                return Status.OK_STATUS;
+        final SwaggerDocument document = validationJob.getDocument();
+        final ParseResult parsed = document.getPublishedResult();
+        if (parsed != null && parsed.getStamp() == document.getModificationStamp()) {
+            ParseCache.getInstance().put(document.getSchema(), parsed);
+            validationJob.update(onOpen ? 0 : ValidationJob.DELAY);
+        } else {
+            // the content is parsed by the parse job, not by the validation job
+            validationPending = true;
+            if (onOpen && parseJob != null) {
+                parseJob.schedule();
             }
-        }.schedule();
+        }
     }
 
-    private void validate(boolean onOpen) {
-        IEditorInput editorInput = getEditorInput();
-        final IDocument document = getDocumentProvider().getDocument(getEditorInput());
+    /*
+     * Returns the errors of each tier of the document, the monitor is checked between the stages of the validation.
+     * Results of saved content are kept in the validation cache.
+     */
+    private Map<Tier, Set<SwaggerError>> validate(final SwaggerDocument document, Set<Tier> tiers, boolean saved,
+            final IProgressMonitor monitor) {
+        final IEditorInput editorInput = getEditorInput();
+        final Map<Tier, Set<SwaggerError>> errors = new EnumMap<>(Tier.class);
 
         // if the file is not part of a workspace it does not seems that it is a
         // IFileEditorInput
@@ -459,63 +684,97 @@ public class SwaggerEditor extends YEdit implements IShowInSource, IShowInTarget
         if (!(editorInput instanceof IFileEditorInput)) {
             YEditLog.logError("Marking errors not supported for files outside of a project.");
             YEditLog.logger.info("editorInput is not a part of a project.");
-            return;
+            return errors;
         }
 
-        if (document instanceof SwaggerDocument) {
-            final IFileEditorInput fileEditorInput = (IFileEditorInput) editorInput;
-            final IFile file = fileEditorInput.getFile();
-
-            if (onOpen) {
-                // force parsing of yaml to init parsing errors
-                ((SwaggerDocument) document).onChange();
-            }
-            clearMarkers(file);
-            validateYaml(file, (SwaggerDocument) document);
-            validateSwagger(file, (SwaggerDocument) document, fileEditorInput);
+        final URI baseURI = ((IFileEditorInput) editorInput).getFile().getLocationURI();
+
+        // the errors of the content of the file may have been kept by a previous validation
+        final ValidationCache cache = saved && Activator.getDefault() != null ? Activator.getDefault()
+                .getValidationCache() : null;
+        final String content = document.getPublishedResult().getContent();
+        final String key = cache != null && content != null ? cache.getKey(document.getSchema(), content) : null;
+        // relative references are resolved from the location of the file
+        final String referencesKey = key != null ? cache.getKey(document.getSchema(), content, baseURI) : null;
+
+        // tiers are independent, they run in parallel
+        final List<Tier> list = new ArrayList<>(tiers);
+        final List<Callable<Set<SwaggerError>>> validations = new ArrayList<>();
+        for (final Tier tier : list) {
+            validations.add(new Callable<Set<SwaggerError>>() {
+                @Override
+                public Set<SwaggerError> call() {
+                    // syntax errors are found while parsing
+                    final String tierKey = key == null || tier == Tier.SYNTAX ? null
+                            : (tier == Tier.REFERENCES ? referencesKey : key) + "-" + tier.name().toLowerCase();
+                    Set<SwaggerError> result = tierKey != null ? cache.get(tierKey) : null;
+                    if (result == null) {
+                        result = validator.validate(baseURI, document, tier, monitor);
+                        if (tierKey != null) {
+                            cache.put(tierKey, result, tier == Tier.REFERENCES ? referenceCollector
+                                    .collectDocuments(baseURI, document.getModel()) : Collections.<URI> emptySet());
+                        }
+                    }
+                    return result;
+                }
+            });
         }
-    }
 
-    protected void clearMarkers(IFile file) {
-        int depth = IResource.DEPTH_INFINITE;
-        try {
-            file.deleteMarkers(IMarker.PROBLEM, true, depth);
-        } catch (CoreException e) {
-            YEditLog.logException(e);
-            YEditLog.logger.warning("Failed to delete markers:\n" + e.toString());
+        final List<Set<SwaggerError>> results = ValidationPool.invokeAll(validations);
+        for (int i = 0; i < list.size(); i++) {
+            errors.put(list.get(i), results.get(i));
         }
+        return errors;
     }
 
-    protected void validateYaml(IFile file, SwaggerDocument document) {
-        if (document.getYamlError() instanceof YAMLException) {
-            addMarker(new SwaggerError((YAMLException) document.getYamlError()), file, document);
+    /*
+     * Replaces the errors of the validated tiers, unless errors of a more recent content have already been reported,
+     * and replaces the markers of the file of the editor by the errors of all tiers.
+     */
+    private void updateMarkers(Map<Tier, Set<SwaggerError>> results, long stamp) throws CoreException {
+        final IEditorInput editorInput = getEditorInput();
+        if (!(editorInput instanceof IFileEditorInput)) {
+            return;
         }
-        if (document.getJsonError() instanceof JsonProcessingException) {
-            addMarker(new SwaggerError((JsonProcessingException) document.getJsonError()), file, document);
+
+        if (results.containsKey(Tier.SCHEMA) && results.containsKey(Tier.REFERENCES) && stamp > idleStamp) {
+            idleStamp = stamp;
         }
-    }
 
-    protected void validateSwagger(IFile file, SwaggerDocument document, IFileEditorInput editorInput) {
-        final Set<SwaggerError> errors = validator.validate(document, editorInput);
+        synchronized (tierErrors) {
+            for (Map.Entry<Tier, Set<SwaggerError>> entry : results.entrySet()) {
+                final Long previous = tierStamps.get(entry.getKey());
+                if (previous == null || previous <= stamp) {
+                    tierErrors.put(entry.getKey(), entry.getValue());
+                    tierStamps.put(entry.getKey(), stamp);
+                }
+            }
 
-        for (SwaggerError error : errors) {
-            addMarker(error, file, document);
+            final Set<SwaggerError> errors = new HashSet<>();
+            for (Set<SwaggerError> value : tierErrors.values()) {
+                errors.addAll(value);
+            }
+            MarkerUpdater.update(((IFileEditorInput) editorInput).getFile(), errors);
         }
     }
 
-    private IMarker addMarker(SwaggerError error, IFile target, IDocument document) {
-        IMarker marker = null;
+    /**
+     * Waits for the job that parses the document of the editor and returns the last published result, or null if there
+     * is none. It should not be called by the UI thread.
+     * 
+     * @return parse result or null
+     */
+    ParseResult joinParseJob() {
+        final ParseJob job = parseJob;
+        if (job == null) {
+            return null;
+        }
         try {
-            marker = target.createMarker(IMarker.PROBLEM);
-            marker.setAttribute(IMarker.SEVERITY, error.getLevel());
-            marker.setAttribute(IMarker.MESSAGE, error.getMessage());
-            marker.setAttribute(IMarker.LINE_NUMBER, error.getLine());
-        } catch (CoreException e) {
-            YEditLog.logException(e);
-            YEditLog.logger.warning("Failed to create marker for syntax error: \n" + e.toString());
+            job.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-
-        return marker;
+        return job.getDocument().getPublishedResult();
     }
 
     public void redrawViewer() {
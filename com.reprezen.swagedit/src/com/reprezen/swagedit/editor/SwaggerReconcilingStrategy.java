@@ -22,9 +22,9 @@ import org.eclipse.jface.text.reconciler.DirtyRegion;
 import org.eclipse.jface.text.reconciler.IReconcilingStrategy;
 import org.eclipse.jface.text.reconciler.IReconcilingStrategyExtension;
 import org.eclipse.swt.widgets.Display;
-import org.yaml.snakeyaml.nodes.MappingNode;
-import org.yaml.snakeyaml.nodes.Node;
-import org.yaml.snakeyaml.nodes.NodeTuple;
+
+import com.reprezen.swagedit.model.AbstractNode;
+import com.reprezen.swagedit.model.ParseResult;
 
 public class SwaggerReconcilingStrategy implements IReconcilingStrategy, IReconcilingStrategyExtension {
 
@@ -62,26 +62,35 @@ public class SwaggerReconcilingStrategy implements IReconcilingStrategy, IReconc
         if (!(document instanceof SwaggerDocument))
             return;
 
-        final Node yaml = ((SwaggerDocument) document).getYaml();
-        if (!(yaml instanceof MappingNode)) {
+        // the positions are read from the model, the YAML node tree of an updated result is not composed. The reconciler
+        // does not run on the thread that modifies the document, it reads the result published by the parse job.
+        ParseResult result = ((SwaggerDocument) document).getPublishedResult();
+        if (result == null && editor != null) {
+            result = editor.joinParseJob();
+        }
+        final AbstractNode root = result != null ? result.getModel().getRoot() : null;
+        if (root == null || !result.hasYaml() || !root.isObject()) {
             return;
         }
 
         Display.getDefault().asyncExec(new Runnable() {
             public void run() {
-                editor.updateFoldingStructure(calculatePositions((MappingNode) yaml));
+                editor.updateFoldingStructure(calculatePositions(root));
             }
         });
     }
 
-    protected List<Position> calculatePositions(MappingNode mapping) {
+    protected List<Position> calculatePositions(AbstractNode object) {
         List<Position> positions = new ArrayList<>();
         int start;
         int end = -1;
 
-        for (NodeTuple tuple : mapping.getValue()) {
-            start = tuple.getKeyNode().getStartMark().getLine();
-            end = tuple.getValueNode().getEndMark().getLine();
+        for (AbstractNode element : object.elements()) {
+            if (element.getStart() == null || element.getEnd() == null) {
+                continue;
+            }
+            start = element.getStart().getLine();
+            end = element.getEnd().getLine();
 
             if ((end - start) > 0) {
                 try {
@@ -93,8 +102,8 @@ public class SwaggerReconcilingStrategy implements IReconcilingStrategy, IReconc
                 }
             }
 
-            if (tuple.getValueNode() instanceof MappingNode) {
-                positions.addAll(calculatePositions((MappingNode) tuple.getValueNode()));
+            if (element.isObject()) {
+                positions.addAll(calculatePositions(element));
             }
         }
 
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.editor;
+
+import java.util.Set;
+
+import org.dadacoalition.yedit.YEditLog;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import com.reprezen.swagedit.model.ParseResult;
+import com.reprezen.swagedit.validation.SwaggerError;
+
+/**
+ * Job that validates the content of a {@link SwaggerDocument} and reports the errors.
+ *
+ * <br/>
+ *
+ * There is one job per document. Successive calls to {@link #update()} are coalesced, a validation that is running
+ * when the job is updated is canceled and the job runs again after a short delay. Errors are reported only if the
+ * document has not been modified during the validation, so that only the errors of the current content of the
+ * document are reported.
+ *
+ * <br/>
+ *
+ * The job never reads the content of the document, it validates the result published by the {@link ParseJob} of the
+ * document and does nothing until a result of the current content has been published.
+ */
+public abstract class ValidationJob extends Job {
+
+    /**
+     * Delay in milliseconds between the last update of the job and the start of the validation.
+     */
+    public static final long DELAY = 200;
+
+    private final SwaggerDocument document;
+
+    public ValidationJob(SwaggerDocument document) {
+        super("Update SwagEdit validation markers");
+        this.document = document;
+
+        setSystem(true);
+    }
+
+    public SwaggerDocument getDocument() {
+        return document;
+    }
+
+    /**
+     * Notifies the job that the document should be validated again.
+     */
+    public void update() {
+        update(DELAY);
+    }
+
+    /**
+     * Notifies the job that the document should be validated again after the given delay.
+     *
+     * @param delay
+     *            in milliseconds
+     */
+    public void update(long delay) {
+        cancel();
+        schedule(delay);
+    }
+
+    @Override
+    protected IStatus run(IProgressMonitor monitor) {
+        try {
+            final long stamp = document.getModificationStamp();
+            final ParseResult parsed = document.getPublishedResult();
+            if (monitor.isCanceled() || parsed == null || parsed.getStamp() != stamp) {
+                // the content is being parsed, the job is updated once it is parsed
+                return Status.CANCEL_STATUS;
+            }
+
+            final Set<SwaggerError> errors = validate(monitor);
+
+            if (monitor.isCanceled() || document.getModificationStamp() != stamp) {
+                return Status.CANCEL_STATUS;
+            }
+
+            report(errors);
+            return Status.OK_STATUS;
+        } catch (OperationCanceledException e) {
+            return Status.CANCEL_STATUS;
+        } catch (CoreException | RuntimeException e) {
+            // an error status would be shown in a modal dialog, see SwaggerEditor.SafeWorkspaceJob
+            YEditLog.logException(e);
+            return Status.CANCEL_STATUS;
+        } finally {
+            monitor.done();
+        }
+    }
+
+    /**
+     * Returns the errors of the current content of the document.
+     *
+     * Implementations should check the monitor between the stages of the validation and throw an
+     * {@link OperationCanceledException} once the monitor is canceled.
+     *
+     * @param monitor
+     * @return errors
+     * @throws CoreException
+     */
+    protected abstract Set<SwaggerError> validate(IProgressMonitor monitor) throws CoreException;
+
+    /**
+     * Reports the errors of the document, for example by creating markers. Changes to the workspace should be made in
+     * a single workspace operation.
+     *
+     * @param errors
+     * @throws CoreException
+     */
+    protected abstract void report(Set<SwaggerError> errors) throws CoreException;
+
+}
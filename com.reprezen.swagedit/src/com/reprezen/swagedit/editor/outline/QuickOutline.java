@@ -308,7 +308,7 @@ public class QuickOutline extends PopupDialog
                     currentFile = ((IFileEditorInput) editorInput).getFile();
                 }
                 if (currentFile != null) {
-                    model.setPath(currentFile.getFullPath());
+                    input = model.withPath(currentFile.getFullPath());
                 }
             }
         }
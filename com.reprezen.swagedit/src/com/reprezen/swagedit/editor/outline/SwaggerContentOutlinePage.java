@@ -10,10 +10,7 @@
  *******************************************************************************/
 package com.reprezen.swagedit.editor.outline;
 
-import static com.google.common.collect.Iterables.filter;
-import static com.google.common.collect.Iterables.toArray;
-
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.jface.text.IDocument;
@@ -25,7 +22,6 @@ import org.eclipse.ui.part.ShowInContext;
 import org.eclipse.ui.texteditor.IDocumentProvider;
 import org.eclipse.ui.views.contentoutline.ContentOutlinePage;
 
-import com.google.common.base.Predicate;
 import com.reprezen.swagedit.editor.SwaggerDocument;
 import com.reprezen.swagedit.model.AbstractNode;
 import com.reprezen.swagedit.model.Model;
@@ -83,21 +79,30 @@ public class SwaggerContentOutlinePage extends ContentOutlinePage {
             final TreeViewer viewer = getTreeViewer();
 
             if (viewer != null && viewer.getControl() != null && !viewer.getControl().isDisposed()) {
+                // the tree already shows this version of the model
+                final Object input = viewer.getInput();
+                if (input instanceof Model && ((Model) input).getVersion() == model.getVersion()) {
+                    return;
+                }
+
                 // we keep all elements that have been previously expanded
                 // so the tree stay in the same state between updates.
                 final Object[] expandedElements = viewer.getExpandedElements();
-                final List<Object> elements = expandedElements != null ? Arrays.asList(expandedElements) : null;
 
                 viewer.setInput(model);
 
-                if (elements != null && !elements.isEmpty()) {
-                    Iterable<AbstractNode> newElements = filter(model.allNodes(), new Predicate<AbstractNode>() {
-                        @Override
-                        public boolean apply(AbstractNode node) {
-                            return elements.contains(node);
+                if (expandedElements != null && expandedElements.length > 0) {
+                    // nodes are looked up by their pointers, the nodes of collapsed elements are not created
+                    final List<AbstractNode> newElements = new ArrayList<>();
+                    for (Object element : expandedElements) {
+                        if (element instanceof AbstractNode) {
+                            AbstractNode node = model.find(((AbstractNode) element).getPointer());
+                            if (node != null && node.equals(element)) {
+                                newElements.add(node);
+                            }
                         }
-                    });
-                    viewer.setExpandedElements(toArray(newElements, AbstractNode.class));
+                    }
+                    viewer.setExpandedElements(newElements.toArray());
                 }
             }
         }
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.handlers;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.eclipse.core.commands.AbstractHandler;
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.ITextSelection;
+import org.eclipse.jface.text.Region;
+import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.ui.IEditorPart;
+import org.eclipse.ui.IFileEditorInput;
+import org.eclipse.ui.handlers.HandlerUtil;
+
+import com.reprezen.swagedit.Activator;
+import com.reprezen.swagedit.Messages;
+import com.reprezen.swagedit.editor.QuickReferences;
+import com.reprezen.swagedit.editor.SwaggerDocument;
+import com.reprezen.swagedit.editor.SwaggerEditor;
+import com.reprezen.swagedit.index.ReferenceFinder;
+import com.reprezen.swagedit.index.ReferenceIndexer;
+
+/**
+ * Shows the references to the definition, parameter or response at the caret of the editor, or to the node targeted by
+ * the reference at the caret.
+ */
+public class FindReferencesHandler extends AbstractHandler {
+
+    @Override
+    public Object execute(ExecutionEvent event) throws ExecutionException {
+        final IEditorPart part = HandlerUtil.getActiveEditor(event);
+        if (!(part instanceof SwaggerEditor) || !(part.getEditorInput() instanceof IFileEditorInput)) {
+            return null;
+        }
+
+        final SwaggerEditor editor = (SwaggerEditor) part;
+        final IFile file = ((IFileEditorInput) editor.getEditorInput()).getFile();
+        final IDocument document = editor.getDocumentProvider().getDocument(editor.getEditorInput());
+        final ISelection selection = editor.getSelectionProvider().getSelection();
+        if (!(document instanceof SwaggerDocument) || !(selection instanceof ITextSelection)) {
+            return null;
+        }
+
+        final SwaggerDocument swaggerDocument = (SwaggerDocument) document;
+        final int offset = ((ITextSelection) selection).getOffset();
+        final ReferenceIndexer indexer = Activator.getDefault().getReferenceIndexer();
+        final ReferenceFinder finder = new ReferenceFinder(indexer != null ? indexer.getIndex() : null);
+
+        final Pair<IPath, String> target = finder.getTarget(file.getFullPath(), file.getLocationURI(),
+                swaggerDocument.getModel(), swaggerDocument.getPath(new Region(offset, 0)), offset);
+        if (target == null) {
+            editor.getEditorSite().getActionBars().getStatusLineManager()
+                    .setErrorMessage(Messages.references_no_target);
+            return null;
+        }
+
+        new QuickReferences(HandlerUtil.getActiveShell(event), editor, file, swaggerDocument, finder, target,
+                indexer != null && indexer.isIndexing()).open();
+        return null;
+    }
+
+}
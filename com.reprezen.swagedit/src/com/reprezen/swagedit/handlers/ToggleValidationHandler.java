@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.handlers;
+
+import org.eclipse.core.commands.AbstractHandler;
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.ui.handlers.HandlerUtil;
+
+import com.reprezen.swagedit.builder.SwaggerNature;
+
+/**
+ * Enables or disables the validation of the Swagger files of the selected projects by the builder.
+ */
+public class ToggleValidationHandler extends AbstractHandler {
+
+    @Override
+    public Object execute(ExecutionEvent event) throws ExecutionException {
+        final ISelection selection = HandlerUtil.getCurrentSelection(event);
+        if (!(selection instanceof IStructuredSelection)) {
+            return null;
+        }
+
+        for (Object element : ((IStructuredSelection) selection).toList()) {
+            IProject project = null;
+            if (element instanceof IProject) {
+                project = (IProject) element;
+            } else if (element instanceof IAdaptable) {
+                project = (IProject) ((IAdaptable) element).getAdapter(IProject.class);
+            }
+
+            if (project != null && project.isOpen()) {
+                try {
+                    SwaggerNature.toggle(project);
+                } catch (CoreException e) {
+                    throw new ExecutionException("Cannot toggle the validation of project " + project.getName(), e);
+                }
+            }
+        }
+
+        return null;
+    }
+
+}
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.index;
+
+import org.eclipse.core.runtime.IPath;
+
+import com.google.common.base.Objects;
+
+/**
+ * Reference from a node of a file to a node of the same file or of another file of the workspace.
+ *
+ * <br/>
+ *
+ * Files are identified by their full path in the workspace, nodes by their JSON pointer. The pointer of the target is
+ * the pointer of the reference as normalized by {@link com.reprezen.swagedit.json.references.JsonReferenceFactory}, so
+ * that relative, absolute and encoded references to the same node have the same target.
+ */
+public class ReferenceEdge {
+
+    private final IPath source;
+    private final String pointer;
+    private final IPath target;
+    private final String targetPointer;
+    private final int line;
+    private final int offset;
+    private final int length;
+
+    /**
+     * @param source
+     *            file containing the reference
+     * @param pointer
+     *            pointer of the node containing the reference
+     * @param target
+     *            file referenced
+     * @param targetPointer
+     *            pointer of the node referenced
+     * @param line
+     *            line of the reference, starting at 1
+     * @param offset
+     *            offset of the reference, from its $ref key to the end of its value
+     * @param length
+     *            length of the reference
+     */
+    public ReferenceEdge(IPath source, String pointer, IPath target, String targetPointer, int line, int offset,
+            int length) {
+        this.source = source;
+        this.pointer = pointer;
+        this.target = target;
+        this.targetPointer = targetPointer;
+        this.line = line;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public IPath getSource() {
+        return source;
+    }
+
+    public String getPointer() {
+        return pointer;
+    }
+
+    public IPath getTarget() {
+        return target;
+    }
+
+    public String getTargetPointer() {
+        return targetPointer;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Returns true if the reference targets the node located by the pointer in the file, or one of its descendants.
+     *
+     * @param file
+     * @param nodePointer
+     * @return true if the node is referenced
+     */
+    public boolean references(IPath file, String nodePointer) {
+        return target.equals(file)
+                && (nodePointer.isEmpty() || targetPointer.equals(nodePointer) || targetPointer
+                        .startsWith(nodePointer + "/"));
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(source, pointer, target, targetPointer, line, offset, length);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ReferenceEdge)) {
+            return false;
+        }
+        final ReferenceEdge other = (ReferenceEdge) obj;
+        return source.equals(other.source) && pointer.equals(other.pointer) && target.equals(other.target)
+                && targetPointer.equals(other.targetPointer) && line == other.line && offset == other.offset
+                && length == other.length;
+    }
+
+    @Override
+    public String toString() {
+        return source + "#" + pointer + " -> " + target + "#" + targetPointer;
+    }
+
+}
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.index;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.eclipse.core.runtime.IPath;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.reprezen.swagedit.json.references.JsonReferenceFactory;
+import com.reprezen.swagedit.model.Model;
+
+/**
+ * Finds the references to a definition, a parameter or a response.
+ *
+ * <br/>
+ *
+ * The references of the file being edited are collected from its model, which may not have been saved. The references
+ * of the other files of the workspace are looked up in the {@link ReferenceIndex}, without parsing these files.
+ * References are normalized by the {@link JsonReferenceFactory}, so that relative, absolute and encoded references to
+ * the same node are all found.
+ */
+public class ReferenceFinder {
+
+    /**
+     * Sections of a Swagger document whose entries can be referenced.
+     */
+    private static final List<String> SECTIONS = Arrays.asList("definitions", "parameters", "responses");
+
+    private static final Comparator<ReferenceEdge> BY_OFFSET = new Comparator<ReferenceEdge>() {
+        @Override
+        public int compare(ReferenceEdge a, ReferenceEdge b) {
+            return Integer.compare(a.getOffset(), b.getOffset());
+        }
+    };
+
+    private final ReferenceIndex index;
+    private final JsonReferenceFactory factory;
+
+    /**
+     * @param index
+     *            index of the workspace, or null to find only the references of the file being edited
+     */
+    public ReferenceFinder(ReferenceIndex index) {
+        this(index, new JsonReferenceFactory());
+    }
+
+    public ReferenceFinder(ReferenceIndex index, JsonReferenceFactory factory) {
+        this.index = index;
+        this.factory = factory;
+    }
+
+    /**
+     * Returns the node whose references are searched from a location in a file: the node targeted by the reference at
+     * the offset, or else the definition, parameter or response that contains the node located by the pointer.
+     *
+     * @param file
+     *            full path of the file
+     * @param baseURI
+     *            location of the file
+     * @param model
+     *            model of the file
+     * @param pointer
+     *            pointer of the node at the offset
+     * @param offset
+     * @return file and pointer of the node, or null if there is none
+     */
+    public Pair<IPath, String> getTarget(IPath file, URI baseURI, Model model, JsonPointer pointer, int offset) {
+        for (ReferenceEdge reference : ReferenceIndexer.collect(file, baseURI, model, factory)) {
+            if (offset >= reference.getOffset() && offset <= reference.getOffset() + reference.getLength()) {
+                return Pair.of(reference.getTarget(), reference.getTargetPointer());
+            }
+        }
+
+        final String declaration = pointer != null ? getDeclaration(pointer.toString()) : null;
+        return declaration != null ? Pair.of(file, declaration) : null;
+    }
+
+    /**
+     * Returns the pointer of the definition, parameter or response that contains the node located by the pointer, or
+     * null if there is none.
+     *
+     * @param pointer
+     * @return pointer of the declaration
+     */
+    public static String getDeclaration(String pointer) {
+        final String[] segments = pointer.split("/", 4);
+        if (segments.length < 3 || !segments[0].isEmpty() || !SECTIONS.contains(segments[1]) || segments[2].isEmpty()) {
+            return null;
+        }
+        return "/" + segments[1] + "/" + segments[2];
+    }
+
+    /**
+     * Returns the references to a node, or to one of its descendants. References of the file being edited come first,
+     * ordered by offset, followed by the references of the other files of the workspace, ordered by file and offset.
+     *
+     * @param file
+     *            full path of the file being edited
+     * @param baseURI
+     *            location of the file being edited
+     * @param model
+     *            model of the file being edited
+     * @param target
+     *            file and pointer of the node
+     * @param workspace
+     *            true to find the references of the other files of the workspace as well
+     * @return references
+     */
+    public List<ReferenceEdge> find(IPath file, URI baseURI, Model model, Pair<IPath, String> target,
+            boolean workspace) {
+        final List<ReferenceEdge> result = new ArrayList<>();
+        for (ReferenceEdge reference : ReferenceIndexer.collect(file, baseURI, model, factory)) {
+            if (reference.references(target.getLeft(), target.getRight())) {
+                result.add(reference);
+            }
+        }
+        Collections.sort(result, BY_OFFSET);
+
+        if (workspace && index != null) {
+            // the index may not have the unsaved changes of the file being edited
+            for (ReferenceEdge reference : index.getReferrers(target.getLeft(), target.getRight())) {
+                if (!reference.getSource().equals(file)) {
+                    result.add(reference);
+                }
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,301 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.SetMultimap;
+
+/**
+ * Index of the references between the nodes of the Swagger files of the workspace.
+ *
+ * <br/>
+ *
+ * For each indexed file, the index keeps the modification stamp of the indexed content, the references of the file and
+ * the pointers of the nodes the file declares down to {@link #DECLARATION_DEPTH}, like <code>/definitions/Pet</code>.
+ * The references to a file or to a node, and the existence of a node targeted by a reference, are then found without
+ * parsing the files again. The index can be saved in a file so that it is kept across sessions.
+ *
+ * <br/>
+ *
+ * Methods of the index are thread safe.
+ */
+public class ReferenceIndex {
+
+    /**
+     * Depth of the pointers of the nodes declared by each file.
+     */
+    public static final int DECLARATION_DEPTH = 2;
+
+    private static final int FORMAT = 1;
+
+    private static final Comparator<ReferenceEdge> ORDER = new Comparator<ReferenceEdge>() {
+        @Override
+        public int compare(ReferenceEdge a, ReferenceEdge b) {
+            final int result = a.getSource().toPortableString().compareTo(b.getSource().toPortableString());
+            return result != 0 ? result : Integer.compare(a.getOffset(), b.getOffset());
+        }
+    };
+
+    private final Map<IPath, Entry> files = new HashMap<>();
+    private final SetMultimap<IPath, ReferenceEdge> referrers = HashMultimap.create();
+
+    /**
+     * Replaces the references and the declarations of a file.
+     *
+     * @param file
+     * @param stamp
+     *            modification stamp of the indexed content
+     * @param references
+     *            references of the file
+     * @param declarations
+     *            pointers of the nodes of the file, those deeper than {@link #DECLARATION_DEPTH} are ignored
+     */
+    public synchronized void put(IPath file, long stamp, Collection<ReferenceEdge> references,
+            Collection<String> declarations) {
+        remove(file);
+
+        final Set<String> pointers = new HashSet<>();
+        for (String pointer : declarations) {
+            if (isDeclaration(pointer)) {
+                pointers.add(pointer);
+            }
+        }
+
+        final Entry entry = new Entry(stamp, new ArrayList<>(references), pointers);
+        files.put(file, entry);
+        for (ReferenceEdge reference : entry.references) {
+            referrers.put(reference.getTarget(), reference);
+        }
+    }
+
+    /**
+     * Removes a file from the index, the references to the file are kept.
+     *
+     * @param file
+     */
+    public synchronized void remove(IPath file) {
+        final Entry entry = files.remove(file);
+        if (entry != null) {
+            for (ReferenceEdge reference : entry.references) {
+                referrers.remove(reference.getTarget(), reference);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        files.clear();
+        referrers.clear();
+    }
+
+    /**
+     * Returns the modification stamp of the indexed content of the file, or {@link IResource#NULL_STAMP} if the file
+     * is not indexed.
+     *
+     * @param file
+     * @return stamp
+     */
+    public synchronized long getStamp(IPath file) {
+        final Entry entry = files.get(file);
+        return entry != null ? entry.stamp : IResource.NULL_STAMP;
+    }
+
+    /**
+     * Returns the indexed files.
+     *
+     * @return files
+     */
+    public synchronized Set<IPath> getFiles() {
+        return new HashSet<>(files.keySet());
+    }
+
+    /**
+     * Returns the references of a file.
+     *
+     * @param file
+     * @return references
+     */
+    public synchronized List<ReferenceEdge> getReferences(IPath file) {
+        final Entry entry = files.get(file);
+        return entry != null ? Collections.unmodifiableList(entry.references) : Collections
+                .<ReferenceEdge> emptyList();
+    }
+
+    /**
+     * Returns the references to a file, ordered by file and offset.
+     *
+     * @param target
+     * @return references
+     */
+    public List<ReferenceEdge> getReferrers(IPath target) {
+        return getReferrers(target, "");
+    }
+
+    /**
+     * Returns the references to the node located by the pointer in a file, or to one of its descendants, ordered by
+     * file and offset.
+     *
+     * @param target
+     * @param pointer
+     * @return references
+     */
+    public List<ReferenceEdge> getReferrers(IPath target, String pointer) {
+        final List<ReferenceEdge> result = new ArrayList<>();
+        synchronized (this) {
+            for (ReferenceEdge reference : referrers.get(target)) {
+                if (reference.references(target, pointer)) {
+                    result.add(reference);
+                }
+            }
+        }
+        Collections.sort(result, ORDER);
+        return result;
+    }
+
+    /**
+     * Returns whether the file contains the node located by the pointer, or null if the index cannot tell, because the
+     * file has not been indexed at the given modification stamp or because the pointer is deeper than
+     * {@link #DECLARATION_DEPTH}.
+     *
+     * @param file
+     * @param stamp
+     *            current modification stamp of the file
+     * @param pointer
+     * @return true if the node exists, false if not, null if unknown
+     */
+    public synchronized Boolean contains(IPath file, long stamp, String pointer) {
+        final Entry entry = files.get(file);
+        if (entry == null || entry.stamp != stamp || !isDeclaration(pointer)) {
+            return null;
+        }
+        return pointer.isEmpty() || entry.declarations.contains(pointer);
+    }
+
+    /*
+     * Returns true if the pointer is not deeper than the declarations kept by the index.
+     */
+    static boolean isDeclaration(String pointer) {
+        int depth = 0;
+        for (int i = 0; i < pointer.length(); i++) {
+            if (pointer.charAt(i) == '/' && ++depth > DECLARATION_DEPTH) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Saves the index in a JSON file that maps the path of each file to its stamp, declarations and references.
+     *
+     * @param file
+     * @throws IOException
+     */
+    public synchronized void save(File file) throws IOException {
+        final ObjectMapper mapper = new ObjectMapper();
+        final ObjectNode root = mapper.createObjectNode();
+        root.put("format", FORMAT);
+
+        final ObjectNode values = root.putObject("files");
+        for (Map.Entry<IPath, Entry> entry : files.entrySet()) {
+            final ObjectNode value = values.putObject(entry.getKey().toPortableString());
+            value.put("stamp", entry.getValue().stamp);
+
+            final ArrayNode declarations = value.putArray("declarations");
+            for (String pointer : entry.getValue().declarations) {
+                declarations.add(pointer);
+            }
+
+            final ArrayNode references = value.putArray("references");
+            for (ReferenceEdge reference : entry.getValue().references) {
+                references.addArray() //
+                        .add(reference.getPointer()) //
+                        .add(reference.getTarget().toPortableString()) //
+                        .add(reference.getTargetPointer()) //
+                        .add(reference.getLine()) //
+                        .add(reference.getOffset()) //
+                        .add(reference.getLength());
+            }
+        }
+        mapper.writeValue(file, root);
+    }
+
+    /**
+     * Returns the index saved in the file.
+     *
+     * @param file
+     * @return index
+     * @throws IOException
+     *             if the file cannot be read or has been saved in another format
+     */
+    public static ReferenceIndex load(File file) throws IOException {
+        final JsonNode root = new ObjectMapper().readTree(file);
+        if (root == null || root.path("format").asInt() != FORMAT || !root.path("files").isObject()) {
+            throw new IOException("Invalid reference index " + file);
+        }
+
+        final ReferenceIndex index = new ReferenceIndex();
+        for (Iterator<Map.Entry<String, JsonNode>> it = root.get("files").fields(); it.hasNext();) {
+            final Map.Entry<String, JsonNode> entry = it.next();
+            final IPath source = Path.fromPortableString(entry.getKey());
+
+            final List<String> declarations = new ArrayList<>();
+            for (JsonNode pointer : entry.getValue().path("declarations")) {
+                declarations.add(pointer.asText());
+            }
+
+            final List<ReferenceEdge> references = new ArrayList<>();
+            for (JsonNode reference : entry.getValue().path("references")) {
+                if (reference.size() != 6) {
+                    throw new IOException("Invalid reference index " + file);
+                }
+                references.add(new ReferenceEdge(source, reference.get(0).asText(), Path.fromPortableString(reference
+                        .get(1).asText()), reference.get(2).asText(), reference.get(3).asInt(), reference.get(4)
+                        .asInt(), reference.get(5).asInt()));
+            }
+
+            index.put(source, entry.getValue().path("stamp").asLong(IResource.NULL_STAMP), references, declarations);
+        }
+        return index;
+    }
+
+    private static class Entry {
+        final long stamp;
+        final List<ReferenceEdge> references;
+        final Set<String> declarations;
+
+        Entry(long stamp, List<ReferenceEdge> references, Set<String> declarations) {
+            this.stamp = stamp;
+            this.references = references;
+            this.declarations = declarations;
+        }
+    }
+
+}
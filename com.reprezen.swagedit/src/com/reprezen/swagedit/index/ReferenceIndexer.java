@@ -0,0 +1,430 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.dadacoalition.yedit.YEditLog;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.IResourceProxy;
+import org.eclipse.core.resources.IResourceProxyVisitor;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import com.google.common.io.CharStreams;
+import com.reprezen.swagedit.Activator;
+import com.reprezen.swagedit.builder.SwaggerBuilder;
+import com.reprezen.swagedit.json.references.JsonReference;
+import com.reprezen.swagedit.json.references.JsonReferenceFactory;
+import com.reprezen.swagedit.model.AbstractNode;
+import com.reprezen.swagedit.model.Location;
+import com.reprezen.swagedit.model.Model;
+import com.reprezen.swagedit.utils.DocumentUtils;
+import com.reprezen.swagedit.validation.ValidationPool;
+
+/**
+ * Keeps a {@link ReferenceIndex} of the Swagger files of the workspace up to date.
+ *
+ * <br/>
+ *
+ * The indexer listens to the changes of the workspace and, in a background job, indexes the Swagger files that have
+ * been added or modified and removes those that have been deleted. A file whose modification stamp is the stamp of its
+ * indexed content is not parsed again, so that once the index saved by a previous session is loaded, only the files
+ * modified since then are parsed. Files are parsed in parallel on the {@link ValidationPool} and the index is saved
+ * after each run of the job.
+ */
+public class ReferenceIndexer implements IResourceChangeListener {
+
+    /**
+     * Delay in milliseconds between a change of the workspace and the update of the index.
+     */
+    public static final long DELAY = 500;
+
+    private final File file;
+    private final ReferenceIndex index;
+    private final JsonReferenceFactory factory = new JsonReferenceFactory();
+    private final Job job = new IndexJob();
+
+    // files to index, and whether all files of the workspace should be checked
+    private final Set<IFile> pending = new LinkedHashSet<>();
+    private boolean scan = false;
+    private final AtomicBoolean modified = new AtomicBoolean();
+
+    /**
+     * Creates an indexer whose index is saved in the given file, the index saved by a previous session is loaded.
+     *
+     * @param file
+     */
+    public ReferenceIndexer(File file) {
+        this.file = file;
+        this.index = load(file);
+    }
+
+    public ReferenceIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Starts listening to the changes of the workspace, and checks all files of the workspace.
+     */
+    public void start() {
+        ResourcesPlugin.getWorkspace().addResourceChangeListener(this, IResourceChangeEvent.POST_CHANGE);
+        synchronized (pending) {
+            scan = true;
+        }
+        job.schedule();
+    }
+
+    /**
+     * Stops listening to the changes of the workspace and saves the index.
+     */
+    public void stop() {
+        ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
+        job.cancel();
+        try {
+            job.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        save();
+    }
+
+    /**
+     * Returns true while changes of the workspace remain to be indexed.
+     *
+     * @return true if indexing
+     */
+    public boolean isIndexing() {
+        return job.getState() != Job.NONE;
+    }
+
+    /**
+     * Waits until the changes of the workspace have been indexed.
+     *
+     * @throws InterruptedException
+     */
+    public void join() throws InterruptedException {
+        job.join();
+    }
+
+    /**
+     * Indexes the model of a file that has already been parsed, for example by a validation.
+     *
+     * @param file
+     * @param stamp
+     *            modification stamp of the parsed content
+     * @param model
+     */
+    public void index(IFile file, long stamp, Model model) {
+        final IPath path = file.getFullPath();
+        if (index.getStamp(path) != stamp) {
+            index.put(path, stamp, collect(path, file.getLocationURI(), model, factory), declarations(model));
+            modified.set(true);
+        }
+    }
+
+    @Override
+    public void resourceChanged(IResourceChangeEvent event) {
+        if (event.getDelta() == null) {
+            return;
+        }
+
+        final Set<IFile> files = new LinkedHashSet<>();
+        final AtomicBoolean projects = new AtomicBoolean();
+        try {
+            event.getDelta().accept(new IResourceDeltaVisitor() {
+                @Override
+                public boolean visit(IResourceDelta delta) {
+                    final IResource resource = delta.getResource();
+                    final boolean opened = (delta.getFlags() & IResourceDelta.OPEN) != 0;
+                    if (resource.getType() == IResource.PROJECT
+                            && (delta.getKind() == IResourceDelta.REMOVED || opened)) {
+                        // files of closed, opened or deleted projects
+                        projects.set(true);
+                        return false;
+                    }
+                    if (resource.getType() != IResource.FILE) {
+                        return true;
+                    }
+                    if (delta.getKind() != IResourceDelta.CHANGED
+                            || (delta.getFlags() & (IResourceDelta.CONTENT | IResourceDelta.REPLACED
+                                    | IResourceDelta.ENCODING)) != 0) {
+                        files.add((IFile) resource);
+                    }
+                    return false;
+                }
+            });
+        } catch (CoreException e) {
+            YEditLog.logException(e);
+            projects.set(true);
+        }
+
+        if (!files.isEmpty() || projects.get()) {
+            synchronized (pending) {
+                pending.addAll(files);
+                scan |= projects.get();
+            }
+            job.schedule(DELAY);
+        }
+    }
+
+    /**
+     * Returns the references of the model of a file to nodes of the same file or of other files of the workspace.
+     * References that are invalid or that target documents outside of the workspace are ignored.
+     *
+     * @param path
+     *            full path of the file
+     * @param baseURI
+     *            location of the file
+     * @param model
+     * @param factory
+     * @return references
+     */
+    public static List<ReferenceEdge> collect(IPath path, URI baseURI, Model model, JsonReferenceFactory factory) {
+        final List<ReferenceEdge> references = new ArrayList<>();
+        for (AbstractNode node : model.allNodes()) {
+            if (!JsonReference.isReference(node)) {
+                continue;
+            }
+
+            final AbstractNode value = node.get(JsonReference.PROPERTY);
+            JsonReference reference = factory.createSimpleReference(baseURI, value);
+            if (reference == null) {
+                reference = factory.create(node);
+            }
+            if (reference == null || reference.isInvalid() || value.getStart() == null || value.getEnd() == null) {
+                continue;
+            }
+
+            final IPath target = reference.isLocal() ? path : getWorkspacePath(reference.resolveURI(baseURI));
+            if (target != null) {
+                final Location start = value.getStart();
+                references.add(new ReferenceEdge(path, node.getPointerString(), target, reference.getPointer()
+                        .toString(), start.getLine() + 1, start.getOffset(), value.getEnd().getOffset()
+                        - start.getOffset()));
+            }
+        }
+        return references;
+    }
+
+    /**
+     * Returns the pointers of the nodes of the model that are kept by the index.
+     *
+     * @param model
+     * @return pointers
+     * @see ReferenceIndex#DECLARATION_DEPTH
+     */
+    public static Set<String> declarations(Model model) {
+        final Set<String> pointers = new LinkedHashSet<>();
+        for (AbstractNode node : model.allNodes()) {
+            final String pointer = node.getPointerString();
+            if (ReferenceIndex.isDeclaration(pointer)) {
+                pointers.add(pointer);
+            }
+        }
+        return pointers;
+    }
+
+    private static IPath getWorkspacePath(URI uri) {
+        if (uri == null || !uri.isAbsolute() || uri.getPath() == null) {
+            return null;
+        }
+        try {
+            final IFile file = DocumentUtils.getWorkspaceFile(uri);
+            return file != null ? file.getFullPath() : null;
+        } catch (IllegalStateException e) {
+            // no workspace
+            return null;
+        }
+    }
+
+    private static ReferenceIndex load(File file) {
+        if (file.exists()) {
+            try {
+                return ReferenceIndex.load(file);
+            } catch (IOException e) {
+                // the files are indexed again
+                YEditLog.logException(e);
+            }
+        }
+        return new ReferenceIndex();
+    }
+
+    private void save() {
+        if (modified.getAndSet(false)) {
+            try {
+                index.save(file);
+            } catch (IOException e) {
+                YEditLog.logException(e);
+            }
+        }
+    }
+
+    /*
+     * Job that indexes the pending files.
+     */
+    private class IndexJob extends Job {
+
+        IndexJob() {
+            super("Index Swagger references");
+            setSystem(true);
+            setPriority(Job.DECORATE);
+        }
+
+        @Override
+        protected IStatus run(IProgressMonitor monitor) {
+            final List<IFile> files;
+            final boolean all;
+            synchronized (pending) {
+                files = new ArrayList<>(pending);
+                all = scan;
+                pending.clear();
+                scan = false;
+            }
+
+            try {
+                if (all) {
+                    files.addAll(scan());
+                }
+                index(files, monitor);
+                return Status.OK_STATUS;
+            } catch (OperationCanceledException e) {
+                synchronized (pending) {
+                    pending.addAll(files);
+                    scan |= all;
+                }
+                return Status.CANCEL_STATUS;
+            } catch (CoreException e) {
+                YEditLog.logException(e);
+                return Status.OK_STATUS;
+            } finally {
+                save();
+                monitor.done();
+            }
+        }
+
+        /*
+         * Removes the files that no longer exist from the index, and returns the Swagger files of the workspace.
+         */
+        private Collection<IFile> scan() throws CoreException {
+            final IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+            final Set<IFile> files = new LinkedHashSet<>();
+            root.accept(new IResourceProxyVisitor() {
+                @Override
+                public boolean visit(IResourceProxy proxy) {
+                    if (proxy.getType() == IResource.FILE) {
+                        final IFile file = (IFile) proxy.requestResource();
+                        if (SwaggerBuilder.isSwaggerFile(file)) {
+                            files.add(file);
+                        }
+                    }
+                    return true;
+                }
+            }, IResource.NONE);
+
+            for (IPath path : index.getFiles()) {
+                if (!files.contains(root.getFile(path))) {
+                    index.remove(path);
+                    modified.set(true);
+                }
+            }
+            return files;
+        }
+
+        /*
+         * Indexes the files in parallel, one batch at a time. Files are removed from the list once indexed.
+         */
+        private void index(List<IFile> files, IProgressMonitor monitor) {
+            final int size = 4 * ValidationPool.getParallelism();
+            while (!files.isEmpty()) {
+                if (monitor.isCanceled()) {
+                    throw new OperationCanceledException();
+                }
+
+                final List<IFile> batch = files.subList(0, Math.min(size, files.size()));
+                final List<Callable<Void>> tasks = new ArrayList<>();
+                for (final IFile file : batch) {
+                    tasks.add(new Callable<Void>() {
+                        @Override
+                        public Void call() {
+                            update(file);
+                            return null;
+                        }
+                    });
+                }
+                ValidationPool.invokeAll(tasks);
+                batch.clear();
+            }
+        }
+
+        /*
+         * Indexes the file again if it has been modified since it was indexed, or removes it if it no longer exists.
+         */
+        private void update(IFile file) {
+            final IPath path = file.getFullPath();
+            if (!file.exists() || !SwaggerBuilder.isSwaggerFile(file)) {
+                if (index.getStamp(path) != IResource.NULL_STAMP) {
+                    index.remove(path);
+                    modified.set(true);
+                }
+                return;
+            }
+
+            final long stamp = file.getModificationStamp();
+            if (stamp == index.getStamp(path)) {
+                return;
+            }
+
+            final Model model;
+            try (InputStream contents = file.getContents(true)) {
+                model = Model.parseYaml(Activator.getDefault().getSchema(), CharStreams.toString(new InputStreamReader(
+                        contents, file.getCharset())));
+            } catch (CoreException | IOException | RuntimeException e) {
+                // references to the file are resolved by reading it
+                index.remove(path);
+                modified.set(true);
+                return;
+            }
+
+            try {
+                ReferenceIndexer.this.index(file, stamp, model);
+            } catch (RuntimeException e) {
+                YEditLog.logException(e);
+                index.remove(path);
+                modified.set(true);
+            }
+        }
+    }
+
+}
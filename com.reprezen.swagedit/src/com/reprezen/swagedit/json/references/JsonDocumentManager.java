@@ -10,25 +10,58 @@
  *******************************************************************************/
 package com.reprezen.swagedit.json.references;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
-import java.util.Collections;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.runtime.CoreException;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.reprezen.swagedit.index.ReferenceIndex;
 import com.reprezen.swagedit.utils.DocumentUtils;
 
 /**
- * JsonDocumentManager
+ * Loads and caches the JSON representation of the documents referenced by other documents.
+ *
+ * <br/>
+ *
+ * The cache is bounded by an estimate of the memory used by the documents, the least recently used documents are
+ * evicted first. A document read from a file is read again once the file has been modified, and documents of workspace
+ * files are discarded as soon as the files change when the manager is registered as a resource change listener.
+ * Concurrent requests for a document that is not in the cache wait for a single read of the document.
  */
-public class JsonDocumentManager {
+public class JsonDocumentManager implements IResourceChangeListener {
+
+    /**
+     * Default estimate, in bytes, of the memory used by the cached documents.
+     */
+    public static final long DEFAULT_MAX_WEIGHT = 32 * 1024 * 1024;
+
+    // estimates of the memory used by a node and by a field of an object
+    private static final int NODE_WEIGHT = 24;
+    private static final int FIELD_WEIGHT = 48;
 
     private static final JsonDocumentManager INSTANCE = new JsonDocumentManager();
 
@@ -38,12 +71,33 @@ public class JsonDocumentManager {
 
     // for tests
     public JsonDocumentManager() {
+        this(DEFAULT_MAX_WEIGHT);
+    }
+
+    /**
+     * Creates a manager that keeps documents up to the given estimate of memory.
+     *
+     * @param maxWeight
+     *            in bytes
+     */
+    public JsonDocumentManager(long maxWeight) {
+        this.documents = CacheBuilder.newBuilder() //
+                .maximumWeight(maxWeight) //
+                .weigher(new Weigher<String, Entry>() {
+                    @Override
+                    public int weigh(String key, Entry entry) {
+                        return entry.weight;
+                    }
+                }) //
+                .recordStats() //
+                .build();
     }
 
     private final ObjectMapper mapper = new ObjectMapper();
     private final ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
 
-    private final Map<URL, JsonNode> documents = Collections.synchronizedMap(new WeakHashMap<URL, JsonNode>());
+    private final Cache<String, Entry> documents;
+    private volatile ReferenceIndex index;
 
     /**
      * Returns the JSON representation of the document located at the given URL. If the document is not found or the
@@ -53,10 +107,137 @@ public class JsonDocumentManager {
      *            of the document
      * @return JSON tree
      */
-    public JsonNode getDocument(URL url) {
-        if (documents.containsKey(url)) {
-            return documents.get(url);
+    public JsonNode getDocument(final URL url) {
+        final String key = key(url);
+
+        // the document is read again if its file has been modified
+        final Entry cached = documents.asMap().get(key);
+        if (cached != null && cached.isModified()) {
+            documents.asMap().remove(key, cached);
+        }
+
+        try {
+            return documents.get(key, new Callable<Entry>() {
+                @Override
+                public Entry call() throws IOException {
+                    return load(url);
+                }
+            }).document;
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            // documents that cannot be read are not cached
+            return null;
+        }
+    }
+
+    public JsonNode getDocument(URI uri) {
+        final IFile file = getFile(uri);
+        if (file == null || !file.exists()) {
+            return null;
+        }
+
+        try {
+            return getDocument(uri.toURL());
+        } catch (MalformedURLException e) {
+            return null;
         }
+    }
+
+    /**
+     * Returns the file located at the given URI if present in the workspace. Returns null otherwise.
+     * 
+     * @param uri
+     *            - workspace file URI
+     * @return file
+     */
+    public IFile getFile(URI uri) {
+        return uri != null ? DocumentUtils.getWorkspaceFile(uri) : null;
+    }
+
+    /**
+     * Returns the index of the documents of the workspace, or null if there is none.
+     *
+     * @return index
+     */
+    public ReferenceIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Sets the index that tells whether the documents of the workspace contain the nodes targeted by references,
+     * without reading the documents.
+     *
+     * @param index
+     *            or null
+     */
+    public void setIndex(ReferenceIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * Discards the document located at the given URI, it is read again the next time it is requested.
+     *
+     * @param uri
+     */
+    public void invalidate(URI uri) {
+        try {
+            documents.invalidate(key(uri.toURL()));
+        } catch (MalformedURLException | IllegalArgumentException e) {
+            // not a document
+        }
+    }
+
+    /**
+     * Discards all documents.
+     */
+    public void invalidateAll() {
+        documents.invalidateAll();
+    }
+
+    /**
+     * Returns the statistics of the cache: hits, misses, loads and evictions of documents.
+     *
+     * @return statistics
+     */
+    public CacheStats getStats() {
+        return documents.stats();
+    }
+
+    /**
+     * Discards the documents of the workspace files that have been modified or removed.
+     */
+    @Override
+    public void resourceChanged(IResourceChangeEvent event) {
+        if (event.getDelta() == null || documents.size() == 0) {
+            return;
+        }
+
+        try {
+            event.getDelta().accept(new IResourceDeltaVisitor() {
+                @Override
+                public boolean visit(IResourceDelta delta) {
+                    if (delta.getResource().getType() != IResource.FILE) {
+                        return true;
+                    }
+
+                    final boolean changed = delta.getKind() == IResourceDelta.CHANGED
+                            && (delta.getFlags() & (IResourceDelta.CONTENT | IResourceDelta.REPLACED)) != 0;
+                    if ((changed || delta.getKind() == IResourceDelta.REMOVED)
+                            && delta.getResource().getLocationURI() != null) {
+                        invalidate(delta.getResource().getLocationURI());
+                    }
+                    return false;
+                }
+            });
+        } catch (CoreException e) {
+            invalidateAll();
+        }
+    }
+
+    private Entry load(URL url) throws IOException {
+        // the state of the file is read first, a modification during the read is found on the next request
+        final File file = toFile(url);
+        final long lastModified = file != null ? file.lastModified() : 0;
+        final long length = file != null ? file.length() : 0;
 
         JsonNode document;
         if (url.getFile().endsWith("json")) {
@@ -84,34 +265,86 @@ public class JsonDocumentManager {
             }
         }
 
-        if (document != null) {
-            documents.put(url, document);
+        if (document == null) {
+            throw new IOException("Cannot read document " + url);
         }
-        return document;
+        return new Entry(document, file, lastModified, length);
     }
 
-    public JsonNode getDocument(URI uri) {
-        final IFile file = getFile(uri);
-        if (file == null || !file.exists()) {
+    /*
+     * Documents are identified by their URL without fragment.
+     */
+    private static String key(URL url) {
+        final String form = url.toExternalForm();
+        final int fragment = form.indexOf('#');
+        return fragment < 0 ? form : form.substring(0, fragment);
+    }
+
+    private static File toFile(URL url) {
+        if (!"file".equalsIgnoreCase(url.getProtocol())) {
             return null;
         }
-
         try {
-            return getDocument(uri.toURL());
-        } catch (MalformedURLException e) {
+            return new File(new URI(key(url)));
+        } catch (URISyntaxException e) {
+            // the path of the URL is not encoded
+            return new File(url.getPath());
+        } catch (IllegalArgumentException e) {
             return null;
         }
     }
 
     /**
-     * Returns the file located at the given URI if present in the workspace. Returns null otherwise.
-     * 
-     * @param uri
-     *            - workspace file URI
-     * @return file
+     * Returns an estimate, in bytes, of the memory used by the tree.
+     *
+     * @param document
+     * @return weight
      */
-    public IFile getFile(URI uri) {
-        return uri != null ? DocumentUtils.getWorkspaceFile(uri) : null;
+    public static int weigh(JsonNode document) {
+        long weight = 0;
+        final Deque<JsonNode> nodes = new ArrayDeque<>();
+        nodes.push(document);
+
+        while (!nodes.isEmpty()) {
+            final JsonNode node = nodes.pop();
+            weight += NODE_WEIGHT;
+
+            if (node.isObject()) {
+                for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext();) {
+                    final Map.Entry<String, JsonNode> field = it.next();
+                    weight += FIELD_WEIGHT + 2 * field.getKey().length();
+                    nodes.push(field.getValue());
+                }
+            } else if (node.isArray()) {
+                for (JsonNode element : node) {
+                    nodes.push(element);
+                }
+            } else if (node.isTextual()) {
+                weight += 2 * node.textValue().length();
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, weight);
+    }
+
+    private static class Entry {
+        final JsonNode document;
+        final int weight;
+        // state of the file the document has been read from, if any
+        final File file;
+        final long lastModified;
+        final long length;
+
+        Entry(JsonNode document, File file, long lastModified, long length) {
+            this.document = document;
+            this.weight = weigh(document);
+            this.file = file;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        boolean isModified() {
+            return file != null && (file.lastModified() != lastModified || file.length() != length);
+        }
     }
 
 }
@@ -12,6 +12,7 @@ package com.reprezen.swagedit.json.references;
 
 import java.net.URI;
 
+import org.eclipse.core.resources.IFile;
 import org.yaml.snakeyaml.nodes.NodeId;
 import org.yaml.snakeyaml.nodes.NodeTuple;
 import org.yaml.snakeyaml.nodes.ScalarNode;
@@ -20,6 +21,7 @@ import com.fasterxml.jackson.core.JsonPointer;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.base.Strings;
 import com.reprezen.swagedit.editor.SwaggerDocument;
+import com.reprezen.swagedit.index.ReferenceIndex;
 import com.reprezen.swagedit.model.AbstractNode;
 import com.reprezen.swagedit.model.ObjectNode;
 import com.reprezen.swagedit.model.ValueNode;
@@ -90,10 +92,30 @@ public class JsonReference {
             return false;
         }
 
+        if (!isLocal()) {
+            // the index knows the nodes of the documents of the workspace without reading them
+            final Boolean contains = containsIndexed(resolveURI(baseURI));
+            if (contains != null) {
+                return !contains;
+            }
+        }
+
         JsonNode resolved = resolve(document, baseURI);
         return resolved == null || resolved.isMissingNode();
     }
 
+    /*
+     * Returns whether the indexed document contains the node of the pointer, or null if the index cannot tell.
+     */
+    private Boolean containsIndexed(URI uri) {
+        final ReferenceIndex index = manager.getIndex();
+        final IFile file = index != null && uri != null ? manager.getFile(uri) : null;
+        if (file == null || !file.exists()) {
+            return null;
+        }
+        return index.contains(file.getFullPath(), file.getModificationStamp(), pointer.toString());
+    }
+
     /**
      * Returns the node that is referenced by this reference.
      * 
@@ -125,7 +147,13 @@ public class JsonReference {
         return resolved;
     }
 
-    protected URI resolveURI(URI baseURI) {
+    /**
+     * Returns the URI of the reference resolved against the base URI, unless the reference is absolute.
+     * 
+     * @param baseURI
+     * @return resolved URI
+     */
+    public URI resolveURI(URI baseURI) {
         if (baseURI == null || absolute) {
             return getUri();
         } else {
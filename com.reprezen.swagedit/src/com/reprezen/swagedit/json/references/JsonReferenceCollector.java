@@ -13,6 +13,8 @@ package com.reprezen.swagedit.json.references;
 import static com.reprezen.swagedit.json.references.JsonReference.PROPERTY;
 
 import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 import com.google.common.collect.Sets;
@@ -58,4 +60,32 @@ public class JsonReferenceCollector {
         return references;
     }
 
+    /**
+     * Returns the locations of the other documents referenced by the document, without fragments. Locations that
+     * cannot be resolved into an absolute URI are ignored.
+     * 
+     * @param baseURI
+     * @param model
+     * @return referenced documents
+     */
+    public Set<URI> collectDocuments(URI baseURI, Model model) {
+        final Set<URI> documents = new LinkedHashSet<>();
+
+        for (JsonReference reference : collect(baseURI, model)) {
+            if (reference.isInvalid() || reference.isLocal()) {
+                continue;
+            }
+            final URI uri = reference.resolveURI(baseURI);
+            if (uri != null && uri.isAbsolute()) {
+                try {
+                    documents.add(new URI(uri.getScheme(), uri.getSchemeSpecificPart(), null));
+                } catch (URISyntaxException e) {
+                    // ignore the reference
+                }
+            }
+        }
+
+        return documents;
+    }
+
 }
@@ -32,6 +32,21 @@ import com.reprezen.swagedit.utils.URLUtils;
  */
 public class JsonReferenceFactory {
 
+    private final JsonDocumentManager manager;
+
+    public JsonReferenceFactory() {
+        this(JsonDocumentManager.getInstance());
+    }
+
+    /**
+     * Creates a factory whose references load the documents they refer to with the given manager.
+     * 
+     * @param manager
+     */
+    public JsonReferenceFactory(JsonDocumentManager manager) {
+        this.manager = manager;
+    }
+
     public JsonReference create(AbstractNode node) {
         if (node == null) {
             return new JsonReference(null, null, false, false, false, node);
@@ -89,7 +104,7 @@ public class JsonReferenceFactory {
             JsonPointer ptr = JsonPointer.compile("/definitions/" + value);
             AbstractNode target = model.find(ptr);
             if (target != null) {
-                return new JsonReference.SimpleReference(baseURI, ptr, valueNode);
+                return configure(new JsonReference.SimpleReference(baseURI, ptr, valueNode));
             }
         }
 
@@ -125,7 +140,12 @@ public class JsonReferenceFactory {
         // should warn when using curly braces
         boolean warnings = notNull.contains("{") || uri.toString().contains("}");
 
-        return new JsonReference(uri, pointer, absolute, local, warnings, source);
+        return configure(new JsonReference(uri, pointer, absolute, local, warnings, source));
+    }
+
+    private JsonReference configure(JsonReference reference) {
+        reference.setDocumentManager(manager);
+        return reference;
     }
 
 }
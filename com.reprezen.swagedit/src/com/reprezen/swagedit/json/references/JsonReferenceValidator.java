@@ -14,14 +14,18 @@ import static org.eclipse.core.resources.IMarker.SEVERITY_ERROR;
 import static org.eclipse.core.resources.IMarker.SEVERITY_WARNING;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import com.google.common.collect.Sets;
 import com.reprezen.swagedit.Messages;
 import com.reprezen.swagedit.editor.SwaggerDocument;
 import com.reprezen.swagedit.model.AbstractNode;
 import com.reprezen.swagedit.validation.SwaggerError;
+import com.reprezen.swagedit.validation.ValidationPool;
 
 /**
  * JSON Reference Validator
@@ -45,33 +49,78 @@ public class JsonReferenceValidator {
         return doValidate(baseURI, doc, collector.collect(baseURI, doc.getModel()));
     }
 
-    protected Collection<? extends SwaggerError> doValidate(URI baseURI, SwaggerDocument doc,
+    /**
+     * Returns the errors of the references to other documents, which may need to be loaded, or of the other
+     * references.
+     * 
+     * @param baseURI
+     * @param doc
+     * @param external
+     *            true to validate only the references to other documents, false to validate only the other references
+     * @return collection of errors
+     */
+    public Collection<? extends SwaggerError> validate(URI baseURI, SwaggerDocument doc, boolean external) {
+        final List<JsonReference> references = new ArrayList<>();
+        for (JsonReference reference : collector.collect(baseURI, doc.getModel())) {
+            if (external == (!reference.isInvalid() && !reference.isLocal())) {
+                references.add(reference);
+            }
+        }
+        return doValidate(baseURI, doc, references);
+    }
+
+    protected Collection<? extends SwaggerError> doValidate(final URI baseURI, final SwaggerDocument doc,
             Iterable<JsonReference> references) {
+        // references to other documents may need to be loaded, so references are checked in parallel
+        final List<Callable<SwaggerError>> checks = new ArrayList<>();
+        for (final JsonReference reference : references) {
+            checks.add(new Callable<SwaggerError>() {
+                @Override
+                public SwaggerError call() {
+                    return validate(baseURI, doc, reference);
+                }
+            });
+        }
+
         Set<SwaggerError> errors = Sets.newHashSet();
-        for (JsonReference reference : references) {
-            if (reference instanceof JsonReference.SimpleReference) {
-                errors.add(createReferenceError(SEVERITY_WARNING, Messages.warning_simple_reference, reference));
-            } else if (reference.isInvalid()) {
-                errors.add(createReferenceError(SEVERITY_ERROR, Messages.error_invalid_reference, reference));
-            } else if (reference.isMissing(doc, baseURI)) {
-                errors.add(createReferenceError(SEVERITY_WARNING, Messages.error_missing_reference, reference));
-            } else if (reference.containsWarning()) {
-                errors.add(createReferenceError(SEVERITY_WARNING, Messages.error_invalid_reference, reference));
+        for (SwaggerError error : ValidationPool.invokeAll(checks)) {
+            if (error != null) {
+                errors.add(error);
             }
         }
         return errors;
     }
 
+    /**
+     * Returns the error of an invalid reference, or null if the reference is valid.
+     * 
+     * @param baseURI
+     * @param doc
+     * @param reference
+     * @return error or null
+     */
+    protected SwaggerError validate(URI baseURI, SwaggerDocument doc, JsonReference reference) {
+        if (reference instanceof JsonReference.SimpleReference) {
+            return createReferenceError(SEVERITY_WARNING, Messages.warning_simple_reference, reference);
+        } else if (reference.isInvalid()) {
+            return createReferenceError(SEVERITY_ERROR, Messages.error_invalid_reference, reference);
+        } else if (reference.isMissing(doc, baseURI)) {
+            return createReferenceError(SEVERITY_WARNING, Messages.error_missing_reference, reference);
+        } else if (reference.containsWarning()) {
+            return createReferenceError(SEVERITY_WARNING, Messages.error_invalid_reference, reference);
+        }
+        return null;
+    }
+
     protected SwaggerError createReferenceError(int severity, String message, JsonReference reference) {
         Object source = reference.getSource();
-        int line;
         if (source instanceof AbstractNode) {
-            line = ((AbstractNode) source).getStart().getLine() + 1;
-        } else {
-            line = 1;
+            AbstractNode node = (AbstractNode) source;
+            return new SwaggerError(node.getStart().getLine() + 1, severity, message).setRange(node.getStart()
+                    .getOffset(), node.getEnd().getOffset());
         }
 
-        return new SwaggerError(line, severity, message);
+        return new SwaggerError(1, severity, message);
     }
 
 }
@@ -10,7 +10,10 @@
  *******************************************************************************/
 package com.reprezen.swagedit.model;
 
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 import org.eclipse.jface.text.BadLocationException;
@@ -18,7 +21,6 @@ import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.Position;
 
 import com.fasterxml.jackson.core.JsonPointer;
-import com.google.common.collect.Iterables;
 import com.reprezen.swagedit.schema.TypeDefinition;
 
 /**
@@ -28,6 +30,12 @@ import com.reprezen.swagedit.schema.TypeDefinition;
  * 
  * Nodes can be either Values, Objects or Arrays. They can contain other elements or simply a value. They contain also
  * information about their location inside a document. A node can be given a type from a JSON schema.
+ * 
+ * <br/>
+ * 
+ * A node is a view of an immutable {@link NodeContent} that belongs to a single model, it provides the parent, the
+ * pointer and the absolute locations that the content, shared between the models of successive versions of a
+ * document, does not hold. The nodes of the elements are created on first access.
  *
  */
 public abstract class AbstractNode {
@@ -35,16 +43,50 @@ public abstract class AbstractNode {
     private final Model model;
     private final JsonPointer pointer;
     private final AbstractNode parent;
+    private final String property;
+    final NodeContent content;
+    private final Location start;
+    private final Location end;
+    // guarded by this
+    private AbstractNode[] elements;
+    private List<AbstractNode> shadowed;
 
-    private String property;
     private TypeDefinition type;
-    private Location start;
-    private Location end;
+    // type reached by following the pointer segments in the schema, and whether all segments could be followed
+    private TypeDefinition pathType;
+    private boolean pathComplete;
+    private volatile boolean typeResolved;
 
-    AbstractNode(Model model, AbstractNode parent, JsonPointer ptr) {
+    /**
+     * Creates the view of a content that starts at the given line and offset.
+     */
+    AbstractNode(Model model, AbstractNode parent, JsonPointer ptr, String property, NodeContent content, int line,
+            int offset) {
         this.model = model;
         this.parent = parent;
         this.pointer = ptr;
+        this.property = property;
+        this.content = content;
+        if (content.isLocated()) {
+            this.start = new Location(line, content.getColumn(), offset);
+            this.end = new Location(line + content.getEndLine(), content.getEndColumn(), offset
+                    + content.getEndOffset());
+        } else {
+            this.start = null;
+            this.end = null;
+        }
+    }
+
+    static AbstractNode create(Model model, AbstractNode parent, JsonPointer ptr, String property,
+            NodeContent content, int line, int offset) {
+        switch (content.getKind()) {
+        case OBJECT:
+            return new ObjectNode(model, parent, ptr, property, content, line, offset);
+        case ARRAY:
+            return new ArrayNode(model, parent, ptr, property, content, line, offset);
+        default:
+            return new ValueNode(model, parent, ptr, property, content, line, offset);
+        }
     }
 
     public Model getModel() {
@@ -71,6 +113,45 @@ public abstract class AbstractNode {
         return null;
     }
 
+    /*
+     * Returns the node of the element at the given index, creating it on first access.
+     */
+    synchronized AbstractNode element(int index) {
+        if (elements == null) {
+            elements = new AbstractNode[content.size()];
+        }
+
+        AbstractNode element = elements[index];
+        if (element == null) {
+            final String name = content.getProperty(index);
+            final JsonPointer ptr = name != null ? ModelPointer.child(pointer, name) : ModelPointer
+                    .item(pointer, index);
+            final int line = start != null ? start.getLine() : 0;
+            final int offset = start != null ? start.getOffset() : 0;
+
+            elements[index] = element = create(model, this, ptr, name, content.get(index),
+                    line + content.getLine(index), offset + content.getOffset(index));
+        }
+        return element;
+    }
+
+    /*
+     * Returns the nodes of the entries replaced by entries with the same key in the mapping of this node. They are not
+     * elements of this node, but their elements remain nodes of the model.
+     */
+    synchronized List<AbstractNode> shadowed() {
+        final NodeContent entries = content.getShadowed();
+        if (shadowed == null && entries != null) {
+            shadowed = new ArrayList<>(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                shadowed.add(create(model, this, ModelPointer.child(pointer, entries.getProperty(i)),
+                        entries.getProperty(i), entries.get(i), start.getLine() + entries.getLine(i),
+                        start.getOffset() + entries.getOffset(i)));
+            }
+        }
+        return shadowed != null ? shadowed : Collections.<AbstractNode> emptyList();
+    }
+
     /**
      * Returns true if the node is an object.
      * 
@@ -116,12 +197,58 @@ public abstract class AbstractNode {
 
     public void setType(TypeDefinition type) {
         this.type = type;
+        this.pathType = type;
+        this.pathComplete = type != null;
+        this.typeResolved = true;
     }
 
+    /**
+     * Returns the type of this node from the schema. <br/>
+     * 
+     * The type is resolved on the first call from the type of the parent node and the property of this node.
+     * 
+     * @return type or null
+     */
     public TypeDefinition getType() {
+        if (!typeResolved) {
+            resolveType();
+        }
         return type;
     }
 
+    /*
+     * Resolves the type the same way as SwaggerSchema#getType(AbstractNode), but starts from the parent type instead of
+     * walking down the schema from the root.
+     */
+    private void resolveType() {
+        if (parent == null || pointer == null) {
+            type = pointer != null ? model.getSchema().getType(this) : null;
+            pathType = type;
+            pathComplete = type != null;
+        } else {
+            parent.getType();
+
+            final String ptr = pointer.toString();
+            final String segment = ptr.substring(ptr.lastIndexOf('/') + 1);
+
+            TypeDefinition current = parent.pathType;
+            boolean complete = parent.pathComplete;
+            if (complete) {
+                TypeDefinition next = current.getPropertyType(segment);
+                if (next != null) {
+                    current = next;
+                } else {
+                    complete = false;
+                }
+            }
+            pathType = current;
+            pathComplete = complete;
+            // trailing empty segments are ignored by the schema
+            type = segment.isEmpty() ? model.getSchema().getType(this) : current;
+        }
+        typeResolved = true;
+    }
+
     /**
      * Returns the parent node that contains this node, or null if the node is the root node.
      * 
@@ -135,17 +262,27 @@ public abstract class AbstractNode {
         return property;
     }
 
-    public void setProperty(String name) {
-        this.property = name;
-    }
-
     /**
      * Returns the children elements of this node.
      * 
      * @return node's children
      */
     public Iterable<AbstractNode> elements() {
-        return Collections.emptyList();
+        if (content.size() == 0) {
+            return Collections.emptyList();
+        }
+
+        return new AbstractList<AbstractNode>() {
+            @Override
+            public AbstractNode get(int index) {
+                return element(index);
+            }
+
+            @Override
+            public int size() {
+                return content.size();
+            }
+        };
     }
 
     /**
@@ -154,7 +291,18 @@ public abstract class AbstractNode {
      * @return size of children
      */
     public int size() {
-        return Iterables.size(elements());
+        return content.size();
+    }
+
+    /**
+     * Returns true if this node and the other one, possibly from different models, share the same content. Models
+     * built by updating a previous one share the content of the nodes that are not affected by the change.
+     * 
+     * @param other
+     * @return true if the content is shared
+     */
+    public boolean sharesContentWith(AbstractNode other) {
+        return other != null && content == other.content;
     }
 
     public abstract String getText();
@@ -167,6 +315,11 @@ public abstract class AbstractNode {
      * @return position inside the document
      */
     public Position getPosition(IDocument document) {
+        final Position position = getPosition();
+        if (position != null && position.getOffset() + position.getLength() <= document.getLength()) {
+            return position;
+        }
+
         int startLine = getStart().getLine();
         int offset = 0;
         int length = 0;
@@ -183,12 +336,20 @@ public abstract class AbstractNode {
         return new Position(Math.max(0, offset), length);
     }
 
-    public void setStartLocation(Location start) {
-        this.start = start;
-    }
+    /**
+     * Returns the position of the node computed from the offsets of its start and end locations, or null if the
+     * offsets are not known. <br/>
+     * The position starts at the beginning of the line that contains the start of the node.
+     * 
+     * @return position inside the content of the model
+     */
+    public Position getPosition() {
+        if (getStart() == null || getEnd() == null || getStart().getOffset() < 0 || getEnd().getOffset() < 0) {
+            return null;
+        }
 
-    public void setEndLocation(Location location) {
-        this.end = location;
+        int offset = Math.max(0, getStart().getOffset() - getStart().getColumn());
+        return new Position(offset, Math.max(0, getEnd().getOffset() - offset));
     }
 
     /**
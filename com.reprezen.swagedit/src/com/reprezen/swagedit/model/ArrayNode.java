@@ -10,22 +10,19 @@
  *******************************************************************************/
 package com.reprezen.swagedit.model;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import com.fasterxml.jackson.core.JsonPointer;
+import com.google.common.collect.Lists;
 
 public class ArrayNode extends AbstractNode {
 
-    private final List<AbstractNode> elements = new ArrayList<>();
-
-    ArrayNode(Model model, AbstractNode parent, JsonPointer ptr) {
-        super(model, parent, ptr);
+    ArrayNode(Model model, AbstractNode parent, JsonPointer ptr, String property, NodeContent content, int line,
+            int offset) {
+        super(model, parent, ptr, property, content, line, offset);
     }
 
     @Override
     public AbstractNode get(int pos) {
-        return elements.get(pos);
+        return element(pos);
     }
 
     @Override
@@ -38,15 +35,6 @@ public class ArrayNode extends AbstractNode {
         return true;
     }
 
-    public void add(AbstractNode model) {
-        this.elements.add(model);
-    }
-
-    @Override
-    public Iterable<AbstractNode> elements() {
-        return elements;
-    }
-
     @Override
     public String getText() {
         return getProperty() == null ? "" : getProperty();
@@ -54,6 +42,6 @@ public class ArrayNode extends AbstractNode {
 
     @Override
     public String toString() {
-        return "[ " + elements + " ]";
+        return "[ " + Lists.newArrayList(elements()) + " ]";
     }
 }
\ No newline at end of file
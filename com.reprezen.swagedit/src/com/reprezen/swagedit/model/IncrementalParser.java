@@ -0,0 +1,367 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.model;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.Node;
+
+/**
+ * Parses again the smallest block entry of a previous result that contains a modified region of the content.
+ *
+ * <br/>
+ *
+ * An entry is either a key/value pair of a block mapping or an item of a block sequence, it extends from the beginning
+ * of its first line to the token that follows it. The entry is located in the previous model and parsed on its own,
+ * from the beginning of its first line so that its indentation is kept, and its nodes replace the previous ones in the
+ * new model. Only the contents of the collections that contain the entry are created again, the contents of the other
+ * nodes are shared with the previous model and the entries that follow are moved by the number of lines and characters
+ * added by the change, see {@link NodeContent}. The YAML node tree of the new result is composed when it is requested,
+ * see {@link ParseResult#getYaml()}.
+ */
+class IncrementalParser {
+
+    private final ParseResult previous;
+    private final String oldContent;
+    private final String content;
+    private final long stamp;
+    private final IProgressMonitor monitor;
+
+    // collections containing the entry, from the root to the parent of the entry
+    private final List<AbstractNode> containers = new ArrayList<>();
+    private final List<Integer> indexes = new ArrayList<>();
+
+    private int offset;
+    private int oldLength;
+    private int entryStart;
+    private int entryLine;
+    private int firstToken;
+    private Location next;
+    private int charShift;
+    private int lineShift;
+
+    IncrementalParser(ParseResult previous, String content, long stamp, IProgressMonitor monitor) {
+        this.previous = previous;
+        this.oldContent = previous.getContent();
+        this.content = content;
+        this.stamp = stamp;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Returns the new result, or null if the modified region is not contained in a single block entry or if the entry
+     * cannot be parsed on its own.
+     */
+    ParseResult parse(int offset, int oldLength, int newLength) {
+        if (!prepare(offset, oldLength, newLength)) {
+            return null;
+        }
+
+        final ModelComposer composer = new ModelComposer(monitor);
+        final Node slice;
+        try {
+            slice = composer.compose(new StringReader(getSlice()));
+        } catch (OperationCanceledException e) {
+            throw e;
+        } catch (Exception e) {
+            return null;
+        }
+
+        if (slice == null || composer.hasAnchors() || composer.hasMergeKeys() || composer.hasDuplicateKeys()) {
+            return null;
+        }
+
+        final AbstractNode parsed = composer.getModel(previous.getModel().getSchema(), null, null, null).getRoot();
+        if (!isValidSlice(parsed)) {
+            return null;
+        }
+
+        return ParseResult.updated(content, stamp, rebuild(parsed, null, null));
+    }
+
+    /**
+     * Returns a partial model of the new content when the block entry that contains the modified region is no longer
+     * valid YAML, or null if the region is not contained in a single block entry or if the entry is valid.
+     *
+     * The nodes of the previous model located outside of the entry are kept, the entry is replaced by the nodes that
+     * could be read before the error, and the entry becomes the broken region.
+     */
+    Model recover(int offset, int oldLength, int newLength) {
+        if (!prepare(offset, oldLength, newLength)) {
+            return null;
+        }
+
+        final ModelComposer composer = new ModelComposer(monitor);
+        try {
+            composer.compose(new StringReader(getSlice()));
+            // the error is not located in the entry
+            return null;
+        } catch (OperationCanceledException e) {
+            throw e;
+        } catch (YAMLException e) {
+            // expected
+        }
+
+        final AbstractNode parsed = composer.getModel(previous.getModel().getSchema(), null, null, null).getRoot();
+        return rebuild(isValidPartialSlice(parsed) ? parsed : null, new Location(entryLine, firstToken - entryStart,
+                firstToken), new Location(next.getLine() + lineShift, 0, next.getOffset() - next.getColumn()
+                + charShift));
+    }
+
+    /*
+     * Locates the entry that contains the modified region, returns false if there is none.
+     */
+    private boolean prepare(int offset, int oldLength, int newLength) {
+        if (oldContent == null || content == null || offset < 0 || oldLength < 0 || newLength < 0
+                || offset + oldLength > oldContent.length()
+                || content.length() != oldContent.length() - oldLength + newLength) {
+            return false;
+        }
+        // line breaks made of two characters and byte order marks would make offsets and lines diverge
+        if (hasCarriageReturn(oldContent, offset - 1, offset + oldLength + 1)
+                || hasCarriageReturn(content, offset - 1, offset + newLength + 1) || oldContent.startsWith("\uFEFF")) {
+            return false;
+        }
+
+        this.offset = offset;
+        this.oldLength = oldLength;
+
+        if (!locate(previous.getModel().getRoot())) {
+            return false;
+        }
+
+        charShift = newLength - oldLength;
+        lineShift = ModelComposer.countLines(content, offset, offset + newLength)
+                - ModelComposer.countLines(oldContent, offset, offset + oldLength);
+
+        return true;
+    }
+
+    /*
+     * Returns the new content of the entry, from the beginning of its first line to the token that follows it.
+     */
+    private String getSlice() {
+        return content.substring(entryStart, next.getOffset() + charShift);
+    }
+
+    /*
+     * Finds the deepest block entry that contains the modified region, returns false if there is none.
+     */
+    private boolean locate(AbstractNode container) {
+        if (container == null || !(container.isObject() || container.isArray()) || container.content.isFlow()
+                || !container.content.isLocated()) {
+            return false;
+        }
+        // the model cannot be matched with the content
+        if (container.isObject() && !container.content.isKeysComplete()) {
+            return false;
+        }
+
+        final int index = lastEntryBefore(container);
+        if (index < 0) {
+            return false;
+        }
+
+        final Location start = entryStart(container, index);
+        final Location following = index + 1 < container.size() ? entryStart(container, index + 1) : container
+                .getEnd();
+
+        if (start == null || following == null || !contains(start, following) || !isFirstToken(following)) {
+            return false;
+        }
+        return enter(container, index, start, following);
+    }
+
+    /*
+     * Returns the index of the last element whose line starts before the modified region, block entries are located
+     * on separate lines.
+     */
+    private int lastEntryBefore(AbstractNode container) {
+        final NodeContent node = container.content;
+        final int base = container.getStart().getOffset();
+        int low = 0;
+        int high = node.size() - 1;
+        int found = -1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            if (base + node.getOffset(middle) - node.get(middle).getColumn() < offset) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return found;
+    }
+
+    /*
+     * Returns the location of the first token of an entry: the key of a mapping entry or the '-' indicator of a
+     * sequence item.
+     */
+    private Location entryStart(AbstractNode container, int index) {
+        final NodeContent element = container.content.get(index);
+        if (!element.isLocated()) {
+            return null;
+        }
+        final Location start = new Location(container.getStart().getLine() + container.content.getLine(index),
+                element.getColumn(), container.getStart().getOffset() + container.content.getOffset(index));
+        return container.isObject() ? start : indicator(start);
+    }
+
+    private boolean enter(AbstractNode container, int index, Location start, Location following) {
+        containers.add(container);
+        indexes.add(index);
+
+        if (locate(container.element(index))) {
+            return true;
+        }
+
+        if (isFirstToken(start)) {
+            entryStart = start.getOffset() - start.getColumn();
+            entryLine = start.getLine();
+            firstToken = start.getOffset();
+            next = following;
+            return true;
+        }
+
+        containers.remove(containers.size() - 1);
+        indexes.remove(indexes.size() - 1);
+        return false;
+    }
+
+    /*
+     * Returns true if the modified region is located between the first token of an entry and the line of the token
+     * that follows it.
+     */
+    private boolean contains(Location start, Location following) {
+        return start.getOffset() < offset && offset + oldLength < following.getOffset() - following.getColumn();
+    }
+
+    /*
+     * Returns the location of the '-' indicator of a sequence item, or null if it is not the only token before the
+     * item on its line.
+     */
+    private Location indicator(Location item) {
+        final int lineStart = item.getOffset() - item.getColumn();
+        int i = lineStart;
+        while (i < item.getOffset() && oldContent.charAt(i) == ' ') {
+            i++;
+        }
+        if (i == item.getOffset() || oldContent.charAt(i) != '-') {
+            return null;
+        }
+        // the item of a nested sequence that starts on the same line
+        for (int j = i + 1; j < item.getOffset(); j++) {
+            if (oldContent.charAt(j) != ' ') {
+                return null;
+            }
+        }
+        return new Location(item.getLine(), i - lineStart, i);
+    }
+
+    /*
+     * Returns true if the location is only preceded by spaces on its line.
+     */
+    private boolean isFirstToken(Location location) {
+        for (int i = location.getOffset() - location.getColumn(); i < location.getOffset(); i++) {
+            if (oldContent.charAt(i) != ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * The parsed entries should start at the same position and be the elements of a block collection of the same
+     * kind, the change may have split the entry into several ones.
+     */
+    private boolean isValidSlice(AbstractNode parsed) {
+        final AbstractNode parent = containers.get(containers.size() - 1);
+        final int index = indexes.get(indexes.size() - 1);
+
+        if (parsed == null || parsed.isObject() != parent.isObject() || parsed.isArray() != parent.isArray()
+                || parsed.content.isFlow() || parsed.getStart().getOffset() != firstToken - entryStart) {
+            return false;
+        }
+
+        if (parent.isObject()) {
+            if (!parsed.content.isKeysComplete()) {
+                return false;
+            }
+            for (int i = 0; i < parsed.content.size(); i++) {
+                int sibling = parent.content.indexOf(parsed.content.getProperty(i));
+                if (sibling >= 0 && sibling != index) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /*
+     * The nodes read before the error can replace the entry if they start at the same position and are the children
+     * of a collection of the same kind.
+     */
+    private boolean isValidPartialSlice(AbstractNode parsed) {
+        final AbstractNode parent = containers.get(containers.size() - 1);
+        final int index = indexes.get(indexes.size() - 1);
+
+        if (parsed == null || parsed.isObject() != parent.isObject() || parsed.isArray() != parent.isArray()
+                || parsed.getStart().getLine() != 0 || parsed.getStart().getColumn() != firstToken - entryStart) {
+            return false;
+        }
+
+        if (parent.isObject()) {
+            for (int i = 0; i < parent.content.size(); i++) {
+                if (i != index && parsed.content.indexOf(parent.content.getProperty(i)) >= 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Returns the new model, where the entry is replaced by the elements of the parsed collection. Only the contents of
+     * the containers of the entry are created again.
+     */
+    private Model rebuild(AbstractNode parsed, Location brokenStart, Location brokenEnd) {
+        final int last = containers.size() - 1;
+        final AbstractNode parent = containers.get(last);
+
+        NodeContent content = parent.content.replace(indexes.get(last), 1, parsed != null ? parsed.content : null,
+                entryLine - parent.getStart().getLine(), entryStart + (parsed != null ? parsed.getStart().getOffset()
+                        : 0) - parent.getStart().getOffset(), lineShift, charShift);
+        for (int depth = last - 1; depth >= 0; depth--) {
+            content = containers.get(depth).content.replace(indexes.get(depth), content, lineShift, charShift);
+        }
+
+        final Model model = previous.getModel();
+        final AbstractNode root = containers.get(0);
+        return new Model(model.getSchema(), model.getPath(), content, root.getStart().getLine(), root.getStart()
+                .getOffset(), brokenStart, brokenEnd);
+    }
+
+    private static boolean hasCarriageReturn(String text, int from, int to) {
+        for (int i = Math.max(0, from); i < Math.min(text.length(), to); i++) {
+            if (text.charAt(i) == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
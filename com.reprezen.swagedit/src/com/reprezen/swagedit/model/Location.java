@@ -11,16 +11,23 @@
 package com.reprezen.swagedit.model;
 
 /**
- * Location inside a document represented by a line and a column.
+ * Location inside a document represented by a line and a column, and by the character offset from the start of the
+ * document when it is known.
  */
 public class Location {
 
     private final int line;
     private final int column;
+    private final int offset;
 
     public Location(int line, int column) {
+        this(line, column, -1);
+    }
+
+    public Location(int line, int column, int offset) {
         this.line = line;
         this.column = column;
+        this.offset = offset;
     }
 
     public int getLine() {
@@ -31,6 +38,15 @@ public class Location {
         return column;
     }
 
+    /**
+     * Returns the offset of the location from the start of the document, or -1 if it is not known.
+     * 
+     * @return offset
+     */
+    public int getOffset() {
+        return offset;
+    }
+
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
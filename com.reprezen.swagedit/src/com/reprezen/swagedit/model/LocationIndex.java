@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.model;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+
+/**
+ * Index of the locations in the YAML source of the nodes of the JSON representation of a document.
+ *
+ * <br/>
+ *
+ * A pointer is resolved by following the keys of the YAML mappings, aliases included, like the JSON representation
+ * does. The location of a pointer to a mapping is the location of the mapping. The location of a pointer to any other
+ * value is the location of its key up to the end of the value. A pointer that goes through a value that is not a
+ * mapping, or through a key that does not exist, is located on the last node that has been reached.
+ *
+ * <br/>
+ *
+ * Pointers are resolved once and their locations are kept, as well as the keys of each mapping that has been
+ * traversed, so that looking up the location of a pointer that has already been resolved, or of a pointer whose
+ * parent has been resolved, takes constant time.
+ */
+public class LocationIndex {
+
+    private final MappingNode root;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<MappingNode, Map<String, NodeTuple>> keys = new IdentityHashMap<>();
+
+    public LocationIndex(Node yaml) {
+        this.root = yaml instanceof MappingNode ? (MappingNode) yaml : null;
+    }
+
+    /**
+     * Returns the line, starting at 1, of the node located by the pointer, or 1 if the pointer does not locate a node.
+     *
+     * @param pointer
+     * @return line
+     */
+    public int getLine(String pointer) {
+        final Entry entry = pointer == null || pointer.isEmpty() ? null : find(pointer);
+        return entry != null ? entry.start.getStartMark().getLine() + 1 : 1;
+    }
+
+    /**
+     * Returns the start location of the node located by the pointer, or null if the pointer does not locate a node.
+     *
+     * @param pointer
+     * @return start location
+     */
+    public Location getStart(String pointer) {
+        final Entry entry = pointer == null || pointer.isEmpty() ? null : find(pointer);
+        return entry != null ? location(entry.start.getStartMark()) : null;
+    }
+
+    /**
+     * Returns the end location of the node located by the pointer, or null if the pointer does not locate a node.
+     *
+     * @param pointer
+     * @return end location
+     */
+    public Location getEnd(String pointer) {
+        final Entry entry = pointer == null || pointer.isEmpty() ? null : find(pointer);
+        return entry != null ? location(entry.end.getEndMark()) : null;
+    }
+
+    private Entry find(String pointer) {
+        Entry entry = entries.get(pointer);
+        if (entry != null) {
+            return entry;
+        }
+
+        if (pointer.isEmpty()) {
+            if (root == null) {
+                return null;
+            }
+            entry = new Entry(root, root, root);
+        } else {
+            final int index = pointer.lastIndexOf('/');
+            final Entry parent = find(index > 0 ? pointer.substring(0, index) : "");
+            if (parent == null) {
+                return null;
+            }
+
+            final NodeTuple tuple = parent.mapping != null ? getKeys(parent.mapping).get(unescape(pointer
+                    .substring(index + 1))) : null;
+            if (tuple == null) {
+                // the pointer is located on the last node reached
+                entry = parent.mapping != null ? new Entry(parent.start, parent.end, null) : parent;
+            } else if (tuple.getValueNode() instanceof MappingNode) {
+                final MappingNode mapping = (MappingNode) tuple.getValueNode();
+                entry = new Entry(mapping, mapping, mapping);
+            } else {
+                entry = new Entry(tuple.getKeyNode(), tuple.getValueNode(), null);
+            }
+        }
+
+        final Entry previous = entries.putIfAbsent(pointer, entry);
+        return previous != null ? previous : entry;
+    }
+
+    /*
+     * Returns the first tuple of each scalar key of the mapping.
+     */
+    private Map<String, NodeTuple> getKeys(MappingNode mapping) {
+        synchronized (keys) {
+            Map<String, NodeTuple> result = keys.get(mapping);
+            if (result == null) {
+                result = new HashMap<>();
+                for (NodeTuple tuple : mapping.getValue()) {
+                    if (tuple.getKeyNode() instanceof ScalarNode) {
+                        final String key = ((ScalarNode) tuple.getKeyNode()).getValue();
+                        if (!result.containsKey(key)) {
+                            result.put(key, tuple);
+                        }
+                    }
+                }
+                keys.put(mapping, result);
+            }
+            return result;
+        }
+    }
+
+    private static String unescape(String segment) {
+        if (segment.indexOf('~') < 0) {
+            return segment;
+        }
+        return segment.replace("~1", "/").replace("~0", "~");
+    }
+
+    private static Location location(Mark mark) {
+        return new Location(mark.getLine(), mark.getColumn(), mark.getIndex());
+    }
+
+    private static class Entry {
+        final Node start;
+        final Node end;
+        // mapping whose keys can be followed
+        final MappingNode mapping;
+
+        Entry(Node start, Node end, MappingNode mapping) {
+            this.start = start;
+            this.end = end;
+            this.mapping = mapping;
+        }
+    }
+
+}
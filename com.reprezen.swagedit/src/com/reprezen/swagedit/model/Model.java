@@ -10,24 +10,24 @@
  *******************************************************************************/
 package com.reprezen.swagedit.model;
 
-import static com.reprezen.swagedit.model.NodeDeserializer.ATTRIBUTE_MODEL;
-import static com.reprezen.swagedit.model.NodeDeserializer.ATTRIBUTE_PARENT;
-import static com.reprezen.swagedit.model.NodeDeserializer.ATTRIBUTE_POINTER;
-
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.IPath;
+import org.yaml.snakeyaml.error.YAMLException;
 
 import com.fasterxml.jackson.core.JsonPointer;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectReader;
-import com.fasterxml.jackson.databind.module.SimpleModule;
-import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.google.common.base.Strings;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
@@ -36,21 +36,55 @@ import com.reprezen.swagedit.schema.SwaggerSchema;
 
 /**
  * Represents the content of a YAML/JSON document.
+ * 
+ * <br/>
+ * 
+ * Once parsed, a model is an immutable snapshot of the content that can be shared by readers on any thread. Each new
+ * content produces a new model with a greater version. The contents of the nodes that are not affected by a change of
+ * the document are shared with the previous model, see {@link NodeContent}.
  *
  */
 public class Model {
 
-    private final Map<JsonPointer, AbstractNode> nodes = new LinkedHashMap<>();
-    private final SwaggerSchema schema;
-    private IPath path;
+    private static final AtomicLong versions = new AtomicLong();
 
-    private Model(SwaggerSchema schema) {
-        this(schema, null);
-    }
+    private final SwaggerSchema schema;
+    private final long version = versions.incrementAndGet();
+    private final IPath path;
+    // content of the root node and its location, the root is null if the content has no node
+    private final NodeContent content;
+    private final int line;
+    private final int offset;
+    private final Location brokenStart;
+    private final Location brokenEnd;
+    private AbstractNode root;
 
-    private Model(SwaggerSchema schema, IPath path) {
+    /**
+     * Creates a model whose root node has the given content.
+     * 
+     * @param schema
+     * @param path
+     *            may be null
+     * @param content
+     *            content of the root node, or null
+     * @param line
+     *            start line of the root node
+     * @param offset
+     *            start offset of the root node
+     * @param brokenStart
+     *            start of the region that could not be read, or null if the model is complete
+     * @param brokenEnd
+     *            end of the region that could not be read, or null if the model is complete
+     */
+    Model(SwaggerSchema schema, IPath path, NodeContent content, int line, int offset, Location brokenStart,
+            Location brokenEnd) {
         this.schema = schema;
         this.path = path;
+        this.content = content;
+        this.line = line;
+        this.offset = offset;
+        this.brokenStart = brokenStart;
+        this.brokenEnd = brokenEnd;
     }
 
     /**
@@ -60,12 +94,7 @@ public class Model {
      * @return empty model
      */
     public static Model empty(SwaggerSchema schema) {
-        Model model = new Model(schema);
-        ObjectNode root = new ObjectNode(model, null, JsonPointer.compile(""));
-        root.setType(model.schema.getType(root));
-        model.add(root);
-
-        return model;
+        return new Model(schema, null, NodeContent.of(NodeContent.Kind.OBJECT, null), 0, 0, null, null);
     }
 
     /**
@@ -73,24 +102,18 @@ public class Model {
      * 
      * @param text
      * @return model
+     * @throws YAMLException
+     *             if the content is not valid YAML
      */
     public static Model parseYaml(SwaggerSchema schema, String text) {
         if (Strings.emptyToNull(text) == null) {
             return empty(schema);
         }
 
-        Model model = new Model(schema);
-        try {
-            reader(model).readValue(text);
-        } catch (IllegalArgumentException | IOException e) {
-            e.printStackTrace();
-        }
+        ModelComposer composer = new ModelComposer();
+        composer.compose(new StringReader(text));
 
-        for (AbstractNode node : model.allNodes()) {
-            node.setType(model.schema.getType(node));
-        }
-
-        return model;
+        return composer.getModel(schema, null, null, null);
     }
 
     /**
@@ -107,37 +130,22 @@ public class Model {
         final SwaggerSchema schema = Activator.getDefault().getSchema();
         final List<Model> models = Lists.newArrayList();
         for (IFile file : files) {
-            Model model = new Model(schema, file.getFullPath());
-            try {
-                reader(model).readValue(file.getLocationURI().toURL());
-            } catch (IllegalArgumentException | IOException e) {
+            ModelComposer composer = new ModelComposer();
+            try (Reader reader = new InputStreamReader(file.getLocationURI().toURL().openStream(),
+                    StandardCharsets.UTF_8)) {
+                composer.compose(reader);
+            } catch (YAMLException | IOException e) {
                 e.printStackTrace();
                 continue;
             }
 
-            models.add(model);
+            models.add(composer.getModel(schema, file.getFullPath(), null, null));
         }
         return models;
     }
 
-    protected static ObjectMapper createMapper() {
-        final ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-        final SimpleModule module = new SimpleModule();
-        module.addDeserializer(AbstractNode.class, new NodeDeserializer());
-        mapper.registerModule(module);
-        return mapper;
-    }
-
-    protected static ObjectReader reader(Model model) {
-        return createMapper().reader() //
-                .withAttribute(ATTRIBUTE_MODEL, model) //
-                .withAttribute(ATTRIBUTE_PARENT, null) //
-                .withAttribute(ATTRIBUTE_POINTER, JsonPointer.compile("")) //
-                .withType(AbstractNode.class);
-    }
-
     /**
-     * Creates a new object node
+     * Creates an object node that is not an element of the model, for example to look up the type of a pointer.
      * 
      * @param node
      *            parent or null
@@ -146,11 +154,11 @@ public class Model {
      * @return object node
      */
     public ObjectNode objectNode(AbstractNode parent, JsonPointer ptr) {
-        return (ObjectNode) add(new ObjectNode(this, parent, ptr));
+        return (ObjectNode) detached(parent, ptr, NodeContent.Kind.OBJECT, null);
     }
 
     /**
-     * Creates a new array node
+     * Creates an array node that is not an element of the model, for example to look up the type of a pointer.
      * 
      * @param node
      *            parent or null
@@ -159,11 +167,11 @@ public class Model {
      * @return array node
      */
     public ArrayNode arrayNode(AbstractNode parent, JsonPointer ptr) {
-        return (ArrayNode) add(new ArrayNode(this, parent, ptr));
+        return (ArrayNode) detached(parent, ptr, NodeContent.Kind.ARRAY, null);
     }
 
     /**
-     * Creates a new value node
+     * Creates a value node that is not an element of the model, for example to look up the type of a pointer.
      * 
      * @param node
      *            parent or null
@@ -174,7 +182,25 @@ public class Model {
      * @return value node
      */
     public ValueNode valueNode(AbstractNode parent, JsonPointer ptr, Object value) {
-        return (ValueNode) add(new ValueNode(this, parent, ptr, value));
+        return (ValueNode) detached(parent, ptr, NodeContent.Kind.VALUE, value);
+    }
+
+    private AbstractNode detached(AbstractNode parent, JsonPointer ptr, NodeContent.Kind kind, Object value) {
+        return AbstractNode.create(this, parent, ptr, null, NodeContent.of(kind, value), 0, 0);
+    }
+
+    public SwaggerSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Returns the version of the model. Models built later have greater versions, a model keeps its version as long as
+     * its content does not change.
+     * 
+     * @return version
+     */
+    public long getVersion() {
+        return version;
     }
 
     /**
@@ -186,8 +212,43 @@ public class Model {
         return path;
     }
 
-    public void setPath(IPath path) {
-        this.path = path;
+    /**
+     * Returns a model that has the same content as this model and is located in the given file. Models are shared
+     * between threads and are never modified, the content of the nodes is shared by both models.
+     * 
+     * @param path
+     * @return model located in the file
+     */
+    public Model withPath(IPath path) {
+        return new Model(schema, path, content, line, offset, brokenStart, brokenEnd);
+    }
+
+    /**
+     * Returns true if the content of the model is not valid YAML. In that case the model only contains the nodes that
+     * could be read, and the broken region is the part of the content that contains the error.
+     * 
+     * @return true if the model is partial
+     */
+    public boolean isPartial() {
+        return brokenStart != null;
+    }
+
+    /**
+     * Returns the start of the region of the content that could not be read, or null if the model is complete.
+     * 
+     * @return location
+     */
+    public Location getBrokenStart() {
+        return brokenStart;
+    }
+
+    /**
+     * Returns the end of the region of the content that could not be read, or null if the model is complete.
+     * 
+     * @return location
+     */
+    public Location getBrokenEnd() {
+        return brokenEnd;
     }
 
     /**
@@ -197,14 +258,19 @@ public class Model {
      * @return node
      */
     public AbstractNode find(JsonPointer pointer) {
-        return nodes.get(pointer);
-    }
+        AbstractNode node = getRoot();
+        JsonPointer current = pointer;
 
-    private AbstractNode add(AbstractNode node) {
-        if (node != null && node.getPointer() != null) {
-            nodes.put(node.getPointer(), node);
+        while (node != null && current != null && !current.matches()) {
+            if (node.isArray()) {
+                final int index = current.getMatchingIndex();
+                node = index >= 0 && index < node.size() ? node.get(index) : null;
+            } else {
+                node = node.get(current.getMatchingProperty());
+            }
+            current = current.tail();
         }
-        return node;
+        return current != null ? node : null;
     }
 
     /**
@@ -212,8 +278,11 @@ public class Model {
      * 
      * @return node
      */
-    public AbstractNode getRoot() {
-        return nodes.get(JsonPointer.compile(""));
+    public synchronized AbstractNode getRoot() {
+        if (root == null && content != null) {
+            root = AbstractNode.create(this, null, JsonPointer.compile(""), null, content, line, offset);
+        }
+        return root;
     }
 
     /**
@@ -232,7 +301,9 @@ public class Model {
     }
 
     /**
-     * Returns the node whose content is at the position specified by a line and column.
+     * Returns the node whose content is at the position specified by a line and column. <br/>
+     * 
+     * Nodes are looked up by a binary search of the start lines of the elements at each level of the tree.
      * 
      * @param line
      * @param column
@@ -263,31 +334,56 @@ public class Model {
     }
 
     /**
-     * Returns all nodes within this model
+     * Returns all nodes within this model, in the order of the document.
      * 
      * @return iterable of nodes
      */
     public Iterable<AbstractNode> allNodes() {
-        return nodes.values();
+        final AbstractNode root = getRoot();
+        if (root == null) {
+            return Collections.emptyList();
+        }
+
+        return new Iterable<AbstractNode>() {
+            @Override
+            public Iterator<AbstractNode> iterator() {
+                return new TreeIterator(root);
+            }
+        };
     }
 
     protected AbstractNode findChildren(AbstractNode current, int line, int column) {
-        for (AbstractNode el : current.elements()) {
-            if (el.getStart().getLine() == line) {
-                if (el instanceof ValueNode) {
-                    if (column >= contentColumn(el)) {
-                        return el;
-                    }
-                } else {
-                    if (column >= el.getStart().getColumn()) {
-                        return el;
-                    }
-                }
+        if (!isOrdered()) {
+            return findChildren(current.elements(), current, line, column);
+        }
+
+        // children of the current node that start on the line follow the ones that start before
+        for (int i = first(current, line); i < current.size() && lineOf(current, i) == line; i++) {
+            AbstractNode el = current.get(i);
+            if (isAfterStart(el, column)) {
+                return el;
             }
         }
         return current;
     }
 
+    private AbstractNode findChildren(Iterable<AbstractNode> elements, AbstractNode current, int line, int column) {
+        for (AbstractNode el : elements) {
+            if (el.getStart().getLine() == line && isAfterStart(el, column)) {
+                return el;
+            }
+        }
+        return current;
+    }
+
+    private boolean isAfterStart(AbstractNode el, int column) {
+        if (el instanceof ValueNode) {
+            return column >= contentColumn(el);
+        } else {
+            return column >= el.getStart().getColumn();
+        }
+    }
+
     protected AbstractNode findCorrectNode(AbstractNode current, int column) {
         if (current.getStart().getColumn() == column) {
             if (current.getParent() instanceof ObjectNode) {
@@ -304,6 +400,13 @@ public class Model {
 
     protected AbstractNode forLine(int line) {
         final AbstractNode root = getRoot();
+        if (root == null) {
+            return null;
+        }
+        if (isOrdered()) {
+            return forLine(root, line);
+        }
+
         for (AbstractNode node : allNodes()) {
             if (node != root && node.getStart().getLine() == line) {
                 return node;
@@ -312,8 +415,30 @@ public class Model {
         return null;
     }
 
+    /*
+     * Returns the first node below the given one, in the order of the document, that starts on the line. Only the
+     * last element that starts before the line may contain nodes that start on the line.
+     */
+    private AbstractNode forLine(AbstractNode node, int line) {
+        final int i = first(node, line);
+        if (i > 0) {
+            AbstractNode found = forLine(node.get(i - 1), line);
+            if (found != null) {
+                return found;
+            }
+        }
+        return i < node.size() && lineOf(node, i) == line ? node.get(i) : null;
+    }
+
     protected AbstractNode findBeforeLine(int line, int column) {
-        AbstractNode root = getRoot();
+        final AbstractNode root = getRoot();
+        if (root == null) {
+            return null;
+        }
+        if (isOrdered()) {
+            return lastBeforeLine(root, line);
+        }
+
         AbstractNode found = null, before = null;
         Iterator<AbstractNode> it = allNodes().iterator();
 
@@ -337,6 +462,49 @@ public class Model {
         return found;
     }
 
+    /*
+     * Returns the last node below the given one, in the order of the document, that starts before the line.
+     */
+    private AbstractNode lastBeforeLine(AbstractNode node, int line) {
+        final int i = first(node, line);
+        if (i == 0) {
+            return null;
+        }
+
+        final AbstractNode before = node.get(i - 1);
+        final AbstractNode found = lastBeforeLine(before, line);
+        return found != null ? found : before;
+    }
+
+    /*
+     * Returns true if the nodes, in the order of the document, are sorted by their start line, in which case they can
+     * be looked up by binary search.
+     */
+    private boolean isOrdered() {
+        return content != null && content.isOrdered();
+    }
+
+    /*
+     * Returns the index of the first element of the node that starts on the given line or after it.
+     */
+    private int first(AbstractNode node, int line) {
+        int low = 0;
+        int high = node.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (lineOf(node, mid) < line) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int lineOf(AbstractNode node, int index) {
+        return node.getStart().getLine() + node.content.getLine(index);
+    }
+
     protected int contentColumn(AbstractNode n) {
         String property = Strings.emptyToNull(n.getProperty());
         if (property == null) {
@@ -346,4 +514,50 @@ public class Model {
         return (property.length() + 1) + n.getStart().getColumn();
     }
 
+    /*
+     * Iterates over the nodes of a tree in the order of the document.
+     */
+    private static class TreeIterator implements Iterator<AbstractNode> {
+
+        private final Deque<Iterator<AbstractNode>> stack = new ArrayDeque<>();
+        private AbstractNode next;
+
+        TreeIterator(AbstractNode root) {
+            this.next = root;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public AbstractNode next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+
+            final AbstractNode current = next;
+            if (current.size() > 0) {
+                stack.push(current.elements().iterator());
+            }
+            // the elements of entries replaced by a duplicate key come first, as they do in the document
+            for (AbstractNode replaced : current.shadowed()) {
+                if (replaced.size() > 0) {
+                    stack.push(replaced.elements().iterator());
+                }
+            }
+            while (!stack.isEmpty() && !stack.peek().hasNext()) {
+                stack.pop();
+            }
+            next = stack.isEmpty() ? null : stack.peek().next();
+            return current;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
 }
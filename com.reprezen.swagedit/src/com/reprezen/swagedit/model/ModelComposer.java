@@ -0,0 +1,584 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.model;
+
+import java.io.Reader;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.yaml.snakeyaml.composer.ComposerException;
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.error.MarkedYAMLException;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.SequenceStartEvent;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import com.reprezen.swagedit.schema.SwaggerSchema;
+
+/**
+ * Composes the YAML node tree and the content of a {@link Model} from a single stream of parser events.
+ *
+ * <br/>
+ *
+ * The YAML tree is identical to the one produced by {@link org.yaml.snakeyaml.Yaml#compose(Reader)}, the model nodes
+ * keep the locations and values that were previously obtained by reading the content a second time with Jackson.
+ *
+ * If the content is not valid YAML, the exception is thrown and the model keeps the nodes read so far, attached to
+ * their parents. Collections that were not closed end at the location of the error, see
+ * {@link #getModel(SwaggerSchema, IPath, Location, Location)}.
+ */
+public class ModelComposer {
+
+    private static final Pattern PATTERN_FLOAT = Pattern.compile("[-+]?([0-9][0-9_]*)?\\.[0-9]*([eE][-+][0-9]+)?");
+
+    private final IProgressMonitor monitor;
+    private final Resolver resolver = new Resolver();
+    private final Map<String, Node> anchors = new HashMap<>();
+    private final Set<Node> openNodes = new HashSet<>();
+    private final Deque<NodeContent.Builder> openModelNodes = new ArrayDeque<>();
+    // content of the root node and its location
+    private NodeContent root;
+    private Location rootStart;
+    private Parser parser;
+    private boolean merged = false;
+    private boolean aliased = false;
+    private boolean duplicated = false;
+    private final List<Pair<String, Node>> duplicateKeys = new ArrayList<>();
+    // number of keys being composed, the keys of mappings used as keys are not checked for duplicates
+    private int keyDepth = 0;
+
+    public ModelComposer() {
+        this(null);
+    }
+
+    /**
+     * Creates a composer that stops with an {@link OperationCanceledException} as soon as the monitor is canceled.
+     *
+     * @param monitor
+     *            may be null
+     */
+    public ModelComposer(IProgressMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    /**
+     * Returns the model of the composed content. If the content is not valid YAML, the model contains the nodes read
+     * before the error, and the broken region should be given.
+     *
+     * @param schema
+     * @param path
+     *            path of the file of the content, may be null
+     * @param brokenStart
+     *            start of the region that could not be read, or null
+     * @param brokenEnd
+     *            end of the region that could not be read, or null
+     * @return model
+     */
+    public Model getModel(SwaggerSchema schema, IPath path, Location brokenStart, Location brokenEnd) {
+        return new Model(schema, path, root, rootStart != null ? rootStart.getLine() : 0,
+                rootStart != null ? rootStart.getOffset() : 0, brokenStart, brokenEnd);
+    }
+
+    /**
+     * Returns true if the composed YAML tree contains merge keys.
+     *
+     * @return true if merge keys are present
+     */
+    public boolean hasMergeKeys() {
+        return merged;
+    }
+
+    /**
+     * Returns true if the composed YAML tree contains anchors or aliases.
+     *
+     * @return true if anchors or aliases are present
+     */
+    public boolean hasAnchors() {
+        return aliased;
+    }
+
+    /**
+     * Returns true if a mapping of the composed YAML tree contains the same key more than once.
+     *
+     * @return true if duplicate keys are present
+     */
+    public boolean hasDuplicateKeys() {
+        return duplicated;
+    }
+
+    /**
+     * Returns the scalar keys that appear more than once in the same mapping of the composed YAML tree, each with its
+     * key node. All the occurrences of a duplicate key are returned, in the order of the document, a key node reached
+     * through aliases may be returned more than once.
+     *
+     * @return duplicate keys
+     */
+    public List<Pair<String, Node>> getDuplicateKeys() {
+        return duplicateKeys;
+    }
+
+    /**
+     * Reads the single document contained in the reader and returns its YAML representation, or null if the stream is
+     * empty.
+     *
+     * @param reader
+     * @return YAML node
+     * @throws org.yaml.snakeyaml.error.YAMLException
+     *             if the content is not valid YAML
+     */
+    public Node compose(Reader reader) {
+        try {
+            parser = new ParserImpl(new StreamReader(reader));
+
+            // Drop the STREAM-START event.
+            parser.getEvent();
+            Node document = null;
+            if (!parser.checkEvent(Event.ID.StreamEnd)) {
+                document = composeDocument();
+            }
+            if (!parser.checkEvent(Event.ID.StreamEnd)) {
+                Event event = parser.getEvent();
+                throw new CompositionException("expected a single document in the stream", document.getStartMark(),
+                        "but found another document", event.getStartMark());
+            }
+            // Drop the STREAM-END event.
+            parser.getEvent();
+            return document;
+        } catch (YAMLException e) {
+            closeModelNodes(e);
+            throw e;
+        }
+    }
+
+    /*
+     * Ends the model collections that were still open when the error occurred at the location of the error.
+     */
+    private void closeModelNodes(YAMLException e) {
+        final Mark mark = e instanceof MarkedYAMLException ? ((MarkedYAMLException) e).getProblemMark() : null;
+
+        while (!openModelNodes.isEmpty()) {
+            NodeContent.Builder node = openModelNodes.pop();
+            attach(node.getProperty(), node.build(mark != null ? createLocation(mark) : node.getStart()),
+                    node.getStart());
+        }
+    }
+
+    private Node composeDocument() {
+        // Drop the DOCUMENT-START event.
+        parser.getEvent();
+        Node node = composeNode(null, null, true);
+        // Drop the DOCUMENT-END event.
+        parser.getEvent();
+        anchors.clear();
+        openNodes.clear();
+        return node;
+    }
+
+    /*
+     * Composes the next node, the content of the model is only built when build is true. The start location of a model
+     * node is the one of its property name when it has one.
+     */
+    private Node composeNode(String property, Mark start, boolean build) {
+        if (monitor != null && monitor.isCanceled()) {
+            throw new OperationCanceledException();
+        }
+        if (parser.checkEvent(Event.ID.Alias)) {
+            AliasEvent event = (AliasEvent) parser.getEvent();
+            String anchor = event.getAnchor();
+            aliased = true;
+            if (!anchors.containsKey(anchor)) {
+                throw new CompositionException(null, null, "found undefined alias " + anchor, event.getStartMark());
+            }
+            if (build) {
+                // aliases are not expanded in the model
+                attachValue(property, anchor, start != null ? start : event.getStartMark(), event.getEndMark());
+            }
+            Node result = anchors.get(anchor);
+            if (openNodes.contains(result)) {
+                result.setTwoStepsConstruction(true);
+            }
+            return result;
+        }
+
+        NodeEvent event = (NodeEvent) parser.peekEvent();
+        String anchor = event.getAnchor();
+        if (anchor != null) {
+            aliased = true;
+        }
+        if (anchor != null && anchors.containsKey(anchor)) {
+            throw new CompositionException("found duplicate anchor " + anchor + "; first occurence",
+                    anchors.get(anchor).getStartMark(), "second occurence", event.getStartMark());
+        }
+
+        Node node;
+        if (start == null) {
+            start = event.getStartMark();
+        }
+        if (parser.checkEvent(Event.ID.Scalar)) {
+            ScalarEvent scalar = (ScalarEvent) event;
+            node = composeScalarNode(anchor);
+            if (build) {
+                attachValue(property, scalarValue(scalar), start, node.getEndMark());
+            }
+        } else if (parser.checkEvent(Event.ID.SequenceStart)) {
+            NodeContent.Builder array = build ? open(NodeContent.Kind.ARRAY, property, start) : null;
+            node = composeSequenceNode(anchor, array);
+            if (array != null) {
+                close(array, node);
+            }
+        } else {
+            NodeContent.Builder object = build ? open(NodeContent.Kind.OBJECT, property, start) : null;
+            node = composeMappingNode(anchor, object);
+            if (object != null) {
+                close(object, node);
+            }
+        }
+        return node;
+    }
+
+    /*
+     * Starts the content of a collection, it remains open until the collection ends, so that it can be closed if an
+     * error occurs while reading its elements.
+     */
+    private NodeContent.Builder open(NodeContent.Kind kind, String property, Mark start) {
+        final CollectionStartEvent event = (CollectionStartEvent) parser.peekEvent();
+        final NodeContent.Builder builder = new NodeContent.Builder(kind, property, createLocation(start),
+                Boolean.TRUE.equals(event.getFlowStyle()));
+        openModelNodes.push(builder);
+        return builder;
+    }
+
+    private void close(NodeContent.Builder builder, Node node) {
+        openModelNodes.pop();
+        attach(builder.getProperty(), builder.build(createLocation(node.getEndMark())), builder.getStart());
+    }
+
+    private void attachValue(String property, Object value, Mark start, Mark end) {
+        final Location location = createLocation(start);
+        attach(property, NodeContent.value(value, location, createLocation(end)), location);
+    }
+
+    /*
+     * Adds the content of a node to the collection that contains it, which is still open, or makes it the root.
+     */
+    private void attach(String property, NodeContent content, Location start) {
+        final NodeContent.Builder parent = openModelNodes.peek();
+        if (parent != null) {
+            parent.add(property, content, start);
+        } else {
+            root = content;
+            rootStart = start;
+        }
+    }
+
+    private Node composeScalarNode(String anchor) {
+        ScalarEvent event = (ScalarEvent) parser.getEvent();
+        String tag = event.getTag();
+        boolean resolved = false;
+        Tag nodeTag;
+        if (tag == null || tag.equals("!")) {
+            nodeTag = resolver.resolve(NodeId.scalar, event.getValue(), event.getImplicit().canOmitTagInPlainScalar());
+            resolved = true;
+        } else {
+            nodeTag = new Tag(tag);
+        }
+        Node node = new ScalarNode(nodeTag, resolved, event.getValue(), event.getStartMark(), event.getEndMark(),
+                event.getStyle());
+        if (anchor != null) {
+            anchors.put(anchor, node);
+        }
+        return node;
+    }
+
+    private Node composeSequenceNode(String anchor, NodeContent.Builder array) {
+        SequenceStartEvent startEvent = (SequenceStartEvent) parser.getEvent();
+        String tag = startEvent.getTag();
+        boolean resolved = false;
+        Tag nodeTag;
+        if (tag == null || tag.equals("!")) {
+            nodeTag = resolver.resolve(NodeId.sequence, null, startEvent.getImplicit());
+            resolved = true;
+        } else {
+            nodeTag = new Tag(tag);
+        }
+
+        final List<Node> children = new ArrayList<>();
+        SequenceNode node = new SequenceNode(nodeTag, resolved, children, startEvent.getStartMark(), null,
+                startEvent.getFlowStyle());
+        if (anchor != null) {
+            anchors.put(anchor, node);
+        }
+
+        openNodes.add(node);
+        while (!parser.checkEvent(Event.ID.SequenceEnd)) {
+            children.add(composeNode(null, null, array != null));
+        }
+        openNodes.remove(node);
+        node.setEndMark(parser.getEvent().getEndMark());
+        return node;
+    }
+
+    private Node composeMappingNode(String anchor, NodeContent.Builder object) {
+        MappingStartEvent startEvent = (MappingStartEvent) parser.getEvent();
+        String tag = startEvent.getTag();
+        boolean resolved = false;
+        Tag nodeTag;
+        if (tag == null || tag.equals("!")) {
+            nodeTag = resolver.resolve(NodeId.mapping, null, startEvent.getImplicit());
+            resolved = true;
+        } else {
+            nodeTag = new Tag(tag);
+        }
+
+        final List<NodeTuple> children = new ArrayList<>();
+        MappingNode node = new MappingNode(nodeTag, resolved, children, startEvent.getStartMark(), null,
+                startEvent.getFlowStyle());
+        if (anchor != null) {
+            anchors.put(anchor, node);
+        }
+
+        // first key node of each scalar key, and keys already reported as duplicates, dropped once the mapping ends
+        final Map<String, Node> keys = new HashMap<>();
+        Set<String> duplicates = null;
+
+        openNodes.add(node);
+        while (!parser.checkEvent(Event.ID.MappingEnd)) {
+            boolean build = object != null;
+            Event keyEvent = parser.peekEvent();
+            keyDepth++;
+            Node key = composeNode(null, null, false);
+            keyDepth--;
+            if (key.getTag().equals(Tag.MERGE)) {
+                node.setMerged(true);
+                merged = true;
+            } else if (key.getTag().equals(Tag.VALUE)) {
+                key.setTag(Tag.STR);
+            }
+
+            String name = null;
+            if (keyEvent instanceof AliasEvent) {
+                name = ((AliasEvent) keyEvent).getAnchor();
+                if (object != null) {
+                    object.setKeysIncomplete();
+                }
+            } else if (key instanceof ScalarNode) {
+                name = ((ScalarNode) key).getValue();
+            } else {
+                // complex keys cannot be represented in the model
+                build = false;
+                if (object != null) {
+                    object.setKeysIncomplete();
+                }
+            }
+
+            if (key instanceof ScalarNode && keyDepth == 0) {
+                final String text = ((ScalarNode) key).getValue();
+                final Node first = keys.get(text);
+                if (first == null) {
+                    keys.put(text, key);
+                } else if (first != key) {
+                    if (duplicates == null) {
+                        duplicates = new HashSet<>();
+                    }
+                    if (duplicates.add(text)) {
+                        duplicateKeys.add(Pair.of(text, first));
+                    }
+                    duplicateKeys.add(Pair.of(text, key));
+                }
+            }
+
+            Node value;
+            if (build) {
+                if (object.contains(name)) {
+                    duplicated = true;
+                }
+                value = composeNode(name, keyEvent.getStartMark(), true);
+            } else {
+                value = composeNode(null, null, false);
+            }
+            children.add(new NodeTuple(key, value));
+        }
+        openNodes.remove(node);
+        node.setEndMark(parser.getEvent().getEndMark());
+        return node;
+    }
+
+    /**
+     * Counts the line breaks of a region of a text the same way as the YAML reader.
+     */
+    static int countLines(String text, int from, int to) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\u0085' || c == '\u2028' || c == '\u2029'
+                    || (c == '\r' && (i + 1 >= text.length() || text.charAt(i + 1) != '\n'))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private Location createLocation(Mark mark) {
+        return new Location(mark.getLine(), mark.getColumn(), mark.getIndex());
+    }
+
+    /*
+     * Returns the value of a scalar as it would be read by Jackson's YAML parser, i.e. only plain scalars are
+     * converted to null, numbers or booleans.
+     */
+    protected static Object scalarValue(ScalarEvent event) {
+        final String value = event.getValue();
+        final Character style = event.getStyle();
+        if (event.getTag() == null && (style == null || style == '\u0000') && !value.isEmpty()) {
+            if ("null".equals(value)) {
+                return null;
+            }
+            switch (value.charAt(0)) {
+            case 'n':
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+            case '+':
+            case '-':
+            case '.':
+                Object number = numberValue(value);
+                if (number != null) {
+                    return number;
+                }
+            }
+            Boolean bool = booleanValue(value);
+            if (bool != null) {
+                return bool;
+            }
+        }
+        return value;
+    }
+
+    private static Object numberValue(String value) {
+        int i = 0;
+        if (value.charAt(0) == '-') {
+            if (value.length() == 1) {
+                return null;
+            }
+            i = 1;
+        }
+        while (i < value.length() && value.charAt(i) >= '0' && value.charAt(i) <= '9') {
+            i++;
+        }
+        if (i == value.length()) {
+            BigInteger number = new BigInteger(value);
+            if (number.bitLength() < 32) {
+                return number.intValue();
+            } else if (number.bitLength() < 64) {
+                return number.longValue();
+            }
+            return number;
+        }
+        if (PATTERN_FLOAT.matcher(value).matches()) {
+            try {
+                return Double.parseDouble(value.replace("_", ""));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static Boolean booleanValue(String value) {
+        switch (value.length()) {
+        case 1:
+            switch (value.charAt(0)) {
+            case 'y':
+            case 'Y':
+                return Boolean.TRUE;
+            case 'n':
+            case 'N':
+                return Boolean.FALSE;
+            }
+            break;
+        case 2:
+            if ("no".equalsIgnoreCase(value)) {
+                return Boolean.FALSE;
+            }
+            if ("on".equalsIgnoreCase(value)) {
+                return Boolean.TRUE;
+            }
+            break;
+        case 3:
+            if ("yes".equalsIgnoreCase(value)) {
+                return Boolean.TRUE;
+            }
+            if ("off".equalsIgnoreCase(value)) {
+                return Boolean.FALSE;
+            }
+            break;
+        case 4:
+            if ("true".equalsIgnoreCase(value)) {
+                return Boolean.TRUE;
+            }
+            break;
+        case 5:
+            if ("false".equalsIgnoreCase(value)) {
+                return Boolean.FALSE;
+            }
+            break;
+        }
+        return null;
+    }
+
+    /*
+     * Makes the protected constructor of ComposerException available to the composer.
+     */
+    private static class CompositionException extends ComposerException {
+
+        private static final long serialVersionUID = 1L;
+
+        CompositionException(String context, Mark contextMark, String problem, Mark problemMark) {
+            super(context, contextMark, problem, problemMark);
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.model;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Pointer of a model node built by appending one segment to the pointer of its parent.
+ *
+ * <br/>
+ *
+ * A compiled pointer is a chain of all its segments, so compiling the pointer of every node parses again the path of
+ * its parent. This pointer only keeps its parent and its last segment, its hash code is derived from the hash code of
+ * its parent, and its tail is only created when the pointer is used to navigate a tree. It is equal to the pointer
+ * compiled from the same string.
+ */
+final class ModelPointer extends JsonPointer {
+
+    private static final Interner<String> SEGMENTS = Interners.newWeakInterner();
+
+    private final JsonPointer parent;
+    private final String segment;
+    private final int hash;
+    private volatile JsonPointer tail;
+
+    private ModelPointer(JsonPointer parent, String segment, String escaped) {
+        super(parent.toString() + "/" + escaped, parent.getMatchingProperty(), null);
+        this.parent = parent;
+        this.segment = segment;
+        this.hash = hash(parent.hashCode(), escaped);
+    }
+
+    /**
+     * Returns the pointer of the property of an object.
+     */
+    static JsonPointer child(JsonPointer parent, String property) {
+        return append(parent, SEGMENTS.intern(property), property.replace("/", "~1"));
+    }
+
+    /**
+     * Returns the pointer of the item of an array.
+     */
+    static JsonPointer item(JsonPointer parent, int index) {
+        final String segment = SEGMENTS.intern(Integer.toString(index));
+        return append(parent, segment, segment);
+    }
+
+    private static JsonPointer append(JsonPointer parent, String segment, String escaped) {
+        if (parent.matches()) {
+            // a single segment is cheap to compile
+            return JsonPointer.compile("/" + escaped);
+        }
+        return new ModelPointer(parent, segment, escaped);
+    }
+
+    /*
+     * Hash code of the string of the parent followed by a slash and the segment, computed as String#hashCode.
+     */
+    private static int hash(int parentHash, String escaped) {
+        int h = parentHash * 31 + '/';
+        for (int i = 0; i < escaped.length(); i++) {
+            h = 31 * h + escaped.charAt(i);
+        }
+        return h;
+    }
+
+    @Override
+    public boolean matches() {
+        return false;
+    }
+
+    @Override
+    public JsonPointer tail() {
+        JsonPointer result = tail;
+        if (result == null) {
+            tail = result = child(parent.tail(), segment);
+        }
+        return result;
+    }
+
+    @Override
+    public JsonPointer matchProperty(String name) {
+        if (!mayMatchProperty() || !getMatchingProperty().equals(name)) {
+            return null;
+        }
+        return tail();
+    }
+
+    @Override
+    public JsonPointer matchElement(int index) {
+        if (index < 0 || index != getMatchingIndex()) {
+            return null;
+        }
+        return tail();
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+}
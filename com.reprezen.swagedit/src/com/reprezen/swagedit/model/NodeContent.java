@@ -0,0 +1,383 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable content of a node of a model: its kind, its value or its elements, and its extent in the document.
+ *
+ * <br/>
+ *
+ * A content knows neither its parent nor its pointer, and the locations it holds are relative: the start of each
+ * element is kept by its container as a number of lines and characters from the start of the container, and the end of
+ * a node is kept as a number of lines and characters from its own start. Columns are absolute, a change of the document
+ * only moves other nodes by whole lines. The content of a node that is not affected by a change is therefore reused as
+ * is by the models of the following versions of the document, see {@link #replace}. The nodes of a model are views
+ * that compute their pointers and absolute locations from the content, see {@link AbstractNode}.
+ */
+final class NodeContent {
+
+    enum Kind {
+        OBJECT, ARRAY, VALUE
+    }
+
+    private static final NodeContent[] NO_ELEMENTS = new NodeContent[0];
+    private static final int[] NO_POSITIONS = new int[0];
+
+    private final Kind kind;
+    private final Object value;
+    private final boolean flow;
+    private final boolean keysComplete;
+    private final boolean ordered;
+    // -1 if the node has no location
+    private final int column;
+    private final int endLine;
+    private final int endColumn;
+    private final int endOffset;
+    private final String[] properties;
+    private final NodeContent[] elements;
+    private final int[] lines;
+    private final int[] offsets;
+    private final Map<String, Integer> indexes;
+    // entries of a mapping replaced by a duplicate key, located from the start of this node
+    private final NodeContent shadowed;
+
+    private NodeContent(Kind kind, Object value, boolean flow, boolean keysComplete, int column, int endLine,
+            int endColumn, int endOffset, String[] properties, NodeContent[] elements, int[] lines, int[] offsets,
+            NodeContent shadowed) {
+        this.kind = kind;
+        this.value = value;
+        this.flow = flow;
+        this.keysComplete = keysComplete;
+        this.column = column;
+        this.endLine = endLine;
+        this.endColumn = endColumn;
+        this.endOffset = endOffset;
+        this.properties = properties;
+        this.elements = elements;
+        this.lines = lines;
+        this.offsets = offsets;
+        this.shadowed = shadowed;
+
+        boolean ordered = shadowed == null;
+        for (int i = 0; i < elements.length && ordered; i++) {
+            ordered = elements[i].ordered && (i == 0 || lines[i] >= lines[i - 1]);
+        }
+        this.ordered = ordered;
+
+        if (properties != null) {
+            indexes = new HashMap<>(properties.length * 2);
+            for (int i = properties.length - 1; i >= 0; i--) {
+                indexes.put(properties[i], i);
+            }
+        } else {
+            indexes = null;
+        }
+    }
+
+    /**
+     * Returns the content of a node that has no location in the document.
+     */
+    static NodeContent of(Kind kind, Object value) {
+        return new NodeContent(kind, value, false, true, -1, 0, 0, 0, kind == Kind.OBJECT ? new String[0] : null,
+                NO_ELEMENTS, NO_POSITIONS, NO_POSITIONS, null);
+    }
+
+    /**
+     * Returns the content of a scalar located between start and end.
+     */
+    static NodeContent value(Object value, Location start, Location end) {
+        return new NodeContent(Kind.VALUE, value, false, true, start.getColumn(), end.getLine() - start.getLine(),
+                end.getColumn(), end.getOffset() - start.getOffset(), null, NO_ELEMENTS, NO_POSITIONS, NO_POSITIONS,
+                null);
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    Object getValue() {
+        return value;
+    }
+
+    /**
+     * Returns true if the node is a collection written in flow style.
+     */
+    boolean isFlow() {
+        return flow;
+    }
+
+    /**
+     * Returns true if the elements of an object are all the entries of its mapping, i.e. the mapping has neither
+     * complex nor duplicate keys.
+     */
+    boolean isKeysComplete() {
+        return keysComplete;
+    }
+
+    /**
+     * Returns true if the elements of the node, at any depth, are sorted by their start line.
+     */
+    boolean isOrdered() {
+        return ordered;
+    }
+
+    /**
+     * Returns false if the node has no location in the document.
+     */
+    boolean isLocated() {
+        return column >= 0;
+    }
+
+    int getColumn() {
+        return column;
+    }
+
+    int getEndLine() {
+        return endLine;
+    }
+
+    int getEndColumn() {
+        return endColumn;
+    }
+
+    int getEndOffset() {
+        return endOffset;
+    }
+
+    int size() {
+        return elements.length;
+    }
+
+    NodeContent get(int index) {
+        return elements[index];
+    }
+
+    /**
+     * Returns the index of the element of an object with the given property, or -1 if there is none.
+     */
+    int indexOf(String property) {
+        final Integer index = indexes != null ? indexes.get(property) : null;
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Returns the property of the element of an object at the given index, or null if the node is an array.
+     */
+    String getProperty(int index) {
+        return properties != null ? properties[index] : null;
+    }
+
+    /**
+     * Returns the number of lines between the start of the node and the start of its element.
+     */
+    int getLine(int index) {
+        return lines[index];
+    }
+
+    /**
+     * Returns the number of characters between the start of the node and the start of its element.
+     */
+    int getOffset(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * Returns the entries of a mapping that have been replaced by entries with the same key, as the elements of an
+     * object that starts at the same location as this one, or null if there are none.
+     */
+    NodeContent getShadowed() {
+        return shadowed;
+    }
+
+    /**
+     * Returns a copy of this collection where count elements starting at index are replaced by the elements of
+     * another collection located at the given number of lines and characters from the start of this one. The elements
+     * that follow, as well as the end of this collection, are moved by the given number of lines and characters. The
+     * contents of the other elements are shared with this collection.
+     *
+     * @param index
+     * @param count
+     * @param source
+     *            collection of the new elements, may be null
+     * @param line
+     *            lines between the start of this collection and the start of the source
+     * @param offset
+     *            characters between the start of this collection and the start of the source
+     * @param lineShift
+     * @param charShift
+     * @return collection
+     */
+    NodeContent replace(int index, int count, NodeContent source, int line, int offset, int lineShift,
+            int charShift) {
+        final int added = source != null ? source.size() : 0;
+        final int size = elements.length - count + added;
+
+        final String[] newProperties = properties != null ? new String[size] : null;
+        final NodeContent[] newElements = new NodeContent[size];
+        final int[] newLines = new int[size];
+        final int[] newOffsets = new int[size];
+
+        copy(0, newProperties, newElements, newLines, newOffsets, 0, index, 0, 0);
+        for (int i = 0; i < added; i++) {
+            if (newProperties != null) {
+                newProperties[index + i] = source.getProperty(i);
+            }
+            newElements[index + i] = source.elements[i];
+            newLines[index + i] = line + source.lines[i];
+            newOffsets[index + i] = offset + source.offsets[i];
+        }
+        copy(index + count, newProperties, newElements, newLines, newOffsets, index + added, elements.length
+                - index - count, lineShift, charShift);
+
+        return new NodeContent(kind, value, flow, keysComplete && (source == null || source.keysComplete), column,
+                endLine + lineShift, endColumn, endOffset + charShift, newProperties, newElements, newLines,
+                newOffsets, shadowed);
+    }
+
+    /**
+     * Returns a copy of this collection where the element at the given index is replaced by another content that
+     * starts at the same location.
+     *
+     * @param index
+     * @param element
+     * @param lineShift
+     *            lines by which the elements that follow and the end of this collection are moved
+     * @param charShift
+     *            characters by which the elements that follow and the end of this collection are moved
+     * @return collection
+     */
+    NodeContent replace(int index, NodeContent element, int lineShift, int charShift) {
+        final int size = elements.length;
+        final String[] newProperties = properties != null ? properties.clone() : null;
+        final NodeContent[] newElements = new NodeContent[size];
+        final int[] newLines = new int[size];
+        final int[] newOffsets = new int[size];
+
+        copy(0, newProperties, newElements, newLines, newOffsets, 0, size, 0, 0);
+        newElements[index] = element;
+        for (int i = index + 1; i < size; i++) {
+            newLines[i] += lineShift;
+            newOffsets[i] += charShift;
+        }
+
+        return new NodeContent(kind, value, flow, keysComplete, column, endLine + lineShift, endColumn, endOffset
+                + charShift, newProperties, newElements, newLines, newOffsets, shadowed);
+    }
+
+    private void copy(int from, String[] newProperties, NodeContent[] newElements, int[] newLines, int[] newOffsets,
+            int to, int length, int lineShift, int charShift) {
+        if (newProperties != null) {
+            System.arraycopy(properties, from, newProperties, to, length);
+        }
+        System.arraycopy(elements, from, newElements, to, length);
+        for (int i = 0; i < length; i++) {
+            newLines[to + i] = lines[from + i] + lineShift;
+            newOffsets[to + i] = offsets[from + i] + charShift;
+        }
+    }
+
+    /**
+     * Collects the elements of a collection while it is read and creates its content once it ends.
+     */
+    static class Builder {
+
+        private final Kind kind;
+        private final String property;
+        private final Location start;
+        private final boolean flow;
+        private boolean keysComplete = true;
+        private final List<String> properties = new ArrayList<>();
+        private final List<NodeContent> elements = new ArrayList<>();
+        private final List<Location> starts = new ArrayList<>();
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private Builder shadowed;
+
+        /**
+         * @param kind
+         *            object or array
+         * @param property
+         *            property of the collection in its parent, if any
+         * @param start
+         * @param flow
+         */
+        Builder(Kind kind, String property, Location start, boolean flow) {
+            this.kind = kind;
+            this.property = property;
+            this.start = start;
+            this.flow = flow;
+        }
+
+        String getProperty() {
+            return property;
+        }
+
+        Location getStart() {
+            return start;
+        }
+
+        boolean contains(String property) {
+            return indexes.containsKey(property);
+        }
+
+        /**
+         * Tells that the mapping has an entry that cannot be represented as an element of the object.
+         */
+        void setKeysIncomplete() {
+            keysComplete = false;
+        }
+
+        /**
+         * Adds an element, the element of an object replaces the one that has the same property.
+         */
+        void add(String property, NodeContent element, Location elementStart) {
+            if (kind == Kind.OBJECT) {
+                final Integer index = indexes.get(property);
+                if (index != null) {
+                    keysComplete = false;
+                    if (shadowed == null) {
+                        shadowed = new Builder(kind, null, start, flow);
+                    }
+                    shadowed.properties.add(property);
+                    shadowed.elements.add(elements.get(index));
+                    shadowed.starts.add(starts.get(index));
+                    elements.set(index, element);
+                    starts.set(index, elementStart);
+                    return;
+                }
+                indexes.put(property, properties.size());
+                properties.add(property);
+            }
+            elements.add(element);
+            starts.add(elementStart);
+        }
+
+        NodeContent build(Location end) {
+            final int size = elements.size();
+            final int[] lines = new int[size];
+            final int[] offsets = new int[size];
+            for (int i = 0; i < size; i++) {
+                lines[i] = starts.get(i).getLine() - start.getLine();
+                offsets[i] = starts.get(i).getOffset() - start.getOffset();
+            }
+
+            return new NodeContent(kind, null, flow, keysComplete, start.getColumn(), end.getLine() - start.getLine(),
+                    end.getColumn(), end.getOffset() - start.getOffset(), kind == Kind.OBJECT ? properties
+                            .toArray(new String[size]) : null, elements.toArray(new NodeContent[size]), lines,
+                    offsets, shadowed != null ? shadowed.build(end) : null);
+        }
+    }
+
+}
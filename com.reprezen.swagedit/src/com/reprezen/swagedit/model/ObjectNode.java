@@ -10,33 +10,24 @@
  *******************************************************************************/
 package com.reprezen.swagedit.model;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
-
 import com.fasterxml.jackson.core.JsonPointer;
-import com.google.common.collect.Iterables;
 
 public class ObjectNode extends AbstractNode {
 
-    private final Map<String, AbstractNode> elements = new LinkedHashMap<>();
-
-    ObjectNode(Model model, AbstractNode parent, JsonPointer ptr) {
-        super(model, parent, ptr);
+    ObjectNode(Model model, AbstractNode parent, JsonPointer ptr, String property, NodeContent content, int line,
+            int offset) {
+        super(model, parent, ptr, property, content, line, offset);
     }
 
     @Override
     public AbstractNode get(int pos) {
-        return Iterables.get(elements.values(), pos);
+        return element(pos);
     }
 
     @Override
     public AbstractNode get(String property) {
-        return elements.get(property);
-    }
-
-    public AbstractNode put(String property, AbstractNode value) {
-        this.elements.put(property, value);
-        return this;
+        final int index = content.indexOf(property);
+        return index >= 0 ? element(index) : null;
     }
 
     @Override
@@ -49,11 +40,6 @@ public class ObjectNode extends AbstractNode {
         return false;
     }
 
-    @Override
-    public Iterable<AbstractNode> elements() {
-        return elements.values();
-    }
-
     @Override
     public String getText() {
         return getProperty() == null ? "" : getProperty();
@@ -61,6 +47,13 @@ public class ObjectNode extends AbstractNode {
 
     @Override
     public String toString() {
-        return elements.toString();
+        final StringBuilder builder = new StringBuilder("{");
+        for (AbstractNode element : elements()) {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(element.getProperty()).append('=').append(element);
+        }
+        return builder.append('}').toString();
     }
 }
\ No newline at end of file
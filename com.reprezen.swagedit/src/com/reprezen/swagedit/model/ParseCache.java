@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.model;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.reprezen.swagedit.schema.SwaggerSchema;
+
+/**
+ * Bounded cache of parse results shared by all documents.
+ *
+ * <br/>
+ *
+ * Results are identified by the parsed content and by the schema used to resolve the types of the model. The cache is
+ * bounded by an estimate of the memory used by the results, computed from the length of their content, the least
+ * recently used results are discarded first. Only the results of whole contents and the results published once a
+ * document is idle or saved are cached, not the results of each modification, see {@link ParseResult#reparse}.
+ */
+public class ParseCache {
+
+    /**
+     * Default estimate, in bytes, of the memory used by the cached results.
+     */
+    public static final long DEFAULT_MAX_WEIGHT = 64 * 1024 * 1024;
+
+    // estimate of the memory used by a character of the content once its model, YAML and JSON trees are built
+    private static final int CHAR_WEIGHT = 40;
+
+    private static final ParseCache INSTANCE = new ParseCache(DEFAULT_MAX_WEIGHT);
+
+    public static ParseCache getInstance() {
+        return INSTANCE;
+    }
+
+    private final Map<Key, ParseResult> results = new LinkedHashMap<>(16, 0.75f, true);
+    private final long maxWeight;
+    private long weight = 0;
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * Creates a cache that keeps results up to the given estimate of memory.
+     *
+     * @param maxWeight
+     *            in bytes
+     */
+    public ParseCache(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Returns the result of parsing the content with the given schema, or null if it is not in the cache.
+     *
+     * @param schema
+     * @param content
+     * @return result or null
+     */
+    public ParseResult get(SwaggerSchema schema, String content) {
+        final Key key = new Key(schema, content);
+
+        synchronized (this) {
+            final ParseResult result = results.get(key);
+            if (result != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Adds the result to the cache, unless it is larger than the cache.
+     *
+     * @param schema
+     * @param result
+     */
+    public void put(SwaggerSchema schema, ParseResult result) {
+        if (result == null || result.getContent() == null || weigh(result) > maxWeight) {
+            return;
+        }
+
+        final Key key = new Key(schema, result.getContent());
+        synchronized (this) {
+            final ParseResult previous = results.put(key, result);
+            weight += weigh(result) - (previous != null ? weigh(previous) : 0);
+
+            for (Iterator<ParseResult> it = results.values().iterator(); weight > maxWeight && it.hasNext();) {
+                weight -= weigh(it.next());
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns an estimate, in bytes, of the memory used by the result.
+     *
+     * @param result
+     * @return weight
+     */
+    public static long weigh(ParseResult result) {
+        return (long) result.getContent().length() * CHAR_WEIGHT;
+    }
+
+    public synchronized void clear() {
+        results.clear();
+        weight = 0;
+        hits = 0;
+        misses = 0;
+    }
+
+    public synchronized int size() {
+        return results.size();
+    }
+
+    /**
+     * Returns the estimate, in bytes, of the memory used by the cached results.
+     *
+     * @return weight
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    /**
+     * Returns the number of requests that have found a result in the cache.
+     *
+     * @return hit count
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of requests that have not found a result in the cache.
+     *
+     * @return miss count
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /*
+     * The content is already kept by the result, its hash code is computed once by the string.
+     */
+    private static class Key {
+        private final SwaggerSchema schema;
+        private final String content;
+
+        Key(SwaggerSchema schema, String content) {
+            this.schema = schema;
+            this.content = content;
+        }
+
+        @Override
+        public int hashCode() {
+            return content.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            // types of the model belong to the schema instance
+            return schema == other.schema && content.equals(other.content);
+        }
+    }
+
+}
@@ -0,0 +1,406 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.model;
+
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jface.text.IDocumentExtension4;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.composer.Composer;
+import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.error.MarkedYAMLException;
+import org.yaml.snakeyaml.nodes.Node;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.base.Strings;
+import com.reprezen.swagedit.schema.SwaggerSchema;
+
+/**
+ * Result of parsing a YAML content once.
+ *
+ * <br/>
+ *
+ * The YAML node tree and the model are built from the same stream of parser events, the JSON representation is
+ * constructed from the YAML node tree the first time it is requested. A result obtained by updating a previous one only
+ * updates the model, its YAML node tree is composed the first time it is requested.
+ *
+ * If the content is not valid YAML, the result only contains the error and a partial model, see
+ * {@link Model#isPartial()}.
+ */
+public class ParseResult {
+
+    // number of times a whole content has been composed
+    private static final AtomicLong composeCount = new AtomicLong();
+
+    private final String content;
+    private final long stamp;
+    private final boolean hasYaml;
+    private final Model model;
+    private final Exception yamlError;
+    private final boolean mergeKeys;
+    private final boolean updatable;
+    private final List<Pair<String, Node>> duplicateKeys;
+    // result with the same content whose JSON representation is shared
+    private final ParseResult origin;
+
+    private Node yaml;
+    private JsonNode json;
+    private Exception jsonError;
+    private boolean jsonDone = false;
+    private LocationIndex locations;
+
+    ParseResult(String content, long stamp, Node yaml, Model model, Exception yamlError, boolean mergeKeys,
+            boolean updatable) {
+        this(content, stamp, yaml != null, yaml, model, yamlError, mergeKeys, updatable, Collections
+                .<Pair<String, Node>> emptyList(), null);
+    }
+
+    private ParseResult(String content, long stamp, boolean hasYaml, Node yaml, Model model, Exception yamlError,
+            boolean mergeKeys, boolean updatable, List<Pair<String, Node>> duplicateKeys, ParseResult origin) {
+        this.content = content;
+        this.stamp = stamp;
+        this.hasYaml = hasYaml;
+        this.yaml = yaml;
+        this.model = model;
+        this.yamlError = yamlError;
+        this.mergeKeys = mergeKeys;
+        this.updatable = updatable;
+        this.duplicateKeys = duplicateKeys;
+        this.origin = origin;
+    }
+
+    /**
+     * Returns the result of a valid content whose model has been obtained by updating the model of a previous result,
+     * its YAML node tree is composed when it is requested.
+     */
+    static ParseResult updated(String content, long stamp, Model model) {
+        return new ParseResult(content, stamp, true, null, model, null, false, true, Collections
+                .<Pair<String, Node>> emptyList(), null);
+    }
+
+    /**
+     * Parses the content and returns the result.
+     *
+     * @param schema
+     * @param content
+     * @return result
+     */
+    public static ParseResult parse(SwaggerSchema schema, String content) {
+        return parse(schema, content, IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP, null);
+    }
+
+    /**
+     * Parses the content of a document at the given modification stamp and returns the result.
+     *
+     * If the same content has already been parsed, the result is taken from the {@link ParseCache}.
+     *
+     * @param schema
+     * @param content
+     * @param stamp
+     *            modification stamp of the document when the content was read
+     * @param monitor
+     *            monitor used to cancel the parsing, may be null
+     * @return result
+     * @throws OperationCanceledException
+     *             if the monitor is canceled during the parsing
+     */
+    public static ParseResult parse(SwaggerSchema schema, String content, long stamp, IProgressMonitor monitor) {
+        if (Strings.emptyToNull(content) == null) {
+            return new ParseResult(content, stamp, null, Model.empty(schema), null, false, false);
+        }
+
+        final ParseResult cached = ParseCache.getInstance().get(schema, content);
+        if (cached != null) {
+            return cached.withStamp(stamp);
+        }
+
+        return compose(schema, content, stamp, monitor);
+    }
+
+    /**
+     * Returns the result of parsing the content obtained by replacing a region of the content of a previous result.
+     *
+     * Only the block entry that contains the region is parsed if possible, see {@link #update}, such results are not
+     * added to the {@link ParseCache}. Otherwise the result is taken from the cache if the new content has already
+     * been parsed, or else the whole content is parsed.
+     *
+     * @param schema
+     * @param previous
+     * @param content
+     *            new content
+     * @param stamp
+     *            modification stamp of the document when the content was read
+     * @param offset
+     * @param oldLength
+     * @param newLength
+     * @param monitor
+     *            monitor used to cancel the parsing, may be null
+     * @return result
+     * @throws OperationCanceledException
+     *             if the monitor is canceled during the parsing
+     */
+    public static ParseResult reparse(SwaggerSchema schema, ParseResult previous, String content, long stamp,
+            int offset, int oldLength, int newLength, IProgressMonitor monitor) {
+        if (Strings.emptyToNull(content) == null) {
+            return parse(schema, content, stamp, monitor);
+        }
+
+        final ParseResult updated = update(previous, content, stamp, offset, oldLength, newLength, monitor);
+        if (updated != null) {
+            return updated;
+        }
+
+        final ParseResult cached = ParseCache.getInstance().get(schema, content);
+        if (cached != null) {
+            return cached.withStamp(stamp);
+        }
+
+        final ParseResult result = compose(schema, content, stamp, monitor);
+        if (!result.hasYaml() && result.getYamlError() != null && previous != null && previous.hasYaml()
+                && previous.updatable) {
+            // keeps the nodes of the previous model located outside of the broken entry
+            Model model = new IncrementalParser(previous, content, stamp, monitor).recover(offset, oldLength,
+                    newLength);
+            if (model != null) {
+                return new ParseResult(content, stamp, null, model, result.getYamlError(), false, false);
+            }
+        }
+
+        return result;
+    }
+
+    private static ParseResult compose(SwaggerSchema schema, String content, long stamp, IProgressMonitor monitor) {
+        ParseResult result;
+        final ModelComposer composer = new ModelComposer(monitor);
+        composeCount.incrementAndGet();
+
+        try {
+            Node yaml = composer.compose(new StringReader(content));
+
+            // nodes shared between several places of the tree cannot be updated separately
+            boolean updatable = !composer.hasMergeKeys() && !composer.hasAnchors() && !composer.hasDuplicateKeys();
+
+            result = new ParseResult(content, stamp, yaml != null, yaml, composer.getModel(schema, null, null, null),
+                    null, composer.hasMergeKeys(), updatable, composer.getDuplicateKeys(), null);
+        } catch (OperationCanceledException e) {
+            throw e;
+        } catch (Exception e) {
+            // the model keeps the nodes read before the error
+            Mark mark = e instanceof MarkedYAMLException ? ((MarkedYAMLException) e).getProblemMark() : null;
+            Model model = composer.getModel(schema, null, mark != null ? new Location(mark.getLine(),
+                    mark.getColumn(), mark.getIndex()) : new Location(0, 0, 0), endOf(content));
+
+            result = new ParseResult(content, stamp, null, model, e, false, false);
+        }
+
+        ParseCache.getInstance().put(schema, result);
+        return result;
+    }
+
+    /**
+     * Returns the result of parsing the content obtained by replacing in the content of a previous result the region
+     * starting at offset of length oldLength by a text of length newLength.
+     *
+     * Only the block entry that contains the region is parsed again, the rest of the previous result is reused. Returns
+     * null if the change cannot be handled that way, in which case the whole content must be parsed.
+     *
+     * @param previous
+     * @param content
+     *            new content
+     * @param stamp
+     *            modification stamp of the document when the content was read
+     * @param offset
+     * @param oldLength
+     * @param newLength
+     * @param monitor
+     *            monitor used to cancel the parsing, may be null
+     * @return result or null
+     * @throws OperationCanceledException
+     *             if the monitor is canceled during the parsing
+     */
+    public static ParseResult update(ParseResult previous, String content, long stamp, int offset, int oldLength,
+            int newLength, IProgressMonitor monitor) {
+        if (previous == null || !previous.hasYaml() || previous.model == null || !previous.updatable) {
+            return null;
+        }
+
+        return new IncrementalParser(previous, content, stamp, monitor).parse(offset, oldLength, newLength);
+    }
+
+    /**
+     * Returns the number of times the whole content of a document has been composed, either to parse it or to obtain
+     * the YAML node tree of a result obtained by updating a previous one.
+     *
+     * @return compose count
+     */
+    public static long getComposeCount() {
+        return composeCount.get();
+    }
+
+    private static Location endOf(String content) {
+        int start = content.length();
+        while (start > 0 && ModelComposer.countLines(content, start - 1, start) == 0) {
+            start--;
+        }
+        return new Location(ModelComposer.countLines(content, 0, content.length()), content.length() - start,
+                content.length());
+    }
+
+    /**
+     * Returns a result for the same content read at another modification stamp, the representations of the content are
+     * shared with this result.
+     *
+     * @param stamp
+     * @return result
+     */
+    public ParseResult withStamp(long stamp) {
+        if (stamp == this.stamp) {
+            return this;
+        }
+        return new ParseResult(content, stamp, hasYaml, yaml, model, yamlError, mergeKeys, updatable, duplicateKeys,
+                origin != null ? origin : this);
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    /**
+     * Returns the modification stamp of the document whose content has been parsed.
+     *
+     * @return modification stamp
+     */
+    public long getStamp() {
+        return stamp;
+    }
+
+    /**
+     * Returns true if the content is valid YAML and contains a document. Unlike {@link #getYaml()}, it does not compose
+     * the YAML node tree of a result obtained by updating a previous one.
+     *
+     * @return true if the result has a YAML node tree
+     */
+    public boolean hasYaml() {
+        return hasYaml;
+    }
+
+    /**
+     * Returns the YAML node tree, or null if the content is not valid YAML.
+     *
+     * @return YAML node
+     */
+    public synchronized Node getYaml() {
+        if (origin != null) {
+            return origin.getYaml();
+        }
+        if (yaml == null && hasYaml) {
+            composeCount.incrementAndGet();
+            yaml = new Yaml().compose(new StringReader(content));
+        }
+        return yaml;
+    }
+
+    public Exception getYamlError() {
+        return yamlError;
+    }
+
+    /**
+     * Returns the scalar keys that appear more than once in the same mapping of the YAML node tree, each with its key
+     * node. They are found while the content is parsed.
+     *
+     * @return duplicate keys
+     * @see ModelComposer#getDuplicateKeys()
+     */
+    public List<Pair<String, Node>> getDuplicateKeys() {
+        return duplicateKeys;
+    }
+
+    /**
+     * Returns the model, it is partial if the content is not valid YAML.
+     *
+     * @return model
+     */
+    public Model getModel() {
+        return model;
+    }
+
+    /**
+     * Returns the JSON representation of the content, or null if the content is not valid YAML or cannot be converted
+     * into JSON.
+     *
+     * @return JSON node
+     */
+    public synchronized JsonNode getJson() {
+        if (origin != null) {
+            return origin.getJson();
+        }
+        if (!jsonDone) {
+            constructJson();
+            jsonDone = true;
+        }
+        return json;
+    }
+
+    public synchronized Exception getJsonError() {
+        if (origin != null) {
+            return origin.getJsonError();
+        }
+        getJson();
+        return jsonError;
+    }
+
+    /**
+     * Returns the index of the locations of the nodes of the JSON representation in the content, or null if the
+     * content is not valid YAML.
+     *
+     * @return location index
+     */
+    public synchronized LocationIndex getLocations() {
+        if (origin != null) {
+            return origin.getLocations();
+        }
+        if (locations == null && hasYaml) {
+            locations = new LocationIndex(getYaml());
+        }
+        return locations;
+    }
+
+    private void constructJson() {
+        if (!hasYaml) {
+            return;
+        }
+
+        // merge keys are flattened in place by the constructor,
+        // in that case it should operate on a copy of the tree.
+        final Node root = mergeKeys ? new Yaml().compose(new StringReader(content)) : getYaml();
+        final Constructor constructor = new Constructor();
+        constructor.setComposer(new Composer(null, null) {
+            @Override
+            public Node getSingleNode() {
+                return root;
+            }
+        });
+
+        try {
+            json = io.swagger.util.Yaml.mapper().valueToTree(constructor.getSingleData(Object.class));
+        } catch (Exception e) {
+            jsonError = e;
+        }
+    }
+
+}
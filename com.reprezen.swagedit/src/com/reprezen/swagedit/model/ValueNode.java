@@ -14,12 +14,9 @@ import com.fasterxml.jackson.core.JsonPointer;
 
 public class ValueNode extends AbstractNode {
 
-    private final Object value;
-
-    ValueNode(Model model, AbstractNode parent, JsonPointer ptr, Object value) {
-        super(model, parent, ptr);
-
-        this.value = value;
+    ValueNode(Model model, AbstractNode parent, JsonPointer ptr, String property, NodeContent content, int line,
+            int offset) {
+        super(model, parent, ptr, property, content, line, offset);
     }
 
     @Override
@@ -33,13 +30,13 @@ public class ValueNode extends AbstractNode {
     }
 
     public Object getValue() {
-        return value;
+        return content.getValue();
     }
 
     @Override
     public String getText() {
         String text = getProperty() != null ? getProperty() + ": " : "";
-        return text + (value != null ? getValue().toString() : "");
+        return text + (getValue() != null ? getValue().toString() : "");
     }
 
     @Override
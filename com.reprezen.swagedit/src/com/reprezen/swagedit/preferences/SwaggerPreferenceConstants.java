@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.preferences;
+
+/**
+ * Keys of the SwagEdit preferences.
+ */
+public class SwaggerPreferenceConstants {
+
+    /**
+     * Number of threads shared by the validations of all documents.
+     */
+    public static final String VALIDATION_THREADS = "com.reprezen.swagedit.validation.threads";
+
+    /**
+     * Delay in milliseconds after which the document is validated against the schema and the semantic rules, once the
+     * editor is idle.
+     */
+    public static final String VALIDATION_IDLE_DELAY = "com.reprezen.swagedit.validation.idleDelay";
+
+    /**
+     * Delay in milliseconds after which the references to other documents are validated, once the editor is idle.
+     * They are also validated when the document is saved.
+     */
+    public static final String VALIDATION_REFERENCES_DELAY = "com.reprezen.swagedit.validation.referencesDelay";
+
+}
@@ -17,6 +17,7 @@ import org.eclipse.jface.preference.PreferenceConverter;
 import org.eclipse.swt.graphics.RGB;
 
 import com.reprezen.swagedit.Activator;
+import com.reprezen.swagedit.validation.ValidationPool;
 
 /*
  * SwagEdit default preference values.
@@ -82,6 +83,10 @@ public class SwaggerPreferenceInitializer extends AbstractPreferenceInitializer
         store.setDefault(PreferenceConstants.BOLD_CONSTANT, true);
         store.setDefault(PreferenceConstants.ITALIC_CONSTANT, false);
         store.setDefault(PreferenceConstants.UNDERLINE_CONSTANT, false);
+
+        store.setDefault(SwaggerPreferenceConstants.VALIDATION_THREADS, ValidationPool.getDefaultParallelism());
+        store.setDefault(SwaggerPreferenceConstants.VALIDATION_IDLE_DELAY, 300);
+        store.setDefault(SwaggerPreferenceConstants.VALIDATION_REFERENCES_DELAY, 3000);
     }
 
 }
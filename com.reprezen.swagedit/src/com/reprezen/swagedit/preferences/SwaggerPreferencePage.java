@@ -11,6 +11,7 @@
 package com.reprezen.swagedit.preferences;
 
 import org.eclipse.jface.preference.FieldEditorPreferencePage;
+import org.eclipse.jface.preference.IntegerFieldEditor;
 import org.eclipse.ui.IWorkbench;
 import org.eclipse.ui.IWorkbenchPreferencePage;
 
@@ -32,8 +33,21 @@ public class SwaggerPreferencePage extends FieldEditorPreferencePage implements
 
     @Override
     protected void createFieldEditors() {
-        // TODO Auto-generated method stub
-
+        IntegerFieldEditor threads = new IntegerFieldEditor(SwaggerPreferenceConstants.VALIDATION_THREADS,
+                "Number of validation threads:", getFieldEditorParent());
+        threads.setValidRange(1, 64);
+        addField(threads);
+
+        IntegerFieldEditor idleDelay = new IntegerFieldEditor(SwaggerPreferenceConstants.VALIDATION_IDLE_DELAY,
+                "Delay before schema validation when idle (ms):", getFieldEditorParent());
+        idleDelay.setValidRange(0, 60000);
+        addField(idleDelay);
+
+        IntegerFieldEditor referencesDelay = new IntegerFieldEditor(
+                SwaggerPreferenceConstants.VALIDATION_REFERENCES_DELAY,
+                "Delay before validation of external references when idle (ms):", getFieldEditorParent());
+        referencesDelay.setValidRange(0, 600000);
+        addField(referencesDelay);
     }
 
 }
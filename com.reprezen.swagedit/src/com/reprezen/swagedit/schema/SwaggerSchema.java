@@ -11,12 +11,17 @@
 package com.reprezen.swagedit.schema;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 import com.fasterxml.jackson.core.JsonPointer;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
 import com.google.common.base.Strings;
 import com.reprezen.swagedit.json.references.JsonReference;
 import com.reprezen.swagedit.model.AbstractNode;
@@ -32,6 +37,10 @@ public class SwaggerSchema {
 
     private JsonSchema swaggerType;
     private JsonSchema coreType;
+    private volatile com.github.fge.jsonschema.main.JsonSchema validator;
+    // validators of parts of the schema, compiled by the same factory as the validator of the whole schema
+    private final Map<String, com.github.fge.jsonschema.main.JsonSchema> validators = new HashMap<>();
+    private JsonSchemaFactory factory;
 
     public SwaggerSchema() {
         init();
@@ -145,6 +154,92 @@ public class SwaggerSchema {
         swaggerType.setType(new ObjectTypeDefinition(swaggerType, JsonPointer.compile(""), content));
     }
 
+    /**
+     * Returns the validator compiled from the content of the schema. <br/>
+     * 
+     * The validator is compiled on the first call and then shared by all callers, it can be used from any thread.
+     * 
+     * @return validator
+     * @throws ProcessingException
+     *             if the schema cannot be compiled
+     */
+    public com.github.fge.jsonschema.main.JsonSchema getValidator() throws ProcessingException {
+        com.github.fge.jsonschema.main.JsonSchema result = validator;
+        if (result == null) {
+            synchronized (this) {
+                result = validator;
+                if (result == null) {
+                    result = getFactory().getJsonSchema(asJson());
+                    // validating a document loads the validators of the top level definitions
+                    result.validate(mapper.createObjectNode(), true);
+                    validator = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the validator of the definition of the schema located by the pointer, like
+     * <code>/definitions/pathItem</code>. <br/>
+     * 
+     * Like the validator of the whole schema, the validator is compiled on the first call and then shared by all
+     * callers.
+     * 
+     * @param pointer
+     *            of the definition
+     * @return validator
+     * @throws ProcessingException
+     *             if the definition cannot be compiled
+     */
+    public com.github.fge.jsonschema.main.JsonSchema getValidator(String pointer) throws ProcessingException {
+        return getValidator(pointer, Collections.<String> emptySet());
+    }
+
+    /**
+     * Returns the validator of the definition of the schema located by the pointer, in which the definitions located
+     * by the pointers in unchecked accept any value. Parts of a document validated by other validators are then not
+     * validated twice.
+     * 
+     * @param pointer
+     *            of the definition
+     * @param unchecked
+     *            pointers of the definitions that accept any value
+     * @return validator
+     * @throws ProcessingException
+     *             if the definition cannot be compiled
+     */
+    public synchronized com.github.fge.jsonschema.main.JsonSchema getValidator(String pointer,
+            Collection<String> unchecked) throws ProcessingException {
+        final String key = pointer + unchecked;
+        com.github.fge.jsonschema.main.JsonSchema result = validators.get(key);
+        if (result == null) {
+            JsonNode content = asJson();
+            if (!unchecked.isEmpty()) {
+                final ObjectNode copy = content.deepCopy();
+                for (String definition : unchecked) {
+                    final int index = definition.lastIndexOf('/');
+                    final String property = definition.substring(index + 1).replace("~1", "/").replace("~0", "~");
+                    ((ObjectNode) copy.at(definition.substring(0, index))).putObject(property);
+                }
+                content = copy;
+            }
+
+            result = pointer.isEmpty() ? getFactory().getJsonSchema(content) : getFactory().getJsonSchema(content,
+                    pointer);
+            result.validate(mapper.createObjectNode(), true);
+            validators.put(key, result);
+        }
+        return result;
+    }
+
+    private synchronized JsonSchemaFactory getFactory() {
+        if (factory == null) {
+            factory = JsonSchemaFactory.byDefault();
+        }
+        return factory;
+    }
+
     /**
      * Returns the content of the schema as JSON.
      * 
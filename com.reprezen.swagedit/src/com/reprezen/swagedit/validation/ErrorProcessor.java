@@ -10,8 +10,6 @@
  *******************************************************************************/
 package com.reprezen.swagedit.validation;
 
-import static com.reprezen.swagedit.validation.ValidationUtil.getLine;
-
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map.Entry;
@@ -25,6 +23,9 @@ import com.github.fge.jsonschema.core.report.ProcessingMessage;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.google.common.base.Joiner;
 import com.reprezen.swagedit.Messages;
+import com.reprezen.swagedit.model.Location;
+import com.reprezen.swagedit.model.LocationIndex;
+import com.reprezen.swagedit.model.ParseResult;
 import com.reprezen.swagedit.validation.SwaggerError.MultipleSwaggerError;
 
 /**
@@ -32,10 +33,20 @@ import com.reprezen.swagedit.validation.SwaggerError.MultipleSwaggerError;
  */
 public class ErrorProcessor {
 
-    private final Node document;
+    private final LocationIndex locations;
 
     public ErrorProcessor(Node document) {
-        this.document = document;
+        this(new LocationIndex(document));
+    }
+
+    /**
+     * Creates a processor that locates errors with the index of a parsed document.
+     * 
+     * @param locations
+     * @see ParseResult#getLocations()
+     */
+    public ErrorProcessor(LocationIndex locations) {
+        this.locations = locations;
     }
 
     /**
@@ -103,16 +114,20 @@ public class ErrorProcessor {
     }
 
     private SwaggerError createUnique(JsonNode error, int indent) {
-        final SwaggerError schemaError = new SwaggerError(getLine(error, document), getLevel(error),
+        final String pointer = getPointer(error);
+        final SwaggerError schemaError = new SwaggerError(locations.getLine(pointer), getLevel(error),
                 rewriteError(error));
         schemaError.indent = indent;
 
-        return schemaError;
+        return setRange(schemaError, pointer);
     }
 
     private SwaggerError createMultiple(JsonNode error, int indent) {
-        final MultipleSwaggerError schemaError = new MultipleSwaggerError(getLine(error, document), getLevel(error));
+        final String pointer = getPointer(error);
+        final MultipleSwaggerError schemaError = new MultipleSwaggerError(locations.getLine(pointer),
+                getLevel(error));
         schemaError.indent = indent;
+        setRange(schemaError, pointer);
 
         final JsonNode reports = error.get("reports");
         for (Iterator<Entry<String, JsonNode>> it = reports.fields(); it.hasNext();) {
@@ -123,6 +138,23 @@ public class ErrorProcessor {
         return schemaError;
     }
 
+    /*
+     * Returns the pointer to the instance that is invalid, or null if the error does not concern an instance.
+     */
+    private String getPointer(JsonNode error) {
+        final JsonNode instance = error.get("instance");
+        return instance != null && instance.has("pointer") ? instance.get("pointer").asText() : null;
+    }
+
+    private SwaggerError setRange(SwaggerError error, String pointer) {
+        final Location start = locations.getStart(pointer);
+        final Location end = locations.getEnd(pointer);
+        if (start != null && end != null) {
+            error.setRange(start.getOffset(), end.getOffset());
+        }
+        return error;
+    }
+
     protected String rewriteError(JsonNode error) {
         if (error == null) {
             return "";
@@ -0,0 +1,330 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.google.common.base.Charsets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.reprezen.swagedit.schema.SwaggerSchema;
+
+/**
+ * Validates a document against the Swagger schema one unit at a time.
+ *
+ * <br/>
+ *
+ * The document is split into units that can be validated independently: each path item, each entry of the
+ * definitions, parameters and responses, and the remaining top level fields. Each unit is validated against the
+ * definition of the schema that applies to it, and the messages of a unit are cached by a digest of its content, so
+ * that only the units that have changed since a previous validation are validated again. Units are validated in
+ * parallel by the {@link ValidationPool}. Messages are returned with pointers relative to the document, they are the
+ * same messages as the ones of a validation of the whole document. The validators of the units are compiled and shared
+ * by the {@link SwaggerSchema}.
+ */
+public class IncrementalSchemaValidator {
+
+    /**
+     * Default number of units kept in the cache.
+     */
+    public static final int DEFAULT_SIZE = 4096;
+
+    private static final IncrementalSchemaValidator INSTANCE = new IncrementalSchemaValidator(DEFAULT_SIZE);
+
+    public static IncrementalSchemaValidator getInstance() {
+        return INSTANCE;
+    }
+
+    /*
+     * Kinds of units, the root of the document is the unit validated against the schema in which the definitions of
+     * the other units are replaced by an empty schema.
+     */
+    private enum Kind {
+        PATH("paths", "/", "/definitions/pathItem", "/definitions/paths/patternProperties/^~1"), //
+        DEFINITION("definitions", "", "/definitions/schema", "/definitions/definitions/additionalProperties"), //
+        PARAMETER("parameters", "", "/definitions/parameter",
+                "/definitions/parameterDefinitions/additionalProperties"), //
+        RESPONSE("responses", "", "/definitions/response",
+                "/definitions/responseDefinitions/additionalProperties");
+
+        final String field;
+        final String prefix;
+        final String definition;
+        final String reference;
+
+        Kind(String field, String prefix, String definition, String reference) {
+            this.field = field;
+            this.prefix = prefix;
+            this.definition = definition;
+            this.reference = reference;
+        }
+    }
+
+    private final Map<Key, List<JsonNode>> messages;
+    private long hits = 0;
+    private long misses = 0;
+
+    public IncrementalSchemaValidator(final int size) {
+        this.messages = new LinkedHashMap<Key, List<JsonNode>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<JsonNode>> eldest) {
+                return size() > size;
+            }
+        };
+    }
+
+    /**
+     * Returns the messages of the validation of the document against the schema.
+     *
+     * @param schema
+     * @param document
+     * @return validation messages
+     * @throws ProcessingException
+     *             if a unit cannot be validated
+     */
+    public List<JsonNode> validate(final SwaggerSchema schema, JsonNode document) throws ProcessingException {
+        final JsonSchema rootValidator = getRootValidator(schema);
+        final List<Callable<List<JsonNode>>> units = new ArrayList<>();
+
+        if (!document.isObject()) {
+            units.add(unit(schema, rootValidator, "", "", document));
+            return validate(units);
+        }
+
+        final ObjectNode root = JsonNodeFactory.instance.objectNode();
+        for (Iterator<Entry<String, JsonNode>> it = document.fields(); it.hasNext();) {
+            Entry<String, JsonNode> field = it.next();
+            root.set(field.getKey(), field.getValue());
+        }
+
+        for (Kind kind : Kind.values()) {
+            final JsonNode container = document.get(kind.field);
+            if (container == null || !container.isObject()) {
+                continue;
+            }
+
+            final JsonSchema validator = schema.getValidator(kind.definition);
+            final ObjectNode rest = root.putObject(kind.field);
+            for (Iterator<Entry<String, JsonNode>> it = container.fields(); it.hasNext();) {
+                Entry<String, JsonNode> field = it.next();
+                if (field.getKey().startsWith(kind.prefix)) {
+                    final String pointer = "/" + kind.field + "/" + escape(field.getKey());
+                    units.add(unit(schema, validator, kind.definition, pointer, field.getValue()));
+                    // the content of the unit is not validated against the root schema
+                    rest.putNull(field.getKey());
+                } else {
+                    rest.set(field.getKey(), field.getValue());
+                }
+            }
+        }
+
+        units.add(unit(schema, rootValidator, "", "", root));
+        return validate(units);
+    }
+
+    /*
+     * Validates the units in parallel and returns their messages in the order of the units.
+     */
+    private List<JsonNode> validate(List<Callable<List<JsonNode>>> units) throws ProcessingException {
+        final List<JsonNode> result = new ArrayList<>();
+        try {
+            for (List<JsonNode> messages : ValidationPool.invokeAll(units)) {
+                result.addAll(messages);
+            }
+        } catch (RuntimeException e) {
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof ProcessingException) {
+                    throw (ProcessingException) cause;
+                }
+            }
+            throw e;
+        }
+        return result;
+    }
+
+    private Callable<List<JsonNode>> unit(final SwaggerSchema schema, final JsonSchema validator,
+            final String definition, final String pointer, final JsonNode unit) {
+        return new Callable<List<JsonNode>>() {
+            @Override
+            public List<JsonNode> call() throws ProcessingException {
+                final List<JsonNode> messages = validate(schema, validator, definition, unit);
+                if (pointer.isEmpty() || messages.isEmpty()) {
+                    return messages;
+                }
+
+                final List<JsonNode> result = new ArrayList<>(messages.size());
+                for (JsonNode message : messages) {
+                    result.add(rebase(message, pointer));
+                }
+                return result;
+            }
+        };
+    }
+
+    private List<JsonNode> validate(SwaggerSchema schema, JsonSchema validator, String definition, JsonNode unit)
+            throws ProcessingException {
+        final Key key = new Key(schema, definition, unit.toString());
+
+        synchronized (this) {
+            final List<JsonNode> result = messages.get(key);
+            if (result != null) {
+                hits++;
+                return result;
+            }
+            misses++;
+        }
+
+        final ProcessingReport report = validator.validate(unit, true);
+        final List<JsonNode> result = new ArrayList<>();
+        for (Iterator<ProcessingMessage> it = report.iterator(); it.hasNext();) {
+            result.add(it.next().asJson());
+        }
+
+        synchronized (this) {
+            messages.put(key, result.isEmpty() ? Collections.<JsonNode> emptyList() : result);
+        }
+        return result;
+    }
+
+    /**
+     * Compiles the validators of the units of the schema, so that the first validation does not have to.
+     *
+     * @param schema
+     * @throws ProcessingException
+     *             if a unit validator cannot be compiled
+     */
+    public void prepare(SwaggerSchema schema) throws ProcessingException {
+        getRootValidator(schema);
+        for (Kind kind : Kind.values()) {
+            schema.getValidator(kind.definition);
+        }
+    }
+
+    /*
+     * Returns the validator of the schema in which the definitions of the other units accept any value.
+     */
+    private static JsonSchema getRootValidator(SwaggerSchema schema) throws ProcessingException {
+        final List<String> unchecked = new ArrayList<>();
+        for (Kind kind : Kind.values()) {
+            unchecked.add(kind.reference);
+        }
+        return schema.getValidator("", unchecked);
+    }
+
+    /*
+     * Returns a copy of the message in which the pointers to the instance are prefixed by the pointer of the unit.
+     */
+    private JsonNode rebase(JsonNode message, String pointer) {
+        if (!message.isObject()) {
+            return message;
+        }
+
+        final ObjectNode result = ((ObjectNode) message).deepCopy();
+        rebase(result, pointer);
+        return result;
+    }
+
+    private void rebase(ObjectNode message, String pointer) {
+        final JsonNode instance = message.get("instance");
+        if (instance instanceof ObjectNode && instance.has("pointer")) {
+            ((ObjectNode) instance).put("pointer", pointer + instance.get("pointer").asText());
+        }
+
+        final JsonNode reports = message.get("reports");
+        if (reports != null && reports.isObject()) {
+            for (JsonNode report : reports) {
+                for (JsonNode nested : report) {
+                    if (nested instanceof ObjectNode) {
+                        rebase((ObjectNode) nested, pointer);
+                    }
+                }
+            }
+        }
+    }
+
+    private static String escape(String property) {
+        return property.replace("~", "~0").replace("/", "~1");
+    }
+
+    public synchronized void clear() {
+        messages.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    public synchronized int size() {
+        return messages.size();
+    }
+
+    /**
+     * Returns the number of units whose messages have been found in the cache.
+     *
+     * @return hit count
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of units that have been validated.
+     *
+     * @return miss count
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    private static class Key {
+        private final SwaggerSchema schema;
+        private final String definition;
+        private final HashCode digest;
+        private final int length;
+
+        Key(SwaggerSchema schema, String definition, String content) {
+            this.schema = schema;
+            this.definition = definition;
+            this.digest = Hashing.sha1().hashString(content, Charsets.UTF_8);
+            this.length = content.length();
+        }
+
+        @Override
+        public int hashCode() {
+            return digest.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return schema == other.schema && length == other.length && definition.equals(other.definition)
+                    && digest.equals(other.digest);
+        }
+    }
+
+}
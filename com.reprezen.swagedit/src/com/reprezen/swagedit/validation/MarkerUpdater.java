@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Multiset;
+import com.reprezen.swagedit.Activator;
+
+/**
+ * Updates the SwagEdit problem markers of a file so that they match a set of errors.
+ *
+ * <br/>
+ *
+ * The markers of a file are owned by the editors of the file while it is open, so that they show the errors of the
+ * edited content, and by the builder otherwise, see {@link #isEdited(IFile)}. Markers of other types are left as is.
+ * Markers are compared with the errors by severity, line and message. Markers that still match an error are kept and
+ * only their region is updated when it has moved, only the markers of errors that have disappeared are deleted and
+ * only the markers of new errors are created. All changes are made in a single workspace operation, so that listeners
+ * receive a single delta.
+ */
+public class MarkerUpdater {
+
+    /**
+     * Type of the problem markers of the errors found by SwagEdit.
+     */
+    public static final String PROBLEM_MARKER = Activator.PLUGIN_ID + ".problem";
+
+    // files whose markers are updated by the editors that are open on them
+    private static final Multiset<IFile> editedFiles = ConcurrentHashMultiset.create();
+
+    private static final String[] ATTRIBUTES = { IMarker.SEVERITY, IMarker.MESSAGE, IMarker.LINE_NUMBER,
+            IMarker.CHAR_START, IMarker.CHAR_END };
+
+    private static final String[] REGION = { IMarker.CHAR_START, IMarker.CHAR_END };
+
+    /**
+     * Replaces the SwagEdit problem markers of the file by markers of the errors.
+     *
+     * @param file
+     * @param errors
+     * @throws CoreException
+     */
+    public static void update(final IFile file, final Collection<? extends SwaggerError> errors)
+            throws CoreException {
+        file.getWorkspace().run(new IWorkspaceRunnable() {
+            @Override
+            public void run(IProgressMonitor monitor) throws CoreException {
+                apply(file, errors);
+            }
+        }, file, IWorkspace.AVOID_UPDATE, null);
+    }
+
+    /**
+     * Tells that an editor updates the markers of the file with the errors of its content until it is closed, see
+     * {@link #release(IFile)}.
+     *
+     * @param file
+     */
+    public static void acquire(IFile file) {
+        editedFiles.add(file);
+    }
+
+    /**
+     * Tells that an editor of the file has been closed.
+     *
+     * @param file
+     */
+    public static void release(IFile file) {
+        editedFiles.remove(file);
+    }
+
+    /**
+     * Returns true if the markers of the file are updated by an editor that is open on it.
+     *
+     * @param file
+     * @return true if the file is edited
+     */
+    public static boolean isEdited(IFile file) {
+        return editedFiles.contains(file);
+    }
+
+    /* package */static void apply(IFile file, Collection<? extends SwaggerError> errors) throws CoreException {
+        final ListMultimap<List<Object>, ExistingMarker> existing = ArrayListMultimap.create();
+        final List<IMarker> deleted = new ArrayList<>();
+
+        for (IMarker marker : file.findMarkers(PROBLEM_MARKER, true, IResource.DEPTH_ZERO)) {
+            final ExistingMarker found = marker.exists() ? ExistingMarker.of(marker) : null;
+            if (found != null) {
+                existing.put(found.key, found);
+            } else {
+                deleted.add(marker);
+            }
+        }
+
+        final List<SwaggerError> added = new ArrayList<>();
+        final Map<IMarker, SwaggerError> moved = new LinkedHashMap<>();
+        for (SwaggerError error : errors) {
+            final ExistingMarker found = match(existing.get(key(error)), error);
+            if (found == null) {
+                added.add(error);
+            } else if (found.charStart != error.getCharStart() || found.charEnd != error.getCharEnd()) {
+                moved.put(found.marker, error);
+            }
+        }
+        for (ExistingMarker found : existing.values()) {
+            deleted.add(found.marker);
+        }
+
+        if (!deleted.isEmpty()) {
+            file.getWorkspace().deleteMarkers(deleted.toArray(new IMarker[deleted.size()]));
+        }
+        for (Map.Entry<IMarker, SwaggerError> entry : moved.entrySet()) {
+            entry.getKey().setAttributes(REGION, region(entry.getValue()));
+        }
+        for (SwaggerError error : added) {
+            file.createMarker(PROBLEM_MARKER).setAttributes(attributes(error));
+        }
+    }
+
+    /*
+     * Removes and returns the marker of the error, preferably one whose region has not moved.
+     */
+    private static ExistingMarker match(List<ExistingMarker> markers, SwaggerError error) {
+        if (markers.isEmpty()) {
+            return null;
+        }
+        for (int i = markers.size() - 1; i >= 0; i--) {
+            final ExistingMarker found = markers.get(i);
+            if (found.charStart == error.getCharStart() && found.charEnd == error.getCharEnd()) {
+                return markers.remove(i);
+            }
+        }
+        return markers.remove(markers.size() - 1);
+    }
+
+    private static Map<String, Object> attributes(SwaggerError error) {
+        final Map<String, Object> attributes = new HashMap<>(8);
+        attributes.put(IMarker.SEVERITY, error.getLevel());
+        attributes.put(IMarker.MESSAGE, error.getMessage());
+        attributes.put(IMarker.LINE_NUMBER, error.getLine());
+        if (error.getCharStart() >= 0) {
+            attributes.put(IMarker.CHAR_START, error.getCharStart());
+            attributes.put(IMarker.CHAR_END, error.getCharEnd());
+        }
+        return attributes;
+    }
+
+    /*
+     * Null values remove the region of markers of errors that no longer have one.
+     */
+    private static Object[] region(SwaggerError error) {
+        return error.getCharStart() >= 0 ? new Object[] { error.getCharStart(), error.getCharEnd() }
+                : new Object[] { null, null };
+    }
+
+    /*
+     * Errors are compared by their message, the message of errors matching multiple schemas is computed. The region is
+     * not part of the key, so that an edit that only shifts the offsets of errors keeps their markers.
+     */
+    private static List<Object> key(SwaggerError error) {
+        return Arrays.<Object> asList(error.getLevel(), error.getMessage(), error.getLine());
+    }
+
+    private static class ExistingMarker {
+        final IMarker marker;
+        final List<Object> key;
+        final int charStart;
+        final int charEnd;
+
+        ExistingMarker(IMarker marker, List<Object> key, int charStart, int charEnd) {
+            this.marker = marker;
+            this.key = key;
+            this.charStart = charStart;
+            this.charEnd = charEnd;
+        }
+
+        static ExistingMarker of(IMarker marker) throws CoreException {
+            final Object[] values = marker.getAttributes(ATTRIBUTES);
+            if (!(values[0] instanceof Integer) || !(values[1] instanceof String) || !(values[2] instanceof Integer)) {
+                return null;
+            }
+            // markers without region have no offsets
+            final int charStart = values[3] instanceof Integer ? (Integer) values[3] : -1;
+            final int charEnd = values[4] instanceof Integer ? (Integer) values[4] : -1;
+            return new ExistingMarker(marker, Arrays.asList(values[0], values[1], values[2]), charStart, charEnd);
+        }
+    }
+
+}
@@ -39,6 +39,9 @@ public class SwaggerError {
     public int line;
     public int indent = 0;
 
+    private int charStart = -1;
+    private int charEnd = -1;
+
     public SwaggerError(int line, int level, String message) {
         this.line = line;
         this.level = level;
@@ -83,6 +86,40 @@ public class SwaggerError {
         return line;
     }
 
+    /**
+     * Returns the offset of the first character of the region of the error, or -1 if the region is not known.
+     * 
+     * @return start offset
+     */
+    public int getCharStart() {
+        return charStart;
+    }
+
+    /**
+     * Returns the offset after the last character of the region of the error, or -1 if the region is not known.
+     * 
+     * @return end offset
+     */
+    public int getCharEnd() {
+        return charEnd;
+    }
+
+    /**
+     * Sets the region of the document in which the error is located, in addition to its line. The region is not used
+     * to compare errors.
+     * 
+     * @param start
+     * @param end
+     * @return this error
+     */
+    public SwaggerError setRange(int start, int end) {
+        if (start >= 0 && end >= start) {
+            this.charStart = start;
+            this.charEnd = end;
+        }
+        return this;
+    }
+
     String getMessage(boolean withIndent) {
         if (withIndent) {
             final StringBuilder builder = new StringBuilder();
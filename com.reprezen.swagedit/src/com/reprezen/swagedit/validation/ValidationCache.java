@@ -0,0 +1,367 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.reprezen.swagedit.schema.SwaggerSchema;
+
+/**
+ * Cache of validation results kept on disk, so that the errors of a document that has already been validated are
+ * available without validating it again, including in later sessions.
+ *
+ * <br/>
+ *
+ * Results are identified by a digest of the content of the document, of the schema and of the version of the
+ * validator. A result also records the size and modification time of the documents referenced by the validated
+ * document, it is discarded if one of them has changed. Only references to local files can be checked, results of
+ * documents that reference other locations are not cached.
+ *
+ * <br/>
+ *
+ * Each result is stored in a compressed binary file. The total size of the files is bounded, when it is exceeded the
+ * least recently used results are deleted.
+ */
+public class ValidationCache {
+
+    /**
+     * Default maximum size in bytes of the files of the cache.
+     */
+    public static final long DEFAULT_MAX_SIZE = 8 * 1024 * 1024;
+
+    private static final int MAGIC = 0x53574543;
+    private static final int FORMAT = 1;
+    private static final String SUFFIX = ".bin";
+    private static final int MAX_STRING_LENGTH = 1024 * 1024;
+
+    private final File directory;
+    private final String version;
+    private final long maxSize;
+
+    private final Map<SwaggerSchema, HashCode> schemas = new WeakHashMap<>();
+    // size of the file of each result, in access order
+    private LinkedHashMap<String, Long> entries;
+    private long size = 0;
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * Creates a cache whose results are stored in the directory.
+     *
+     * @param directory
+     * @param version
+     *            version of the validator, results of other versions are ignored
+     * @param maxSize
+     *            maximum size in bytes of the files of the cache
+     */
+    public ValidationCache(File directory, String version, long maxSize) {
+        this.directory = directory;
+        this.version = version;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the key of the result of the validation of the content with the schema.
+     *
+     * @param schema
+     * @param content
+     * @return key
+     */
+    public String getKey(SwaggerSchema schema, String content) {
+        return getKey(schema, content, null);
+    }
+
+    /**
+     * Returns the key of the result of the validation of the content with the schema, for a document located at the
+     * base URI. Results that depend on the resolution of relative references, such as the errors of references, must
+     * be stored under a key that includes the location of the document.
+     *
+     * @param schema
+     * @param content
+     * @param baseURI
+     *            location of the document, or null if the result does not depend on it
+     * @return key
+     */
+    public String getKey(SwaggerSchema schema, String content, URI baseURI) {
+        final Hasher hasher = Hashing.sha1().newHasher() //
+                .putInt(FORMAT) //
+                .putString(version, Charsets.UTF_8) //
+                .putBytes(getDigest(schema).asBytes()) //
+                .putString(content, Charsets.UTF_8);
+        if (baseURI != null) {
+            hasher.putByte((byte) 0).putString(baseURI.toString(), Charsets.UTF_8);
+        }
+        return hasher.hash().toString();
+    }
+
+    private HashCode getDigest(SwaggerSchema schema) {
+        synchronized (schemas) {
+            HashCode digest = schemas.get(schema);
+            if (digest == null) {
+                digest = Hashing.sha1().hashString(schema.asJson().toString(), Charsets.UTF_8);
+                schemas.put(schema, digest);
+            }
+            return digest;
+        }
+    }
+
+    /**
+     * Returns the errors stored under the key, or null if there are none or if a referenced document has changed
+     * since.
+     *
+     * @param key
+     * @return errors or null
+     */
+    public synchronized Set<SwaggerError> get(String key) {
+        final Set<SwaggerError> errors = getEntries().containsKey(key) ? read(key) : null;
+        if (errors != null) {
+            hits++;
+            // the result becomes the most recently used one, in this session and the next ones
+            getEntries().get(key);
+            getFile(key).setLastModified(System.currentTimeMillis());
+        } else {
+            misses++;
+            remove(key);
+        }
+        return errors;
+    }
+
+    /**
+     * Stores the errors under the key, with the documents referenced by the validated document.
+     *
+     * @param key
+     * @param errors
+     * @param dependencies
+     *            locations of the referenced documents
+     */
+    public synchronized void put(String key, Collection<? extends SwaggerError> errors, Collection<URI> dependencies) {
+        for (URI dependency : dependencies) {
+            if (!"file".equals(dependency.getScheme())) {
+                return;
+            }
+        }
+
+        final File file = getFile(key);
+        try {
+            directory.mkdirs();
+            final File temp = File.createTempFile(key, ".tmp", directory);
+            try {
+                write(temp, errors, dependencies);
+                remove(key);
+                if (!temp.renameTo(file)) {
+                    throw new IOException("Cannot rename " + temp + " to " + file);
+                }
+            } finally {
+                temp.delete();
+            }
+        } catch (IOException e) {
+            return;
+        }
+
+        getEntries().put(key, file.length());
+        size += file.length();
+        evict();
+    }
+
+    public synchronized void clear() {
+        for (String key : new ArrayList<>(getEntries().keySet())) {
+            remove(key);
+        }
+        hits = 0;
+        misses = 0;
+    }
+
+    /**
+     * Returns the number of results in the cache.
+     *
+     * @return count
+     */
+    public synchronized int size() {
+        return getEntries().size();
+    }
+
+    /**
+     * Returns the size in bytes of the files of the cache.
+     *
+     * @return size
+     */
+    public synchronized long getTotalSize() {
+        getEntries();
+        return size;
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    private File getFile(String key) {
+        return new File(directory, key + SUFFIX);
+    }
+
+    private void remove(String key) {
+        final Long length = getEntries().remove(key);
+        if (length != null) {
+            size -= length;
+            getFile(key).delete();
+        }
+    }
+
+    private void evict() {
+        for (Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator(); size > maxSize && it.hasNext();) {
+            final Map.Entry<String, Long> eldest = it.next();
+            it.remove();
+            size -= eldest.getValue();
+            getFile(eldest.getKey()).delete();
+        }
+    }
+
+    /*
+     * Loads the results stored by previous sessions, least recently used first.
+     */
+    private Map<String, Long> getEntries() {
+        if (entries != null) {
+            return entries;
+        }
+
+        entries = new LinkedHashMap<>(16, 0.75f, true);
+        final File[] files = directory.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.endsWith(SUFFIX);
+            }
+        });
+        if (files != null) {
+            final List<File> sorted = Arrays.asList(files);
+            Collections.sort(sorted, new Comparator<File>() {
+                @Override
+                public int compare(File o1, File o2) {
+                    return Long.compare(o1.lastModified(), o2.lastModified());
+                }
+            });
+            for (File file : sorted) {
+                final String name = file.getName();
+                entries.put(name.substring(0, name.length() - SUFFIX.length()), file.length());
+                size += file.length();
+            }
+        }
+        evict();
+        return entries;
+    }
+
+    private void write(File file, Collection<? extends SwaggerError> errors, Collection<URI> dependencies)
+            throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(
+                new FileOutputStream(file))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+
+            out.writeInt(dependencies.size());
+            for (URI dependency : dependencies) {
+                final File target = new File(dependency);
+                writeString(out, dependency.toString());
+                out.writeLong(target.lastModified());
+                out.writeLong(target.length());
+            }
+
+            out.writeInt(errors.size());
+            for (SwaggerError error : errors) {
+                out.writeInt(error.getLevel());
+                out.writeInt(error.getLine());
+                out.writeInt(error.getCharStart());
+                out.writeInt(error.getCharEnd());
+                writeString(out, error.getMessage());
+            }
+        }
+    }
+
+    /*
+     * Returns the errors stored in the file, or null if the file cannot be read or a dependency has changed.
+     */
+    private Set<SwaggerError> read(String key) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(
+                new FileInputStream(getFile(key)))))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT) {
+                return null;
+            }
+
+            final int dependencies = in.readInt();
+            for (int i = 0; i < dependencies; i++) {
+                final File target = new File(URI.create(readString(in)));
+                final long modified = in.readLong();
+                final long length = in.readLong();
+                if (modified != target.lastModified() || length != target.length()) {
+                    return null;
+                }
+            }
+
+            final int count = in.readInt();
+            final Set<SwaggerError> errors = new HashSet<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                final int level = in.readInt();
+                final int line = in.readInt();
+                final int start = in.readInt();
+                final int end = in.readInt();
+                errors.add(new SwaggerError(line, level, readString(in)).setRange(start, end));
+            }
+            return errors;
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        final byte[] bytes = (value != null ? value : "").getBytes(Charsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0 || length > MAX_STRING_LENGTH) {
+            throw new IOException("Invalid string length " + length);
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, Charsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Pool of threads shared by the validations of all documents.
+ *
+ * <br/>
+ *
+ * The number of threads of the pool is bounded, so that validating several documents at the same time does not use
+ * more threads than the pool allows. Tasks submitted from a task already running in the pool are executed by the
+ * threads of the pool, which makes it possible to split a task into smaller tasks.
+ */
+public final class ValidationPool {
+
+    /**
+     * System property that sets the number of threads used by validations.
+     */
+    public static final String PARALLELISM_PROPERTY = "com.reprezen.swagedit.validation.threads";
+
+    private static ForkJoinPool pool;
+
+    private ValidationPool() {
+    }
+
+    /**
+     * Returns the default number of threads of the pool, which is the value of the system property
+     * {@link #PARALLELISM_PROPERTY} or else the number of available processors minus one.
+     *
+     * @return default parallelism
+     */
+    public static int getDefaultParallelism() {
+        int processors = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        return Math.max(1, Integer.getInteger(PARALLELISM_PROPERTY, processors));
+    }
+
+    /**
+     * Returns the number of threads of the pool.
+     *
+     * @return parallelism
+     */
+    public static synchronized int getParallelism() {
+        return getPool().getParallelism();
+    }
+
+    /**
+     * Sets the number of threads of the pool. Tasks that are already running complete on the previous pool.
+     *
+     * @param parallelism
+     */
+    public static synchronized void setParallelism(int parallelism) {
+        final int value = Math.max(1, parallelism);
+        if (pool != null && pool.getParallelism() == value) {
+            return;
+        }
+        if (pool != null) {
+            pool.shutdown();
+        }
+        pool = new ForkJoinPool(value);
+    }
+
+    /**
+     * Shuts down the threads of the pool once the tasks that are running have completed. A later validation creates a
+     * new pool.
+     */
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    private static synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(getDefaultParallelism());
+        }
+        return pool;
+    }
+
+    /**
+     * Executes the tasks in the pool and returns their results in the order of the tasks.
+     *
+     * <br/>
+     *
+     * If a task throws an exception, the exception is thrown by this method, checked exceptions are wrapped in a
+     * runtime exception.
+     *
+     * @param tasks
+     * @return results
+     */
+    public static <T> List<T> invokeAll(List<? extends Callable<T>> tasks) {
+        if (tasks.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final List<ForkJoinTask<T>> forks = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            forks.add(ForkJoinTask.adapt(task));
+        }
+
+        final ForkJoinPool current = getPool();
+        if (forks.size() == 1) {
+            forks.get(0).invoke();
+        } else if (ForkJoinTask.getPool() == current) {
+            // already in a thread of the pool
+            ForkJoinTask.invokeAll(forks);
+        } else {
+            current.invoke(new RecursiveAction() {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(forks);
+                }
+            });
+        }
+
+        final List<T> results = new ArrayList<>(forks.size());
+        for (ForkJoinTask<T> fork : forks) {
+            results.add(fork.join());
+        }
+        return results;
+    }
+
+}
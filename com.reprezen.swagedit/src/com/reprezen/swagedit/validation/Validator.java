@@ -12,58 +12,98 @@ package com.reprezen.swagedit.validation;
 
 import java.io.IOException;
 import java.net.URI;
-import java.util.HashSet;
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.dadacoalition.yedit.YEditLog;
 import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.ui.IFileEditorInput;
-import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.error.YAMLException;
 import org.yaml.snakeyaml.nodes.Node;
-import org.yaml.snakeyaml.nodes.NodeId;
-import org.yaml.snakeyaml.nodes.NodeTuple;
-import org.yaml.snakeyaml.nodes.ScalarNode;
-import org.yaml.snakeyaml.nodes.SequenceNode;
 import org.yaml.snakeyaml.parser.ParserException;
 
-import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.main.JsonSchema;
-import com.github.fge.jsonschema.main.JsonSchemaFactory;
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
 import com.reprezen.swagedit.Messages;
 import com.reprezen.swagedit.editor.SwaggerDocument;
 import com.reprezen.swagedit.json.references.JsonReferenceFactory;
 import com.reprezen.swagedit.json.references.JsonReferenceValidator;
-import com.reprezen.swagedit.model.AbstractNode;
-import com.reprezen.swagedit.model.ArrayNode;
 import com.reprezen.swagedit.model.Model;
-import com.reprezen.swagedit.model.ObjectNode;
-import com.reprezen.swagedit.model.ValueNode;
+import com.reprezen.swagedit.model.ParseResult;
+import com.reprezen.swagedit.validation.rules.RuleEngine;
 
 /**
  * This class contains methods for validating a Swagger YAML document.
  * 
  * Validation is done against the Swagger JSON Schema.
  * 
+ * The validation stages are independent from each other and run in parallel on the {@link ValidationPool}.
+ * 
  * @see SwaggerError
  */
 public class Validator {
 
+    /**
+     * Tiers of the validation of a document, from the cheapest to the most expensive, so that the errors of each tier
+     * can be reported as soon as they are available.
+     */
+    public enum Tier {
+        /**
+         * YAML syntax and duplicate keys, found while the document is parsed.
+         */
+        SYNTAX,
+        /**
+         * Conversion into JSON, JSON schema, semantic rules and references to the document itself.
+         */
+        SCHEMA,
+        /**
+         * References to other documents, which may need to be loaded.
+         */
+        REFERENCES
+    }
+
     private final JsonReferenceValidator referenceValidator;
+    private final RuleEngine rules;
+    private boolean incremental = true;
 
-    public Validator(JsonReferenceValidator referenceValidator) {
+    public Validator(JsonReferenceValidator referenceValidator, RuleEngine rules) {
         this.referenceValidator = referenceValidator;
+        this.rules = rules;
+    }
+
+    public Validator(JsonReferenceValidator referenceValidator) {
+        this(referenceValidator, RuleEngine.getDefault());
     }
 
     public Validator() {
-        this.referenceValidator = new JsonReferenceValidator(new JsonReferenceFactory());
+        this(new JsonReferenceValidator(new JsonReferenceFactory()));
+    }
+
+    /**
+     * Sets whether the document is validated against the schema one unit at a time, so that only the parts of the
+     * document that have changed since a previous validation are validated again. Incremental validation is enabled by
+     * default.
+     * 
+     * @param incremental
+     * @see IncrementalSchemaValidator
+     */
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
     }
 
     /**
@@ -79,240 +119,275 @@ public class Validator {
      * @throws ParserException
      */
     public Set<SwaggerError> validate(SwaggerDocument document, IFileEditorInput editorInput) {
-        Set<SwaggerError> errors = Sets.newHashSet();
-
-        JsonNode jsonContent = null;
-        try {
-            jsonContent = document.asJson();
-        } catch (Exception e) {
-            YEditLog.logException(e);
-        }
+        return validate(document, editorInput, new NullProgressMonitor());
+    }
 
-        if (jsonContent != null) {
-            Node yaml = document.getYaml();
-            if (yaml != null) {
-                URI baseURI = editorInput != null ? editorInput.getFile().getLocationURI() : null;
+    /**
+     * Returns a list or errors if validation fails.
+     * 
+     * The monitor is checked before each stage of the validation, once it is canceled the remaining stages are not
+     * executed and an {@link OperationCanceledException} is thrown.
+     * 
+     * @param document
+     * @param editorInput
+     *            current input
+     * @param monitor
+     * @return list or errors
+     * @throws OperationCanceledException
+     *             if the monitor is canceled
+     */
+    public Set<SwaggerError> validate(SwaggerDocument document, IFileEditorInput editorInput,
+            IProgressMonitor monitor) {
+        return validate(editorInput != null ? editorInput.getFile().getLocationURI() : null, document, monitor);
+    }
 
-                errors.addAll(validateAgainstSchema(new ErrorProcessor(yaml), document));
-                errors.addAll(validateModel(document.getModel()));
-                errors.addAll(checkDuplicateKeys(yaml));
-                errors.addAll(referenceValidator.validate(baseURI, document));
-            }
+    /**
+     * Returns a list or errors if validation fails.
+     * 
+     * This method does not need a workbench, references to other documents are resolved against the base URI.
+     * 
+     * @param baseURI
+     *            location of the document, may be null
+     * @param document
+     * @param monitor
+     * @return list or errors
+     * @throws OperationCanceledException
+     *             if the monitor is canceled
+     */
+    public Set<SwaggerError> validate(final URI baseURI, final SwaggerDocument document,
+            final IProgressMonitor monitor) {
+        final List<Callable<Collection<? extends SwaggerError>>> stages = new ArrayList<>();
+        if (isValidYaml(document)) {
+            stages.addAll(getSchemaStages(document, monitor));
+            stages.add(new Callable<Collection<? extends SwaggerError>>() {
+                @Override
+                public Collection<? extends SwaggerError> call() {
+                    checkCanceled(monitor);
+                    return checkDuplicateKeys(document.getParseResult());
+                }
+            });
+            stages.add(new Callable<Collection<? extends SwaggerError>>() {
+                @Override
+                public Collection<? extends SwaggerError> call() {
+                    checkCanceled(monitor);
+                    return referenceValidator.validate(baseURI, document);
+                }
+            });
         }
 
+        final Set<SwaggerError> errors = validateJson(document.getParseResult());
+        errors.addAll(run(stages, monitor));
         return errors;
     }
 
     /**
-     * Validates the YAML document against the Swagger schema
+     * Returns the errors found by a single tier of the validation.
      * 
-     * @param processor
+     * The errors of all tiers are the errors of {@link #validateSyntax(SwaggerDocument)} and of
+     * {@link #validate(URI, SwaggerDocument, IProgressMonitor)}.
+     * 
+     * @param baseURI
+     *            location of the document, may be null
      * @param document
-     * @return error
+     * @param tier
+     * @param monitor
+     * @return errors
+     * @throws OperationCanceledException
+     *             if the monitor is canceled
      */
-    protected Set<SwaggerError> validateAgainstSchema(ErrorProcessor processor, SwaggerDocument document) {
-        final JsonSchemaFactory factory = JsonSchemaFactory.newBuilder().freeze();
-        final Set<SwaggerError> errors = Sets.newHashSet();
-
-        JsonSchema schema = null;
-        try {
-            schema = factory.getJsonSchema(document.getSchema().asJson());
-        } catch (ProcessingException e) {
-            YEditLog.logException(e);
+    public Set<SwaggerError> validate(final URI baseURI, final SwaggerDocument document, Tier tier,
+            final IProgressMonitor monitor) {
+        switch (tier) {
+        case SYNTAX:
+            final Set<SwaggerError> errors = validateSyntax(document);
+            if (document.getParseResult().hasYaml()) {
+                errors.addAll(checkDuplicateKeys(document.getParseResult()));
+            }
             return errors;
+        case SCHEMA:
+            final List<Callable<Collection<? extends SwaggerError>>> stages = new ArrayList<>();
+            if (isValidYaml(document)) {
+                stages.addAll(getSchemaStages(document, monitor));
+                stages.add(new Callable<Collection<? extends SwaggerError>>() {
+                    @Override
+                    public Collection<? extends SwaggerError> call() {
+                        checkCanceled(monitor);
+                        return referenceValidator.validate(baseURI, document, false);
+                    }
+                });
+            }
+            final Set<SwaggerError> schema = validateJson(document.getParseResult());
+            schema.addAll(run(stages, monitor));
+            return schema;
+        case REFERENCES:
+            checkCanceled(monitor);
+            final Set<SwaggerError> references = Sets.newHashSet();
+            if (isValidYaml(document)) {
+                references.addAll(referenceValidator.validate(baseURI, document, true));
+            }
+            checkCanceled(monitor);
+            return references;
+        default:
+            throw new IllegalArgumentException("Unknown validation tier " + tier);
         }
+    }
 
+    /*
+     * Returns true if the document has YAML and JSON representations that can be validated.
+     */
+    private boolean isValidYaml(SwaggerDocument document) {
+        JsonNode jsonContent = null;
         try {
-            ProcessingReport report = schema.validate(document.asJson(), true);
-
-            errors.addAll(processor.processReport(report));
-        } catch (ProcessingException e) {
-            errors.addAll(processor.processMessage(e.getProcessingMessage()));
+            jsonContent = document.asJson();
+        } catch (Exception e) {
+            YEditLog.logException(e);
         }
-
-        return errors;
+        return jsonContent != null && document.getParseResult().hasYaml();
     }
 
-    /**
-     * Validates the model against with different rules that cannot be verified only by JSON schema validation.
-     * 
-     * @param model
-     * @return errors
+    /*
+     * Returns the validation against the schema and the validation of the model.
      */
-    protected Set<SwaggerError> validateModel(Model model) {
-        final Set<SwaggerError> errors = new HashSet<>();
-
-        if (model != null && model.getRoot() != null) {
-            for (AbstractNode node : model.allNodes()) {
-                checkArrayTypeDefinition(errors, node);
-                checkObjectTypeDefinition(errors, node);
+    private List<Callable<Collection<? extends SwaggerError>>> getSchemaStages(final SwaggerDocument document,
+            final IProgressMonitor monitor) {
+        final ParseResult parsed = document.getParseResult();
+        final Model model = document.getModel();
+
+        final List<Callable<Collection<? extends SwaggerError>>> stages = new ArrayList<>();
+        stages.add(new Callable<Collection<? extends SwaggerError>>() {
+            @Override
+            public Collection<? extends SwaggerError> call() {
+                checkCanceled(monitor);
+                return validateAgainstSchema(new ErrorProcessor(parsed.getLocations()), document);
             }
-        }
-        return errors;
+        });
+        stages.add(new Callable<Collection<? extends SwaggerError>>() {
+            @Override
+            public Collection<? extends SwaggerError> call() {
+                checkCanceled(monitor);
+                return validateModel(model);
+            }
+        });
+        return stages;
     }
 
-    /**
-     * This method checks that the node if an array type definitions includes an items field.
-     * 
-     * @param errors
-     * @param model
+    /*
+     * Runs the stages in parallel and merges their errors.
      */
-    protected void checkArrayTypeDefinition(Set<SwaggerError> errors, AbstractNode node) {
-        if (hasArrayType(node)) {
-            AbstractNode items = node.get("items");
-            if (items == null) {
-                errors.add(error(node, IMarker.SEVERITY_ERROR, Messages.error_array_missing_items));
-            } else {
-                if (!items.isObject()) {
-                    errors.add(error(items, IMarker.SEVERITY_ERROR, Messages.error_array_items_should_be_object));
-                }
-            }
+    private Set<SwaggerError> run(List<Callable<Collection<? extends SwaggerError>>> stages, IProgressMonitor monitor) {
+        final Set<SwaggerError> errors = Sets.newHashSet();
+        // stages are independent, they run in parallel and their errors are merged in order
+        final List<Collection<? extends SwaggerError>> results = ValidationPool.invokeAll(stages);
+        checkCanceled(monitor);
+
+        for (Collection<? extends SwaggerError> stage : results) {
+            errors.addAll(stage);
         }
+        return errors;
     }
 
     /**
-     * Returns true if the node is an array type definition
+     * Returns the errors of a document whose content is not valid YAML. The JSON representation of the document is
+     * not constructed, errors of its conversion into JSON are found by
+     * {@link #validate(URI, SwaggerDocument, IProgressMonitor)}.
      * 
-     * @param node
-     * @return true if array definition
+     * @param document
+     * @return errors
      */
-    protected boolean hasArrayType(AbstractNode node) {
-        if (node.isObject() && node.get("type") instanceof ValueNode) {
-            ValueNode typeValue = node.get("type").asValue();
-            return "array".equalsIgnoreCase(typeValue.getValue().toString());
+    public Set<SwaggerError> validateSyntax(SwaggerDocument document) {
+        final Set<SwaggerError> errors = Sets.newHashSet();
+        final ParseResult parsed = document.getParseResult();
+        if (parsed.getYamlError() instanceof YAMLException) {
+            errors.add(new SwaggerError((YAMLException) parsed.getYamlError()));
         }
-        return false;
+        return errors;
     }
 
-    /**
-     * Validates an object type definition.
-     * 
-     * @param errors
-     * @param node
+    /*
+     * Returns the error of a content that is valid YAML but cannot be converted into JSON.
      */
-    protected void checkObjectTypeDefinition(Set<SwaggerError> errors, AbstractNode node) {
-        if (node instanceof ObjectNode) {
-            JsonPointer ptr = node.getPointer();
-            if (ptr != null) {
-                if (ptr.toString().startsWith("/definitions")) {
-                    checkMissingType(errors, node);
-                    checkMissingRequiredProperties(errors, node);
-                } else if (ptr.toString().endsWith("/schema")) {
-                    checkMissingType(errors, node);
-                    checkMissingRequiredProperties(errors, node);
-                }
-            }
+    private Set<SwaggerError> validateJson(ParseResult parsed) {
+        final Set<SwaggerError> errors = Sets.newHashSet();
+        if (parsed.hasYaml() && parsed.getJsonError() instanceof JsonProcessingException) {
+            errors.add(new SwaggerError((JsonProcessingException) parsed.getJsonError()));
         }
+        return errors;
     }
 
-    /**
-     * This method checks that the node if an object definition includes a type field.
-     * 
-     * @param errors
-     * @param node
-     */
-    protected void checkMissingType(Set<SwaggerError> errors, AbstractNode node) {
-        if (node.get("properties") != null) {
-            if (node.get("type") == null) {
-                errors.add(error(node, IMarker.SEVERITY_ERROR, Messages.error_type_missing));
-            } else {
-                AbstractNode typeValue = node.get("type");
-                if (!(typeValue instanceof ValueNode) || !Objects.equals("object", typeValue.asValue().getValue())) {
-                    errors.add(error(node, IMarker.SEVERITY_ERROR, Messages.error_wrong_type));
-                }
-            }
+    private static void checkCanceled(IProgressMonitor monitor) {
+        if (monitor.isCanceled()) {
+            throw new OperationCanceledException();
         }
     }
 
     /**
-     * This method checks that the required values for the object type definition contains only valid properties.
+     * Validates the YAML document against the Swagger schema
      * 
-     * @param errors
-     * @param node
+     * @param processor
+     * @param document
+     * @return error
      */
-    protected void checkMissingRequiredProperties(Set<SwaggerError> errors, AbstractNode node) {
-        if (node.get("required") instanceof ArrayNode) {
-            ArrayNode required = node.get("required").asArray();
-
-            AbstractNode properties = node.get("properties");
-            if (properties == null) {
-                errors.add(error(node, IMarker.SEVERITY_ERROR, Messages.error_missing_properties));
-            } else {
-                for (AbstractNode prop : required.elements()) {
-                    if (prop instanceof ValueNode) {
-                        ValueNode valueNode = prop.asValue();
-                        String value = valueNode.getValue().toString();
-
-                        if (properties.get(value) == null) {
-                            errors.add(error(valueNode, IMarker.SEVERITY_ERROR,
-                                    String.format(Messages.error_required_properties, value)));
-                        }
-                    }
+    protected Set<SwaggerError> validateAgainstSchema(ErrorProcessor processor, SwaggerDocument document) {
+        final Set<SwaggerError> errors = Sets.newHashSet();
+
+        if (incremental) {
+            try {
+                for (JsonNode message : IncrementalSchemaValidator.getInstance().validate(document.getSchema(),
+                        document.asJson())) {
+                    errors.addAll(processor.processMessageNode(message));
                 }
+                return errors;
+            } catch (ProcessingException e) {
+                // report the error as a validation of the whole document would do
+                errors.clear();
             }
         }
-    }
-
-    protected SwaggerError error(AbstractNode node, int level, String message) {
-        return new SwaggerError(node.getStart().getLine() + 1, level, message);
-    }
 
-    /*
-     * Finds all duplicate keys in all objects present in the YAML document.
-     */
-    protected Set<SwaggerError> checkDuplicateKeys(Node document) {
-        HashMultimap<Pair<Node, String>, Node> acc = HashMultimap.<Pair<Node, String>, Node> create();
-
-        collectDuplicates(document, acc);
+        final JsonSchema schema;
+        try {
+            schema = document.getSchema().getValidator();
+        } catch (ProcessingException e) {
+            YEditLog.logException(e);
+            return errors;
+        }
 
-        Set<SwaggerError> errors = Sets.newHashSet();
-        for (Pair<Node, String> key : acc.keys()) {
-            Set<Node> duplicates = acc.get(key);
+        try {
+            ProcessingReport report = schema.validate(document.asJson(), true);
 
-            if (duplicates.size() > 1) {
-                for (Node duplicate : duplicates) {
-                    errors.add(createDuplicateError(key.getValue(), duplicate));
-                }
-            }
+            errors.addAll(processor.processReport(report));
+        } catch (ProcessingException e) {
+            errors.addAll(processor.processMessage(e.getProcessingMessage()));
         }
 
         return errors;
     }
 
-    /*
-     * This method iterates through the YAML tree to collect the pairs of Node x String representing an object and one
-     * of it's keys. Each pair is associated to a Set of Nodes which contains all nodes being a key to the pair's Node
-     * and having for value the pair's key. Once the iteration is done, the resulting map should be traversed. Each pair
-     * having more than one element in its associated Set are duplicate keys.
+    /**
+     * Validates the model against with different rules that cannot be verified only by JSON schema validation.
+     * 
+     * @param model
+     * @return errors
+     * @see RuleEngine
      */
-    protected void collectDuplicates(Node parent, Multimap<Pair<Node, String>, Node> acc) {
-        switch (parent.getNodeId()) {
-        case mapping: {
-            for (NodeTuple value : ((MappingNode) parent).getValue()) {
-                Node keyNode = value.getKeyNode();
-
-                if (keyNode.getNodeId() == NodeId.scalar) {
-                    acc.put(Pair.of(parent, ((ScalarNode) keyNode).getValue()), keyNode);
-                }
+    protected Set<SwaggerError> validateModel(Model model) {
+        return rules.validate(model);
+    }
 
-                collectDuplicates(value.getValueNode(), acc);
-            }
-        }
-            break;
-        case sequence: {
-            for (Node value : ((SequenceNode) parent).getValue()) {
-                collectDuplicates(value, acc);
-            }
-        }
-            break;
-        default:
-            break;
+    /*
+     * Returns the warnings of the duplicate keys found while the document was parsed.
+     */
+    protected Set<SwaggerError> checkDuplicateKeys(ParseResult parsed) {
+        Set<SwaggerError> errors = Sets.newHashSet();
+        for (Pair<String, Node> key : parsed.getDuplicateKeys()) {
+            errors.add(createDuplicateError(key.getKey(), key.getValue()));
         }
+        return errors;
     }
 
     protected SwaggerError createDuplicateError(String key, Node node) {
         return new SwaggerError(node.getStartMark().getLine() + 1, IMarker.SEVERITY_WARNING,
-                String.format(Messages.error_duplicate_keys, key));
+                String.format(Messages.error_duplicate_keys, key)).setRange(node.getStartMark().getIndex(),
+                node.getEndMark().getIndex());
     }
 
 }
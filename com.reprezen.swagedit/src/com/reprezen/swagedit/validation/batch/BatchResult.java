@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation.batch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of the validation of a set of files, with statistics about the time spent validating them.
+ */
+public class BatchResult {
+
+    private final List<FileResult> files;
+    private final long elapsed;
+    private final int threads;
+    // times of the files in ascending order
+    private final long[] times;
+
+    BatchResult(List<FileResult> files, long elapsed, int threads) {
+        this.files = Collections.unmodifiableList(files);
+        this.elapsed = elapsed;
+        this.threads = threads;
+
+        this.times = new long[files.size()];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = files.get(i).getTime();
+        }
+        Arrays.sort(times);
+    }
+
+    /**
+     * Returns the results of the files, in the order in which the files have been given.
+     * 
+     * @return results
+     */
+    public List<FileResult> getFiles() {
+        return files;
+    }
+
+    /**
+     * Returns the time spent validating all files, in nanoseconds.
+     * 
+     * @return elapsed time
+     */
+    public long getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Returns the number of threads used to validate the files.
+     * 
+     * @return threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Returns the number of errors of the given severity in all files.
+     * 
+     * @param severity
+     * @return count
+     */
+    public int count(int severity) {
+        int count = 0;
+        for (FileResult file : files) {
+            count += file.count(severity);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of files that have errors or could not be validated.
+     * 
+     * @return invalid files
+     */
+    public int getInvalidCount() {
+        int count = 0;
+        for (FileResult file : files) {
+            if (!file.isValid()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of files that could not be validated.
+     * 
+     * @return failures
+     */
+    public int getFailureCount() {
+        int count = 0;
+        for (FileResult file : files) {
+            if (file.getFailure() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of files validated per second.
+     * 
+     * @return throughput
+     */
+    public double getThroughput() {
+        return elapsed > 0 ? files.size() * (double) TimeUnit.SECONDS.toNanos(1) / elapsed : 0;
+    }
+
+    /**
+     * Returns the mean time spent on a file, in nanoseconds.
+     * 
+     * @return mean time
+     */
+    public long getMeanTime() {
+        long total = 0;
+        for (long time : times) {
+            total += time;
+        }
+        return times.length > 0 ? total / times.length : 0;
+    }
+
+    /**
+     * Returns the time under which the given percentage of the files have been validated, in nanoseconds. The
+     * percentile 0 is the minimum time and the percentile 100 is the maximum time.
+     * 
+     * @param percent
+     *            between 0 and 100
+     * @return time
+     */
+    public long getTimePercentile(double percent) {
+        if (times.length == 0) {
+            return 0;
+        }
+        final int rank = (int) Math.ceil(percent / 100 * times.length);
+        return times[Math.min(times.length - 1, Math.max(0, rank - 1))];
+    }
+
+    /**
+     * Returns the files that took the longest time to validate, slowest first.
+     * 
+     * @param count
+     *            maximum number of files
+     * @return slowest files
+     */
+    public List<FileResult> getSlowest(int count) {
+        final List<FileResult> sorted = new ArrayList<>(files);
+        Collections.sort(sorted, new Comparator<FileResult>() {
+            @Override
+            public int compare(FileResult o1, FileResult o2) {
+                return Long.compare(o2.getTime(), o1.getTime());
+            }
+        });
+        return sorted.subList(0, Math.min(count, sorted.size()));
+    }
+
+}
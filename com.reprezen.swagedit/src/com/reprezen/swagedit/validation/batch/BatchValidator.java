@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import com.reprezen.swagedit.editor.SwaggerDocument;
+import com.reprezen.swagedit.json.references.JsonReferenceFactory;
+import com.reprezen.swagedit.json.references.JsonReferenceValidator;
+import com.reprezen.swagedit.schema.SwaggerSchema;
+import com.reprezen.swagedit.validation.SwaggerError;
+import com.reprezen.swagedit.validation.ValidationPool;
+import com.reprezen.swagedit.validation.Validator;
+
+/**
+ * Validates Swagger specifications outside of the editor, for example in continuous integration builds.
+ * 
+ * <br/>
+ * 
+ * Files are validated in parallel on the {@link ValidationPool}, with a single schema and a single validator shared by
+ * all files. References to other documents are resolved in the file system.
+ * 
+ * @see BatchValidatorApplication
+ */
+public class BatchValidator {
+
+    /**
+     * Extensions of the files validated when a directory is given.
+     */
+    public static final List<String> DEFAULT_EXTENSIONS = Collections.unmodifiableList(Arrays.asList("yaml", "yml",
+            "json"));
+
+    private final SwaggerSchema schema;
+    private final Validator validator;
+
+    public BatchValidator() {
+        this(new SwaggerSchema(), new Validator(new JsonReferenceValidator(new JsonReferenceFactory(
+                new FileDocumentManager()))));
+    }
+
+    public BatchValidator(SwaggerSchema schema, Validator validator) {
+        this.schema = schema;
+        this.validator = validator;
+    }
+
+    /**
+     * Returns the files to validate, files are returned as they are and directories are searched recursively for the
+     * files having one of the extensions. The files found in a directory are sorted by path.
+     * 
+     * @param paths
+     *            files and directories
+     * @param extensions
+     * @return files
+     */
+    public static List<File> collect(Iterable<File> paths, Collection<String> extensions) {
+        final List<File> files = new ArrayList<>();
+        for (File path : paths) {
+            if (path.isDirectory()) {
+                final List<File> found = new ArrayList<>();
+                collect(path, extensions, found);
+                Collections.sort(found);
+                files.addAll(found);
+            } else {
+                files.add(path);
+            }
+        }
+        return files;
+    }
+
+    private static void collect(File directory, Collection<String> extensions, List<File> files) {
+        final File[] children = directory.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            if (child.isDirectory()) {
+                collect(child, extensions, files);
+            } else if (extensions.contains(Files.getFileExtension(child.getName()).toLowerCase(Locale.ENGLISH))) {
+                files.add(child);
+            }
+        }
+    }
+
+    /**
+     * Validates the files in parallel and returns their results in the same order.
+     * 
+     * @param files
+     * @return result
+     */
+    public BatchResult validate(List<File> files) {
+        final List<Callable<FileResult>> tasks = new ArrayList<>(files.size());
+        for (final File file : files) {
+            tasks.add(new Callable<FileResult>() {
+                @Override
+                public FileResult call() {
+                    return validate(file);
+                }
+            });
+        }
+
+        final long start = System.nanoTime();
+        final List<FileResult> results = ValidationPool.invokeAll(tasks);
+        return new BatchResult(results, System.nanoTime() - start, ValidationPool.getParallelism());
+    }
+
+    /**
+     * Validates a single file, the errors are sorted by line.
+     * 
+     * @param file
+     * @return result
+     */
+    public FileResult validate(File file) {
+        final long start = System.nanoTime();
+        try {
+            final SwaggerDocument document = new SwaggerDocument(schema);
+            document.set(Files.toString(file, Charsets.UTF_8));
+
+            final Set<SwaggerError> errors = validator.validateSyntax(document);
+            errors.addAll(validator.validate(file.getAbsoluteFile().toURI(), document, new NullProgressMonitor()));
+
+            final List<SwaggerError> sorted = new ArrayList<>(errors);
+            Collections.sort(sorted, new Comparator<SwaggerError>() {
+                @Override
+                public int compare(SwaggerError o1, SwaggerError o2) {
+                    final int result = Integer.compare(o1.getLine(), o2.getLine());
+                    return result != 0 ? result : String.valueOf(o1.getMessage()).compareTo(
+                            String.valueOf(o2.getMessage()));
+                }
+            });
+            return new FileResult(file, sorted, null, System.nanoTime() - start);
+        } catch (IOException | RuntimeException e) {
+            return new FileResult(file, Collections.<SwaggerError> emptyList(), e, System.nanoTime() - start);
+        }
+    }
+
+}
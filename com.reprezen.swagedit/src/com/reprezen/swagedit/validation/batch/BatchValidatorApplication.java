@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import com.reprezen.swagedit.validation.SwaggerError;
+import com.reprezen.swagedit.validation.ValidationPool;
+
+/**
+ * Validates Swagger files from the command line, for example in a continuous integration build.
+ * 
+ * <br/>
+ * 
+ * The application can be run with <code>eclipse -application com.reprezen.swagedit.validate</code> or with the
+ * {@link #main(String[])} method. Its arguments are the files and directories to validate, preceded by the options:
+ * 
+ * <ul>
+ * <li><code>--json &lt;file&gt;</code> writes a JSON report, see {@link JsonReport}</li>
+ * <li><code>--junit &lt;file&gt;</code> writes a JUnit XML report, see {@link JUnitReport}</li>
+ * <li><code>--threads &lt;n&gt;</code> number of files validated in parallel</li>
+ * <li><code>--extensions &lt;ext,...&gt;</code> extensions of the files searched in directories</li>
+ * <li><code>--quiet</code> prints only the summary</li>
+ * </ul>
+ * 
+ * The exit code is 0 if all files are valid, 1 if a file has errors or could not be validated and 2 if the arguments
+ * are not valid.
+ */
+public class BatchValidatorApplication implements IApplication {
+
+    public static final int EXIT_VALID = 0;
+    public static final int EXIT_INVALID = 1;
+    public static final int EXIT_USAGE = 2;
+
+    private static final String USAGE = "Usage: validate [--json <file>] [--junit <file>] [--threads <n>] "
+            + "[--extensions <ext,...>] [--quiet] <file or directory>...";
+
+    @Override
+    public Object start(IApplicationContext context) throws Exception {
+        final String[] args = (String[]) context.getArguments().get(IApplicationContext.APPLICATION_ARGS);
+        return run(args != null ? args : new String[0], System.out);
+    }
+
+    @Override
+    public void stop() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out));
+    }
+
+    /**
+     * Validates the files given by the arguments, prints their errors and writes the reports.
+     * 
+     * @param args
+     * @param out
+     * @return exit code
+     */
+    public static int run(String[] args, PrintStream out) {
+        File json = null;
+        File junit = null;
+        int threads = -1;
+        List<String> extensions = BatchValidator.DEFAULT_EXTENSIONS;
+        boolean quiet = false;
+        final List<File> paths = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                final String arg = args[i];
+                if ("--json".equals(arg)) {
+                    json = new File(value(args, ++i));
+                } else if ("--junit".equals(arg)) {
+                    junit = new File(value(args, ++i));
+                } else if ("--threads".equals(arg)) {
+                    threads = Integer.parseInt(value(args, ++i));
+                } else if ("--extensions".equals(arg)) {
+                    extensions = Arrays.asList(value(args, ++i).split(","));
+                } else if ("--quiet".equals(arg)) {
+                    quiet = true;
+                } else if (arg.startsWith("--")) {
+                    throw new IllegalArgumentException("Unknown option " + arg);
+                } else {
+                    paths.add(new File(arg));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            out.println(e.getMessage());
+            out.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        if (paths.isEmpty()) {
+            out.println(USAGE);
+            return EXIT_USAGE;
+        }
+        for (File path : paths) {
+            if (!path.exists()) {
+                out.println("File not found " + path);
+                return EXIT_USAGE;
+            }
+        }
+
+        if (threads > 0) {
+            ValidationPool.setParallelism(threads);
+        }
+
+        final BatchResult result = new BatchValidator().validate(BatchValidator.collect(paths, extensions));
+
+        if (!quiet) {
+            print(result, out);
+        }
+        printSummary(result, out);
+
+        try {
+            if (json != null) {
+                try (Writer writer = Files.newWriter(json, Charsets.UTF_8)) {
+                    new JsonReport().write(result, writer);
+                }
+            }
+            if (junit != null) {
+                try (Writer writer = Files.newWriter(junit, Charsets.UTF_8)) {
+                    new JUnitReport("swagedit").write(result, writer);
+                }
+            }
+        } catch (IOException | XMLStreamException e) {
+            out.println("Cannot write report: " + e.getMessage());
+            return EXIT_INVALID;
+        }
+
+        return result.getInvalidCount() > 0 ? EXIT_INVALID : EXIT_VALID;
+    }
+
+    private static String value(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value of option " + args[index - 1]);
+        }
+        return args[index];
+    }
+
+    private static void print(BatchResult result, PrintStream out) {
+        for (FileResult file : result.getFiles()) {
+            if (file.getFailure() != null) {
+                out.println(file.getFile().getPath() + ": failure: " + file.getFailure());
+            }
+            for (SwaggerError error : file.getErrors()) {
+                out.println(file.getFile().getPath() + ":" + error.getLine() + ": " + FileResult.severity(error) + ": "
+                        + error.getMessage());
+            }
+        }
+    }
+
+    private static void printSummary(BatchResult result, PrintStream out) {
+        out.println(String.format(Locale.ENGLISH, "%d file(s), %d invalid, %d error(s), %d warning(s)", //
+                result.getFiles().size(), result.getInvalidCount(), result.count(IMarker.SEVERITY_ERROR),
+                result.count(IMarker.SEVERITY_WARNING)));
+        out.println(String.format(Locale.ENGLISH,
+                "%.0f ms on %d thread(s), %.1f file(s)/s, per file: mean %.1f ms, median %.1f ms, p95 %.1f ms, "
+                        + "max %.1f ms", //
+                JsonReport.millis(result.getElapsed()), result.getThreads(), result.getThroughput(),
+                JsonReport.millis(result.getMeanTime()), JsonReport.millis(result.getTimePercentile(50)),
+                JsonReport.millis(result.getTimePercentile(95)), JsonReport.millis(result.getTimePercentile(100))));
+    }
+
+}
@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation.batch;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+
+import org.eclipse.core.resources.IFile;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.reprezen.swagedit.json.references.JsonDocumentManager;
+
+/**
+ * Document manager that reads the documents referenced by a specification from the file system, without a workspace.
+ */
+public class FileDocumentManager extends JsonDocumentManager {
+
+    @Override
+    public JsonNode getDocument(URI uri) {
+        final File file = toFile(uri);
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+
+        try {
+            return getDocument(file.toURI().toURL());
+        } catch (MalformedURLException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public IFile getFile(URI uri) {
+        return null;
+    }
+
+    private static File toFile(URI uri) {
+        if (uri == null || !"file".equalsIgnoreCase(uri.getScheme())) {
+            return null;
+        }
+        try {
+            // the fragment is the pointer inside the document
+            return new File(new URI(uri.getScheme(), uri.getSchemeSpecificPart(), null));
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+}
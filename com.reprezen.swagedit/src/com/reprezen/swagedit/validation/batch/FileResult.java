@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation.batch;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.resources.IMarker;
+
+import com.reprezen.swagedit.validation.SwaggerError;
+
+/**
+ * Result of the validation of a single file.
+ */
+public class FileResult {
+
+    private final File file;
+    private final List<SwaggerError> errors;
+    private final Exception failure;
+    private final long time;
+
+    FileResult(File file, List<SwaggerError> errors, Exception failure, long time) {
+        this.file = file;
+        this.errors = Collections.unmodifiableList(errors);
+        this.failure = failure;
+        this.time = time;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the errors and warnings of the file, sorted by line.
+     * 
+     * @return errors
+     */
+    public List<SwaggerError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Returns the exception that prevented the validation of the file, for example if it could not be read, or null.
+     * 
+     * @return exception or null
+     */
+    public Exception getFailure() {
+        return failure;
+    }
+
+    /**
+     * Returns the time spent reading and validating the file, in nanoseconds.
+     * 
+     * @return time
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Returns the number of errors of the given severity.
+     * 
+     * @param severity
+     * @return count
+     */
+    public int count(int severity) {
+        int count = 0;
+        for (SwaggerError error : errors) {
+            if (error.getLevel() == severity) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the name of the severity of an error, as shown in reports.
+     * 
+     * @param error
+     * @return severity
+     */
+    static String severity(SwaggerError error) {
+        switch (error.getLevel()) {
+        case IMarker.SEVERITY_ERROR:
+            return "error";
+        case IMarker.SEVERITY_WARNING:
+            return "warning";
+        default:
+            return "info";
+        }
+    }
+
+    /**
+     * Returns true if the file has been validated and has no errors, warnings are allowed.
+     * 
+     * @return true if valid
+     */
+    public boolean isValid() {
+        return failure == null && count(IMarker.SEVERITY_ERROR) == 0;
+    }
+
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation.batch;
+
+import java.io.Writer;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.eclipse.core.resources.IMarker;
+
+import com.reprezen.swagedit.validation.SwaggerError;
+
+/**
+ * Writes the result of a batch validation in the JUnit XML format read by continuous integration servers.
+ * 
+ * <br/>
+ * 
+ * Each file is a test case, a file with errors is a failure, a file that could not be validated is an error. Warnings
+ * are written in the output of their test case.
+ */
+public class JUnitReport {
+
+    private final String name;
+
+    public JUnitReport(String name) {
+        this.name = name;
+    }
+
+    public void write(BatchResult result, Writer writer) throws XMLStreamException {
+        final XMLStreamWriter xml = XMLOutputFactory.newInstance().createXMLStreamWriter(writer);
+
+        xml.writeStartDocument("UTF-8", "1.0");
+        xml.writeCharacters("\n");
+        xml.writeStartElement("testsuite");
+        xml.writeAttribute("name", name);
+        xml.writeAttribute("tests", Integer.toString(result.getFiles().size()));
+        xml.writeAttribute("failures", Integer.toString(result.getInvalidCount() - result.getFailureCount()));
+        xml.writeAttribute("errors", Integer.toString(result.getFailureCount()));
+        xml.writeAttribute("skipped", "0");
+        xml.writeAttribute("time", seconds(result.getElapsed()));
+        xml.writeCharacters("\n");
+
+        for (FileResult file : result.getFiles()) {
+            writeTestCase(xml, file);
+        }
+
+        xml.writeEndElement();
+        xml.writeCharacters("\n");
+        xml.writeEndDocument();
+        xml.flush();
+    }
+
+    private void writeTestCase(XMLStreamWriter xml, FileResult file) throws XMLStreamException {
+        final String parent = file.getFile().getParent();
+
+        xml.writeCharacters("  ");
+        xml.writeStartElement("testcase");
+        xml.writeAttribute("classname", parent != null ? parent : name);
+        xml.writeAttribute("name", file.getFile().getName());
+        xml.writeAttribute("time", seconds(file.getTime()));
+
+        if (file.getFailure() != null) {
+            xml.writeStartElement("error");
+            xml.writeAttribute("type", file.getFailure().getClass().getName());
+            xml.writeAttribute("message", String.valueOf(file.getFailure().getMessage()));
+            xml.writeEndElement();
+        } else if (!file.isValid()) {
+            xml.writeStartElement("failure");
+            xml.writeAttribute("type", "validation");
+            xml.writeAttribute("message", String.format("%d error(s)", file.count(IMarker.SEVERITY_ERROR)));
+            xml.writeCharacters(messages(file, IMarker.SEVERITY_ERROR));
+            xml.writeEndElement();
+        }
+
+        if (file.count(IMarker.SEVERITY_WARNING) > 0) {
+            xml.writeStartElement("system-out");
+            xml.writeCharacters(messages(file, IMarker.SEVERITY_WARNING));
+            xml.writeEndElement();
+        }
+
+        xml.writeEndElement();
+        xml.writeCharacters("\n");
+    }
+
+    private String messages(FileResult file, int severity) {
+        final StringBuilder builder = new StringBuilder();
+        for (SwaggerError error : file.getErrors()) {
+            if (error.getLevel() == severity) {
+                builder.append(file.getFile().getPath()).append(':').append(error.getLine()).append(": ")
+                        .append(FileResult.severity(error)).append(": ").append(error.getMessage()).append('\n');
+            }
+        }
+        return builder.toString();
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ENGLISH, "%.3f", nanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+}
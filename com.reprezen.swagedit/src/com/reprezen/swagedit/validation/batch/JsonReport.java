@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation.batch;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.resources.IMarker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.reprezen.swagedit.validation.SwaggerError;
+
+/**
+ * Writes the result of a batch validation as a JSON document.
+ * 
+ * <br/>
+ * 
+ * The document contains a summary of the validation, statistics about the time spent per file and the errors of each
+ * file. Times are in milliseconds.
+ */
+public class JsonReport {
+
+    private static final int SLOWEST = 10;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public void write(BatchResult result, Writer writer) throws IOException {
+        mapper.writerWithDefaultPrettyPrinter().writeValue(writer, toJson(result));
+    }
+
+    public ObjectNode toJson(BatchResult result) {
+        final ObjectNode root = mapper.createObjectNode();
+
+        final ObjectNode summary = root.putObject("summary");
+        summary.put("files", result.getFiles().size());
+        summary.put("invalid", result.getInvalidCount());
+        summary.put("failures", result.getFailureCount());
+        summary.put("errors", result.count(IMarker.SEVERITY_ERROR));
+        summary.put("warnings", result.count(IMarker.SEVERITY_WARNING));
+        summary.put("threads", result.getThreads());
+        summary.put("elapsed", millis(result.getElapsed()));
+        summary.put("throughput", result.getThroughput());
+
+        final ObjectNode timing = root.putObject("timing");
+        timing.put("min", millis(result.getTimePercentile(0)));
+        timing.put("mean", millis(result.getMeanTime()));
+        timing.put("median", millis(result.getTimePercentile(50)));
+        timing.put("p95", millis(result.getTimePercentile(95)));
+        timing.put("p99", millis(result.getTimePercentile(99)));
+        timing.put("max", millis(result.getTimePercentile(100)));
+        final ArrayNode slowest = timing.putArray("slowest");
+        for (FileResult file : result.getSlowest(SLOWEST)) {
+            slowest.addObject().put("path", file.getFile().getPath()).put("time", millis(file.getTime()));
+        }
+
+        final ArrayNode files = root.putArray("files");
+        for (FileResult file : result.getFiles()) {
+            final ObjectNode node = files.addObject();
+            node.put("path", file.getFile().getPath());
+            node.put("valid", file.isValid());
+            node.put("time", millis(file.getTime()));
+            if (file.getFailure() != null) {
+                node.put("failure", String.valueOf(file.getFailure()));
+            }
+            final ArrayNode errors = node.putArray("errors");
+            for (SwaggerError error : file.getErrors()) {
+                errors.addObject() //
+                        .put("line", error.getLine()) //
+                        .put("severity", FileResult.severity(error)) //
+                        .put("message", error.getMessage());
+            }
+        }
+
+        return root;
+    }
+
+    static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+}
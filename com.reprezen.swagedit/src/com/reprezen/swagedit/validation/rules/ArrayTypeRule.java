@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation.rules;
+
+import java.util.Set;
+
+import org.eclipse.core.resources.IMarker;
+
+import com.reprezen.swagedit.Messages;
+import com.reprezen.swagedit.model.AbstractNode;
+import com.reprezen.swagedit.validation.SwaggerError;
+
+/**
+ * Checks that array type definitions include an items field.
+ */
+public class ArrayTypeRule extends Rule {
+
+    public ArrayTypeRule() {
+        super("/**");
+    }
+
+    @Override
+    protected void check(AbstractNode node, Set<SwaggerError> errors) {
+        if (hasArrayType(node)) {
+            AbstractNode items = node.get("items");
+            if (items == null) {
+                errors.add(error(node, IMarker.SEVERITY_ERROR, Messages.error_array_missing_items));
+            } else {
+                if (!items.isObject()) {
+                    errors.add(error(items, IMarker.SEVERITY_ERROR, Messages.error_array_items_should_be_object));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true if the node is an array type definition
+     * 
+     * @param node
+     * @return true if array definition
+     */
+    protected boolean hasArrayType(AbstractNode node) {
+        return node.isObject() && "array".equalsIgnoreCase(getValue(node.get("type")));
+    }
+
+}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation.rules;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.resources.IMarker;
+
+import com.google.common.collect.ImmutableSet;
+import com.reprezen.swagedit.Messages;
+import com.reprezen.swagedit.model.AbstractNode;
+import com.reprezen.swagedit.validation.SwaggerError;
+import com.reprezen.swagedit.validation.rules.Operations.Parameter;
+
+/**
+ * Checks that the media types produced and consumed by the API and its operations are valid media types, and that
+ * operations having form parameters consume a media type that can contain form parameters.
+ */
+public class MediaTypesRule extends Rule {
+
+    private static final Pattern MEDIA_TYPE_PATTERN = Pattern.compile("[\\w.+!#$&^*-]+/[\\w.+!#$&^*-]+\\s*(;.*)?");
+
+    private static final Set<String> FORM_MEDIA_TYPES = ImmutableSet.of("multipart/form-data",
+            "application/x-www-form-urlencoded");
+
+    public MediaTypesRule() {
+        super("/produces", "/consumes", "/paths/*/*", "/paths/*/*/produces", "/paths/*/*/consumes");
+    }
+
+    @Override
+    protected void check(AbstractNode node, Set<SwaggerError> errors) {
+        final String property = node.getProperty();
+        if ("produces".equals(property) || "consumes".equals(property)) {
+            if (node.getParent().getParent() == null || Operations.isOperation(node.getParent())) {
+                checkMediaTypes(node, errors);
+            }
+        } else if (Operations.isOperation(node)) {
+            checkFormParameters(node, errors);
+        }
+    }
+
+    private void checkMediaTypes(AbstractNode mediaTypes, Set<SwaggerError> errors) {
+        if (!mediaTypes.isArray()) {
+            return;
+        }
+        for (AbstractNode mediaType : mediaTypes.elements()) {
+            final String value = getValue(mediaType);
+            if (value != null && !MEDIA_TYPE_PATTERN.matcher(value.trim()).matches()) {
+                errors.add(error(mediaType, IMarker.SEVERITY_WARNING,
+                        String.format(Messages.warning_invalid_media_type, value)));
+            }
+        }
+    }
+
+    private void checkFormParameters(AbstractNode operation, Set<SwaggerError> errors) {
+        if (!hasFormParameter(operation.get("parameters"))
+                && !hasFormParameter(operation.getParent().get("parameters"))) {
+            return;
+        }
+
+        // media types of the operation override the ones of the API
+        final AbstractNode consumes = operation.get("consumes") != null ? operation.get("consumes") : operation
+                .getModel().getRoot().get("consumes");
+        if (consumes == null || !consumes.isArray() || consumes.size() == 0) {
+            return;
+        }
+        for (AbstractNode mediaType : consumes.elements()) {
+            final String value = getValue(mediaType);
+            if (value != null && FORM_MEDIA_TYPES.contains(value.split(";")[0].trim().toLowerCase(Locale.ENGLISH))) {
+                return;
+            }
+        }
+        errors.add(error(operation.get("consumes") != null ? consumes : operation, IMarker.SEVERITY_WARNING,
+                Messages.warning_form_data_consumes));
+    }
+
+    private boolean hasFormParameter(AbstractNode parameters) {
+        for (Parameter parameter : Operations.getParameters(parameters)) {
+            if ("formData".equals(parameter.in)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
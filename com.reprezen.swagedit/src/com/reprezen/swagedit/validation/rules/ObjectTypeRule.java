@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation.rules;
+
+import java.util.Objects;
+import java.util.Set;
+
+import org.eclipse.core.resources.IMarker;
+
+import com.reprezen.swagedit.Messages;
+import com.reprezen.swagedit.model.AbstractNode;
+import com.reprezen.swagedit.model.ArrayNode;
+import com.reprezen.swagedit.model.ValueNode;
+import com.reprezen.swagedit.validation.SwaggerError;
+
+/**
+ * Checks the object type definitions of the definitions and of the schemas.
+ */
+public class ObjectTypeRule extends Rule {
+
+    public ObjectTypeRule() {
+        super("/definitions/**", "/**/schema");
+    }
+
+    @Override
+    protected void check(AbstractNode node, Set<SwaggerError> errors) {
+        if (node.isObject()) {
+            checkMissingType(errors, node);
+            checkMissingRequiredProperties(errors, node);
+        }
+    }
+
+    /**
+     * This method checks that the node if an object definition includes a type field.
+     * 
+     * @param errors
+     * @param node
+     */
+    protected void checkMissingType(Set<SwaggerError> errors, AbstractNode node) {
+        if (node.get("properties") != null) {
+            if (node.get("type") == null) {
+                errors.add(error(node, IMarker.SEVERITY_ERROR, Messages.error_type_missing));
+            } else {
+                AbstractNode typeValue = node.get("type");
+                if (!(typeValue instanceof ValueNode) || !Objects.equals("object", typeValue.asValue().getValue())) {
+                    errors.add(error(node, IMarker.SEVERITY_ERROR, Messages.error_wrong_type));
+                }
+            }
+        }
+    }
+
+    /**
+     * This method checks that the required values for the object type definition contains only valid properties.
+     * 
+     * @param errors
+     * @param node
+     */
+    protected void checkMissingRequiredProperties(Set<SwaggerError> errors, AbstractNode node) {
+        if (node.get("required") instanceof ArrayNode) {
+            ArrayNode required = node.get("required").asArray();
+
+            AbstractNode properties = node.get("properties");
+            if (properties == null) {
+                errors.add(error(node, IMarker.SEVERITY_ERROR, Messages.error_missing_properties));
+            } else {
+                for (AbstractNode prop : required.elements()) {
+                    if (prop instanceof ValueNode) {
+                        ValueNode valueNode = prop.asValue();
+                        String value = valueNode.getValue().toString();
+
+                        if (properties.get(value) == null) {
+                            errors.add(error(valueNode, IMarker.SEVERITY_ERROR,
+                                    String.format(Messages.error_required_properties, value)));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation.rules;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.resources.IMarker;
+
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Multimap;
+import com.reprezen.swagedit.Messages;
+import com.reprezen.swagedit.model.AbstractNode;
+import com.reprezen.swagedit.validation.SwaggerError;
+
+/**
+ * Checks that the operationIds of all operations are unique.
+ */
+public class OperationIdRule extends Rule {
+
+    public OperationIdRule() {
+        super("/paths/*/*/operationId");
+    }
+
+    @Override
+    public void check(List<AbstractNode> nodes, Set<SwaggerError> errors) {
+        final Multimap<String, AbstractNode> operations = LinkedHashMultimap.create();
+        for (AbstractNode node : nodes) {
+            final String id = getValue(node);
+            if (id != null && Operations.isOperation(node.getParent())) {
+                operations.put(id, node);
+            }
+        }
+
+        for (String id : operations.keySet()) {
+            final Collection<AbstractNode> duplicates = operations.get(id);
+            if (duplicates.size() > 1) {
+                for (AbstractNode node : duplicates) {
+                    errors.add(error(node, IMarker.SEVERITY_ERROR, String.format(Messages.error_duplicate_operation_id,
+                            id)));
+                }
+            }
+        }
+    }
+
+}
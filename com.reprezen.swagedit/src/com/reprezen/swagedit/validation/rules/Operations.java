@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation.rules;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.google.common.collect.ImmutableSet;
+import com.reprezen.swagedit.model.AbstractNode;
+
+/*
+ * Helper methods to access the operations of a model and their parameters.
+ */
+final class Operations {
+
+    static final Set<String> METHODS = ImmutableSet.of("get", "put", "post", "delete", "options", "head", "patch");
+
+    private Operations() {
+    }
+
+    /**
+     * Returns true if the node is a path item.
+     *
+     * @param node
+     * @return true if path item
+     */
+    static boolean isPathItem(AbstractNode node) {
+        if (node == null || !node.isObject() || node.getProperty() == null || !node.getProperty().startsWith("/")) {
+            return false;
+        }
+        final AbstractNode paths = node.getParent();
+        return paths != null && "paths".equals(paths.getProperty()) && paths.getParent() != null
+                && paths.getParent().getParent() == null;
+    }
+
+    /**
+     * Returns true if the node is an operation of a path item.
+     *
+     * @param node
+     * @return true if operation
+     */
+    static boolean isOperation(AbstractNode node) {
+        return node != null && node.isObject() && METHODS.contains(node.getProperty()) && isPathItem(node.getParent());
+    }
+
+    /**
+     * Returns the operations of a path item.
+     *
+     * @param pathItem
+     * @return operations
+     */
+    static List<AbstractNode> getOperations(AbstractNode pathItem) {
+        final List<AbstractNode> operations = new ArrayList<>();
+        if (pathItem.isObject()) {
+            for (AbstractNode node : pathItem.elements()) {
+                if (isOperation(node)) {
+                    operations.add(node);
+                }
+            }
+        }
+        return operations;
+    }
+
+    /**
+     * Returns the parameters of a list of parameters, local references being resolved.
+     *
+     * @param parameters
+     * @return parameters
+     */
+    static List<Parameter> getParameters(AbstractNode parameters) {
+        if (parameters == null || !parameters.isArray()) {
+            return Collections.emptyList();
+        }
+
+        final List<Parameter> result = new ArrayList<>();
+        for (AbstractNode node : parameters.elements()) {
+            if (node.isObject()) {
+                final AbstractNode definition = node.get("$ref") != null ? resolve(node) : node;
+                result.add(new Parameter(node, definition));
+            }
+        }
+        return result;
+    }
+
+    private static AbstractNode resolve(AbstractNode node) {
+        final String ref = Rule.getValue(node.get("$ref"));
+        if (ref == null || !ref.startsWith("#/")) {
+            return null;
+        }
+        try {
+            final AbstractNode definition = node.getModel().find(JsonPointer.compile(ref.substring(1)));
+            return definition != null && definition.isObject() ? definition : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /*
+     * Parameter declared in a list of parameters.
+     */
+    static class Parameter {
+        // node of the list of parameters, may be a reference
+        final AbstractNode node;
+        // null if the parameter is a reference that cannot be resolved in the model
+        final String name;
+        final String in;
+
+        Parameter(AbstractNode node, AbstractNode definition) {
+            this.node = node;
+            this.name = definition != null ? Rule.getValue(definition.get("name")) : null;
+            this.in = definition != null ? Rule.getValue(definition.get("in")) : null;
+        }
+
+        boolean isResolved() {
+            return name != null && in != null;
+        }
+    }
+
+}
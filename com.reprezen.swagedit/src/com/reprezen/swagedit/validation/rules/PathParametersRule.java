@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation.rules;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.resources.IMarker;
+
+import com.reprezen.swagedit.Messages;
+import com.reprezen.swagedit.model.AbstractNode;
+import com.reprezen.swagedit.validation.SwaggerError;
+import com.reprezen.swagedit.validation.rules.Operations.Parameter;
+
+/**
+ * Checks that the parameters of the path template of each operation are declared as path parameters, by the
+ * operation or by its path item, and that path parameters are part of the path template.
+ *
+ * <br/>
+ *
+ * Operations having parameters that are references to other documents are not checked for missing parameters.
+ */
+public class PathParametersRule extends Rule {
+
+    private static final Pattern TEMPLATE_PATTERN = Pattern.compile("\\{([^{}/]+)\\}");
+
+    public PathParametersRule() {
+        super("/paths/*");
+    }
+
+    @Override
+    protected void check(AbstractNode pathItem, Set<SwaggerError> errors) {
+        if (!Operations.isPathItem(pathItem)) {
+            return;
+        }
+
+        final Set<String> template = new LinkedHashSet<>();
+        final Matcher matcher = TEMPLATE_PATTERN.matcher(pathItem.getProperty());
+        while (matcher.find()) {
+            template.add(matcher.group(1));
+        }
+
+        final List<Parameter> shared = Operations.getParameters(pathItem.get("parameters"));
+        checkUnknown(shared, template, errors);
+
+        for (AbstractNode operation : Operations.getOperations(pathItem)) {
+            final List<Parameter> parameters = Operations.getParameters(operation.get("parameters"));
+            checkUnknown(parameters, template, errors);
+
+            final Set<String> declared = new HashSet<>();
+            if (!collectPathParameters(shared, declared) || !collectPathParameters(parameters, declared)) {
+                continue;
+            }
+            for (String name : template) {
+                if (!declared.contains(name)) {
+                    errors.add(error(operation, IMarker.SEVERITY_ERROR,
+                            String.format(Messages.error_missing_path_parameter, name)));
+                }
+            }
+        }
+    }
+
+    private void checkUnknown(List<Parameter> parameters, Set<String> template, Set<SwaggerError> errors) {
+        for (Parameter parameter : parameters) {
+            if ("path".equals(parameter.in) && !template.contains(parameter.name)) {
+                errors.add(error(parameter.node, IMarker.SEVERITY_ERROR,
+                        String.format(Messages.error_unknown_path_parameter, parameter.name)));
+            }
+        }
+    }
+
+    /*
+     * Returns false if some parameters cannot be resolved.
+     */
+    private boolean collectPathParameters(List<Parameter> parameters, Set<String> names) {
+        for (Parameter parameter : parameters) {
+            if (!parameter.isResolved()) {
+                return false;
+            }
+            if ("path".equals(parameter.in)) {
+                names.add(parameter.name);
+            }
+        }
+        return true;
+    }
+
+}
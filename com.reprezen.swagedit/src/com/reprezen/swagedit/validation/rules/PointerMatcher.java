@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation.rules;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Matches pointers against the patterns of a list of rules.
+ *
+ * <br/>
+ *
+ * The patterns of all rules are compiled into a single tree of segments. A pointer is matched one segment at a time,
+ * while the model is traversed, the state of a node being computed from the state of its parent and the segment of the
+ * node. The transitions between states are computed once and kept, so that matching a node against all patterns costs
+ * a single lookup. Once a state cannot lead to any pattern, the nodes below it can be skipped.
+ */
+final class PointerMatcher {
+
+    private final Segment root = new Segment(false);
+    private final ConcurrentMap<Set<Segment>, State> states = new ConcurrentHashMap<>();
+    private final State initial;
+
+    PointerMatcher(List<? extends Rule> rules) {
+        for (int i = 0; i < rules.size(); i++) {
+            for (String pattern : rules.get(i).getPatterns()) {
+                add(pattern, i);
+            }
+        }
+        this.initial = state(closure(Collections.singleton(root)));
+    }
+
+    /**
+     * Returns the state of the root pointer.
+     *
+     * @return state
+     */
+    State getInitial() {
+        return initial;
+    }
+
+    private void add(String pattern, int rule) {
+        if (!pattern.isEmpty() && !pattern.startsWith("/")) {
+            throw new IllegalArgumentException("Invalid pointer pattern " + pattern);
+        }
+
+        Segment current = root;
+        if (!pattern.isEmpty()) {
+            for (String segment : pattern.substring(1).split("/", -1)) {
+                current = current.child(segment.replace("~1", "/").replace("~0", "~"));
+            }
+        }
+        current.rules.set(rule);
+    }
+
+    /*
+     * Adds the segments that match zero segments of a pointer.
+     */
+    private static Set<Segment> closure(Set<Segment> segments) {
+        final Set<Segment> result = new HashSet<>(segments);
+        for (Segment segment : segments) {
+            Segment deep = segment.deep;
+            while (deep != null && result.add(deep)) {
+                deep = deep.deep;
+            }
+        }
+        return result;
+    }
+
+    private State state(Set<Segment> segments) {
+        State state = states.get(segments);
+        if (state == null) {
+            final State previous = states.putIfAbsent(segments, state = new State(segments));
+            if (previous != null) {
+                state = previous;
+            }
+        }
+        return state;
+    }
+
+    /**
+     * State reached by a pointer.
+     */
+    final class State {
+        private final Set<Segment> segments;
+        private final Set<String> literals = new HashSet<>();
+        private final int[] rules;
+        private final ConcurrentMap<String, State> transitions = new ConcurrentHashMap<>();
+        // transition for segments that are not literals of this state
+        private volatile State other;
+
+        private State(Set<Segment> segments) {
+            this.segments = segments;
+
+            final BitSet matched = new BitSet();
+            for (Segment segment : segments) {
+                literals.addAll(segment.literals.keySet());
+                matched.or(segment.rules);
+            }
+
+            this.rules = new int[matched.cardinality()];
+            for (int i = matched.nextSetBit(0), j = 0; i >= 0; i = matched.nextSetBit(i + 1)) {
+                rules[j++] = i;
+            }
+        }
+
+        /**
+         * Returns the indexes of the rules matching the pointers that reach this state.
+         *
+         * @return rules
+         */
+        int[] getRules() {
+            return rules;
+        }
+
+        /**
+         * Returns true if no pattern can match a pointer that reaches this state or any of its children.
+         *
+         * @return true if dead
+         */
+        boolean isDead() {
+            return segments.isEmpty();
+        }
+
+        /**
+         * Returns the state of a child pointer.
+         *
+         * @param segment
+         *            unescaped last segment of the child pointer
+         * @return state
+         */
+        State next(String segment) {
+            return literals.contains(segment) ? literal(segment) : other();
+        }
+
+        /**
+         * Returns the state of a child pointer whose last segment is an index.
+         *
+         * @param index
+         * @return state
+         */
+        State next(int index) {
+            // avoids building the segment when no literal can match it
+            return literals.isEmpty() ? other() : next(Integer.toString(index));
+        }
+
+        private State other() {
+            State state = other;
+            if (state == null) {
+                other = state = compute(null);
+            }
+            return state;
+        }
+
+        private State literal(String segment) {
+            State state = transitions.get(segment);
+            if (state == null) {
+                transitions.putIfAbsent(segment, state = compute(segment));
+            }
+            return state;
+        }
+
+        private State compute(String segment) {
+            final Set<Segment> result = new HashSet<>();
+            for (Segment current : segments) {
+                if (current.isDeep) {
+                    result.add(current);
+                }
+                if (current.any != null) {
+                    result.add(current.any);
+                }
+                if (segment != null && current.literals.containsKey(segment)) {
+                    result.add(current.literals.get(segment));
+                }
+            }
+            return state(closure(result));
+        }
+    }
+
+    /*
+     * Segment of a pattern.
+     */
+    private static final class Segment {
+        final boolean isDeep;
+        final Map<String, Segment> literals = new HashMap<>();
+        final BitSet rules = new BitSet();
+        // children matching one segment and any number of segments
+        Segment any;
+        Segment deep;
+
+        Segment(boolean isDeep) {
+            this.isDeep = isDeep;
+        }
+
+        Segment child(String segment) {
+            if ("**".equals(segment)) {
+                if (deep == null) {
+                    deep = new Segment(true);
+                }
+                return deep;
+            } else if ("*".equals(segment)) {
+                if (any == null) {
+                    any = new Segment(false);
+                }
+                return any;
+            }
+
+            Segment child = literals.get(segment);
+            if (child == null) {
+                literals.put(segment, child = new Segment(false));
+            }
+            return child;
+        }
+    }
+
+}
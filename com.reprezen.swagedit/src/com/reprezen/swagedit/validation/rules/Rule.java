@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation.rules;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import com.reprezen.swagedit.model.AbstractNode;
+import com.reprezen.swagedit.model.ValueNode;
+import com.reprezen.swagedit.validation.SwaggerError;
+
+/**
+ * Rule that checks the nodes of a model that cannot be verified by the JSON schema validation.
+ *
+ * <br/>
+ *
+ * A rule declares the patterns of the pointers of the nodes it checks. A pattern is a JSON pointer in which a segment
+ * <code>*</code> matches any single segment and a segment <code>**</code> matches any number of segments, for example
+ * <code>/paths/*</code> matches all path items and <code>**&#47;schema</code> matches all schemas.
+ *
+ * <br/>
+ *
+ * Rules are shared by all validations and may run at the same time on different documents, they should not keep any
+ * state between calls.
+ *
+ * @see RuleEngine
+ */
+public abstract class Rule {
+
+    private final List<String> patterns;
+
+    protected Rule(String... patterns) {
+        this.patterns = Collections.unmodifiableList(Arrays.asList(patterns));
+    }
+
+    /**
+     * Returns the patterns of the pointers of the nodes checked by this rule.
+     *
+     * @return patterns
+     */
+    public List<String> getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * Checks the nodes matching the patterns of this rule, in the order of the document.
+     *
+     * <br/>
+     *
+     * Rules that compare nodes with each other override this method, others override {@link #check(AbstractNode, Set)}.
+     *
+     * @param nodes
+     * @param errors
+     */
+    public void check(List<AbstractNode> nodes, Set<SwaggerError> errors) {
+        for (AbstractNode node : nodes) {
+            check(node, errors);
+        }
+    }
+
+    /**
+     * Checks a node matching the patterns of this rule.
+     *
+     * @param node
+     * @param errors
+     */
+    protected void check(AbstractNode node, Set<SwaggerError> errors) {
+    }
+
+    protected SwaggerError error(AbstractNode node, int level, String message) {
+        return new SwaggerError(node.getStart().getLine() + 1, level, message).setRange(node.getStart().getOffset(),
+                node.getEnd().getOffset());
+    }
+
+    /**
+     * Returns the value of the node as a string, or null if the node is not a value.
+     *
+     * @param node
+     * @return value
+     */
+    protected static String getValue(AbstractNode node) {
+        if (node instanceof ValueNode && node.asValue().getValue() != null) {
+            return node.asValue().getValue().toString();
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation.rules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import com.reprezen.swagedit.model.AbstractNode;
+import com.reprezen.swagedit.model.Model;
+import com.reprezen.swagedit.validation.SwaggerError;
+import com.reprezen.swagedit.validation.ValidationPool;
+import com.reprezen.swagedit.validation.rules.PointerMatcher.State;
+
+/**
+ * Checks a model against a list of rules.
+ *
+ * <br/>
+ *
+ * The model is traversed once, each node is matched against the patterns of all rules at the same time and collected
+ * for the rules that match it, subtrees that cannot match any pattern are not traversed. The rules are then run
+ * independently from each other on the {@link ValidationPool}.
+ *
+ * @see Rule
+ */
+public class RuleEngine {
+
+    private static RuleEngine defaultEngine;
+
+    private final List<Rule> rules;
+    private final PointerMatcher matcher;
+
+    public RuleEngine(Collection<? extends Rule> rules) {
+        this.rules = Collections.unmodifiableList(new ArrayList<Rule>(rules));
+        this.matcher = new PointerMatcher(this.rules);
+    }
+
+    /**
+     * Returns the engine that checks the Swagger rules that are not verified by the Swagger schema.
+     *
+     * @return default engine
+     */
+    public static synchronized RuleEngine getDefault() {
+        if (defaultEngine == null) {
+            defaultEngine = new RuleEngine(Arrays.asList( //
+                    new ArrayTypeRule(), //
+                    new ObjectTypeRule(), //
+                    new OperationIdRule(), //
+                    new PathParametersRule(), //
+                    new UniqueParametersRule(), //
+                    new MediaTypesRule()));
+        }
+        return defaultEngine;
+    }
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Returns the errors found by the rules in the model.
+     *
+     * @param model
+     * @return errors
+     */
+    public Set<SwaggerError> validate(Model model) {
+        final Set<SwaggerError> errors = new HashSet<>();
+        if (model == null || model.getRoot() == null) {
+            return errors;
+        }
+
+        final List<List<AbstractNode>> matches = new ArrayList<>(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            matches.add(new ArrayList<AbstractNode>());
+        }
+        if (!matcher.getInitial().isDead()) {
+            collect(model.getRoot(), matcher.getInitial(), matches);
+        }
+
+        final List<Callable<Set<SwaggerError>>> tasks = new ArrayList<>();
+        for (int i = 0; i < rules.size(); i++) {
+            final Rule rule = rules.get(i);
+            final List<AbstractNode> nodes = matches.get(i);
+            if (!nodes.isEmpty()) {
+                tasks.add(new Callable<Set<SwaggerError>>() {
+                    @Override
+                    public Set<SwaggerError> call() {
+                        final Set<SwaggerError> result = new HashSet<>();
+                        rule.check(nodes, result);
+                        return result;
+                    }
+                });
+            }
+        }
+
+        for (Set<SwaggerError> result : ValidationPool.invokeAll(tasks)) {
+            errors.addAll(result);
+        }
+        return errors;
+    }
+
+    private void collect(AbstractNode node, State state, List<List<AbstractNode>> matches) {
+        for (int rule : state.getRules()) {
+            matches.get(rule).add(node);
+        }
+
+        if (node.isObject()) {
+            for (AbstractNode child : node.elements()) {
+                final State next = state.next(child.getProperty());
+                if (!next.isDead()) {
+                    collect(child, next, matches);
+                }
+            }
+        } else if (node.isArray()) {
+            int index = 0;
+            for (AbstractNode child : node.elements()) {
+                final State next = state.next(index++);
+                if (!next.isDead()) {
+                    collect(child, next, matches);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ModelSolv, Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    ModelSolv, Inc. - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package com.reprezen.swagedit.validation.rules;
+
+import java.util.Collection;
+import java.util.Set;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.eclipse.core.resources.IMarker;
+
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Multimap;
+import com.reprezen.swagedit.Messages;
+import com.reprezen.swagedit.model.AbstractNode;
+import com.reprezen.swagedit.validation.SwaggerError;
+import com.reprezen.swagedit.validation.rules.Operations.Parameter;
+
+/**
+ * Checks that a list of parameters does not contain more than one parameter with the same name and location.
+ */
+public class UniqueParametersRule extends Rule {
+
+    public UniqueParametersRule() {
+        super("/paths/*/parameters", "/paths/*/*/parameters");
+    }
+
+    @Override
+    protected void check(AbstractNode node, Set<SwaggerError> errors) {
+        if (!Operations.isPathItem(node.getParent()) && !Operations.isOperation(node.getParent())) {
+            return;
+        }
+
+        final Multimap<Pair<String, String>, Parameter> parameters = LinkedHashMultimap.create();
+        for (Parameter parameter : Operations.getParameters(node)) {
+            if (parameter.isResolved()) {
+                parameters.put(Pair.of(parameter.name, parameter.in), parameter);
+            }
+        }
+
+        for (Pair<String, String> key : parameters.keySet()) {
+            final Collection<Parameter> duplicates = parameters.get(key);
+            if (duplicates.size() > 1) {
+                for (Parameter parameter : duplicates) {
+                    errors.add(error(parameter.node, IMarker.SEVERITY_ERROR,
+                            String.format(Messages.error_duplicate_parameter, key.getLeft(), key.getRight())));
+                }
+            }
+        }
+    }
+
+}